@@ -5,6 +5,31 @@ import ballerina/io;
 configurable string supergraphPath = "";
 configurable string outputPath = ".";
 configurable int port = 9000;
+configurable boolean watch = false;
+configurable string persistedQueriesPath = "";
+// Write the sources while they are generated, one declaration at a time. Cannot be used together with `parallel`.
+configurable boolean streaming = false;
+// Generate the sources in parallel. Cannot be used together with `streaming`.
+configurable boolean parallel = false;
+// Only regenerate the sources affected by the changes since the previous generation to the output path.
+configurable boolean incremental = false;
+// Default settings of the HTTP clients the generated gateway uses to call the subgraphs. The defaults are the ones of
+// the Ballerina GraphQL client.
+configurable decimal clientTimeout = 60;
+configurable int clientRetryCount = 0;
+configurable decimal clientRetryInterval = 0;
+configurable int clientMaxActiveConnections = -1;
+configurable int clientMaxIdleConnections = 100;
+configurable decimal clientWaitTime = 30;
+
+type SubgraphClientDefaults record {|
+    decimal timeout;
+    int retryCount;
+    decimal retryInterval;
+    int maxActiveConnections;
+    int maxIdleConnections;
+    decimal waitTime;
+|};
 
 public function main() returns error? {
     if supergraphPath == "" {
@@ -13,14 +38,34 @@ public function main() returns error? {
     }
     string absoluteSupergraphPath = check file:getAbsolutePath(supergraphPath);
     string absoluteOutputPath = check file:getAbsolutePath(outputPath);
-    string result = generateGateway(absoluteSupergraphPath, absoluteOutputPath, port.toString());
+    SubgraphClientDefaults clientDefaults = {
+        timeout: clientTimeout,
+        retryCount: clientRetryCount,
+        retryInterval: clientRetryInterval,
+        maxActiveConnections: clientMaxActiveConnections,
+        maxIdleConnections: clientMaxIdleConnections,
+        waitTime: clientWaitTime
+    };
+    string absolutePersistedQueriesPath = persistedQueriesPath == "" ? ""
+        : check file:getAbsolutePath(persistedQueriesPath);
+    string result = watch
+        ? watchGateway(absoluteSupergraphPath, absoluteOutputPath, port.toString(), absolutePersistedQueriesPath,
+            clientDefaults)
+        : generateGateway(absoluteSupergraphPath, absoluteOutputPath, port.toString(), absolutePersistedQueriesPath,
+            streaming, parallel, incremental, clientDefaults);
 
     if result != "success" {
         io:print("\nError: ", result, "\n");
     }
 }
 
-isolated function generateGateway(string supergraphPath, string outputPath, string port) returns string = @java:Method {
+isolated function generateGateway(string supergraphPath, string outputPath, string port,
+        string persistedQueriesPath, boolean streaming, boolean parallel, boolean incremental,
+        SubgraphClientDefaults clientDefaults) returns string = @java:Method {
     'class: "io.xlibb.gateway.generator.GatewayCodeGenerator"
 } external;
 
+isolated function watchGateway(string supergraphPath, string outputPath, string port, string persistedQueriesPath,
+        SubgraphClientDefaults clientDefaults) returns string = @java:Method {
+    'class: "io.xlibb.gateway.generator.GatewayCodeGenerator"
+} external;
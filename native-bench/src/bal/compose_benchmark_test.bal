@@ -0,0 +1,54 @@
+import ballerina/io;
+import ballerina/test;
+import ballerina/time;
+
+// Micro-benchmark of composing `_entities` responses to large nested lists.
+// The runtime functions it measures are only complete in a generated gateway, so run it with
+// `./gradlew :gateway-native-bench:composeBenchmark`, which generates a gateway, copies this file to its `tests`
+// directory and runs `bal test --groups compose-benchmark`.
+// Each result has `productCount` products with `reviewCount` reviews each, and the authors of the reviews are
+// fetched at `products.@.reviews.@.author`, with at most `AUTHOR_COUNT` distinct authors.
+
+const int ITERATIONS = 20;
+const int AUTHOR_COUNT = 500;
+
+@test:Config {groups: ["compose-benchmark"]}
+function benchmarkCompose() {
+    [int, int][] sizes = [[100, 10], [1000, 10], [1000, 100]];
+    string[] path = ["products", "@", "reviews", "@", "author"];
+    json[] authors = from int i in 0 ..< AUTHOR_COUNT
+        select {id: i, name: string `author-${i}`, ratings: [i, i + 1]};
+
+    foreach [int, int] [productCount, reviewCount] in sizes {
+        decimal elapsed = 0;
+        int entityCount = 0;
+        foreach int _ in 0 ..< ITERATIONS {
+            json result = getResult(productCount, reviewCount);
+            decimal startTime = time:monotonicNow();
+            map<json>[] entities = [];
+            collectEntities(result, path, 0, entities);
+            int[] positions = from map<json> entity in entities
+                select <int>entity["id"];
+            composeEntities(entities, positions, ["name", "ratings"], authors);
+            elapsed += time:monotonicNow() - startTime;
+
+            entityCount = entities.length();
+            test:assertEquals(entities[entityCount - 1]["name"], string `author-${positions[entityCount - 1]}`);
+        }
+        decimal average = elapsed * 1000 / ITERATIONS;
+        io:println(string `products: ${productCount}, reviews: ${reviewCount}, entities: ${entityCount}, ` +
+            string `compose: ${average.round(3)} ms`);
+    }
+}
+
+function getResult(int productCount, int reviewCount) returns json {
+    json[] products = [];
+    foreach int p in 0 ..< productCount {
+        json[] reviews = [];
+        foreach int r in 0 ..< reviewCount {
+            reviews.push({id: string `${p}-${r}`, author: {id: (p * reviewCount + r) % AUTHOR_COUNT}});
+        }
+        products.push({id: p, reviews});
+    }
+    return {products};
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import io.xlibb.gateway.GatewayProject;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the gateway the compose benchmark runs in, from a synthetic supergraph. The benchmark measures runtime
+ * functions of the gateway which do not depend on the supergraph.
+ * <p>
+ * Used by the {@code composeBenchmark} task of the build, which copies {@code src/bal/compose_benchmark_test.bal} to
+ * the tests of the generated gateway and runs it.
+ */
+public final class ComposeBenchmarkGateway {
+    private static final int ENTITY_TYPE_COUNT = 10;
+
+    private ComposeBenchmarkGateway() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path outputPath = Files.createDirectories(Paths.get(args[0]));
+        Path supergraphPath = new SupergraphGenerator().entityTypes(ENTITY_TYPE_COUNT).seed(ENTITY_TYPE_COUNT)
+                .write(Files.createTempDirectory("compose-benchmark"), "supergraph.graphql");
+        GatewayCodeGenerator.generateGatewayProject(new GatewayProject("compose_benchmark", supergraphPath,
+                outputPath));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import graphql.schema.GraphQLSchema;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.SchemaLoadingMode;
+import io.xlibb.gateway.graphql.SupergraphIndex;
+import io.xlibb.gateway.graphql.Utils;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the phases of the gateway code generation pipeline.
+ * <p>
+ * Each generator is measured twice: once for building the syntax tree only and once for {@code generateSrc}, which
+ * also runs {@code Formatter.format}. The difference between the two is the time spent in the formatter. Run with
+ * the {@code gc} profiler (enabled by default in the build) to get the allocation rate of each phase.
+ * <p>
+ * {@code schemaLoading} and {@code typeDefinitionLoading} compare indexing the supergraph through an executable schema
+ * with indexing it directly from its type definitions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GatewayGenerationBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int typeCount;
+
+    private String supergraph;
+    private Path supergraphPath;
+    private Path outputPath;
+    private GatewayProject project;
+    private GraphQLSchema schema;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        supergraph = new SupergraphGenerator().entityTypes(typeCount).seed(typeCount).generate();
+        supergraphPath = Files.createTempFile("supergraph-" + typeCount, ".graphql");
+        Files.writeString(supergraphPath, supergraph, StandardCharsets.UTF_8);
+        outputPath = Files.createTempDirectory("gateway-bench-" + typeCount);
+        project = new GatewayProject("bench", supergraphPath, outputPath);
+        schema = project.getSchema();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(supergraphPath);
+        FileUtils.deleteDirectory(outputPath.toFile());
+    }
+
+    @Benchmark
+    public GraphQLSchema schemaBuilding() throws Exception {
+        return Utils.getGraphqlSchema(supergraph);
+    }
+
+    @Benchmark
+    public SupergraphIndex schemaLoading() throws Exception {
+        return new SupergraphIndex(Utils.getGraphqlSchema(supergraph));
+    }
+
+    @Benchmark
+    public SupergraphIndex typeDefinitionLoading() throws Exception {
+        return new SupergraphIndex(Utils.getTypeDefinitionRegistry(supergraph));
+    }
+
+    @Benchmark
+    public SyntaxTree typeGeneratorSyntaxTree() throws Exception {
+        return new GatewayTypeGenerator(schema).generateSyntaxTree();
+    }
+
+    @Benchmark
+    public String typeGenerator() throws Exception {
+        return new GatewayTypeGenerator(schema).generateSrc();
+    }
+
+    @Benchmark
+    public SyntaxTree queryPlanGeneratorSyntaxTree() throws Exception {
+        return new GatewayQueryPlanGenerator(schema).generateSyntaxTree();
+    }
+
+    @Benchmark
+    public String queryPlanGenerator() throws Exception {
+        return new GatewayQueryPlanGenerator(schema).generateSrc();
+    }
+
+    @Benchmark
+    public SyntaxTree serviceGeneratorSyntaxTree() throws Exception {
+        return new GatewayServiceGenerator(project).generateSyntaxTree();
+    }
+
+    @Benchmark
+    public String serviceGenerator() throws Exception {
+        return new GatewayServiceGenerator(project).generateSrc();
+    }
+
+    @Benchmark
+    public GatewayProject generateGatewayProject() throws Exception {
+        GatewayProject gatewayProject = new GatewayProject("bench", supergraphPath, outputPath);
+        GatewayCodeGenerator.generateGatewayProject(gatewayProject);
+        return gatewayProject;
+    }
+
+    @Benchmark
+    public GatewayProject generateGatewayProjectFromTypeDefinitions() throws Exception {
+        GatewayProject gatewayProject = new GatewayProject("bench", supergraphPath, outputPath,
+                SchemaLoadingMode.TYPE_DEFINITIONS);
+        GatewayCodeGenerator.generateGatewayProject(gatewayProject);
+        return gatewayProject;
+    }
+
+    @Benchmark
+    public GatewayProject generateGatewayProjectParallel() throws Exception {
+        GatewayProject gatewayProject = new GatewayProject("bench", supergraphPath, outputPath);
+        gatewayProject.setParallel(true);
+        GatewayCodeGenerator.generateGatewayProject(gatewayProject);
+        return gatewayProject;
+    }
+
+    @Benchmark
+    public GatewayProject generateGatewayProjectStreaming() throws Exception {
+        GatewayProject gatewayProject = new GatewayProject("bench", supergraphPath, outputPath);
+        gatewayProject.setStreaming(true);
+        GatewayCodeGenerator.generateGatewayProject(gatewayProject);
+        return gatewayProject;
+    }
+}
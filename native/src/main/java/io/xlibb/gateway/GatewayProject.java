@@ -20,10 +20,8 @@ package io.xlibb.gateway;
 
 import graphql.schema.GraphQLSchema;
 import io.xlibb.gateway.exception.ValidationException;
+import io.xlibb.gateway.graphql.SupergraphIndex;
 import io.xlibb.gateway.graphql.Utils;
-import org.apache.commons.io.FileUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -33,27 +31,23 @@ import java.nio.file.Path;
  * Class to represent GraphQL federation gateway generation project.
  */
 public class GatewayProject {
-    private static final Logger LOGGER = LoggerFactory.getLogger(GatewayProject.class);
     private final String name;
-    private final Path tempDir;
     private final Path outputPath;
     private final GraphQLSchema schema;
+    private final SupergraphIndex supergraphIndex;
     private int port = 9000;
+    private boolean parallel = false;
+    private boolean incremental = false;
+    private boolean streaming = false;
+    private Path persistedQueriesPath = null;
+    private SubgraphClientDefaults subgraphClientDefaults = new SubgraphClientDefaults();
 
     public GatewayProject(String name, String schemaPath, String outputPath) throws IOException, ValidationException {
         this.name = name;
         this.outputPath = Path.of(outputPath);
         String schemaFileContent = Files.readString(Path.of(schemaPath));
         this.schema = Utils.getGraphqlSchema(schemaFileContent);
-        tempDir = Files.createTempDirectory(".gateway-tmp" + System.nanoTime());
-
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            try {
-                FileUtils.deleteDirectory(tempDir.toFile());
-            } catch (IOException ex) {
-                LOGGER.error("Unable to delete the temporary directory : " + tempDir, ex);
-            }
-        }));
+        this.supergraphIndex = new SupergraphIndex(schema);
     }
 
     public GatewayProject(String name, String schemaPath, String outputPath, int port) throws ValidationException,
@@ -63,29 +57,31 @@ public class GatewayProject {
     }
 
     public GatewayProject(String name, Path schemaPath, Path outputPath) throws IOException, ValidationException {
+        this(name, schemaPath, outputPath, SchemaLoadingMode.EXECUTABLE_SCHEMA);
+    }
+
+    /**
+     * Creates a gateway project, loading the supergraph in the given mode. When the supergraph is loaded as type
+     * definitions, {@link #getSchema()} returns {@code null} and the generators read the supergraph index only.
+     */
+    public GatewayProject(String name, Path schemaPath, Path outputPath, SchemaLoadingMode schemaLoadingMode)
+            throws IOException, ValidationException {
         this.name = name;
         this.outputPath = outputPath;
         String schemaFileContent = Files.readString(schemaPath);
-        this.schema = Utils.getGraphqlSchema(schemaFileContent);
-        tempDir = Files.createTempDirectory(".gateway-tmp" + System.nanoTime());
-
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            try {
-                FileUtils.deleteDirectory(tempDir.toFile());
-            } catch (IOException ex) {
-                LOGGER.error("Unable to delete the temporary directory : " + tempDir, ex);
-            }
-        }));
+        if (schemaLoadingMode == SchemaLoadingMode.TYPE_DEFINITIONS) {
+            this.schema = null;
+            this.supergraphIndex = new SupergraphIndex(Utils.getTypeDefinitionRegistry(schemaFileContent));
+        } else {
+            this.schema = Utils.getGraphqlSchema(schemaFileContent);
+            this.supergraphIndex = new SupergraphIndex(schema);
+        }
     }
 
     public String getName() {
         return name;
     }
 
-    public Path getTempDir() {
-        return tempDir;
-    }
-
     public Path getOutputPath() {
         return outputPath;
     }
@@ -94,7 +90,87 @@ public class GatewayProject {
         return schema;
     }
 
+    public SupergraphIndex getSupergraphIndex() {
+        return supergraphIndex;
+    }
+
     public int getPort() {
         return port;
     }
+
+    /**
+     * Returns whether the gateway sources are generated in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether the gateway sources are generated in parallel. The generated sources are the same in both modes.
+     * Parallel generation cannot be used together with streaming generation.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Returns whether only the sources affected by the changes since the previous generation are regenerated.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Sets whether only the sources affected by the changes since the previous generation are regenerated. Files
+     * in the output directory are only rewritten when their content changes.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Returns whether the gateway sources are written to the output files while they are generated.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets whether the gateway sources are written to the output files while they are generated, one declaration at
+     * a time, instead of being built in memory first. The streamed sources are the same as the generated sources.
+     * Streaming generation cannot be used together with parallel generation.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Returns the path of the persisted queries preloaded to the generated gateway, or {@code null} if there are none.
+     */
+    public Path getPersistedQueriesPath() {
+        return persistedQueriesPath;
+    }
+
+    /**
+     * Sets the path of the persisted queries preloaded to the generated gateway at startup. The file holds a JSON
+     * list of documents or a persisted query manifest, and is embedded in the generated sources.
+     */
+    public void setPersistedQueriesPath(Path persistedQueriesPath) {
+        this.persistedQueriesPath = persistedQueriesPath;
+    }
+
+    /**
+     * Returns the default settings of the HTTP clients of the subgraphs in the generated gateway.
+     */
+    public SubgraphClientDefaults getSubgraphClientDefaults() {
+        return subgraphClientDefaults;
+    }
+
+    /**
+     * Sets the default settings of the HTTP clients of the subgraphs in the generated gateway. The settings can be
+     * overridden per subgraph through configuration without regenerating the gateway.
+     */
+    public void setSubgraphClientDefaults(SubgraphClientDefaults subgraphClientDefaults) {
+        this.subgraphClientDefaults = subgraphClientDefaults;
+    }
 }
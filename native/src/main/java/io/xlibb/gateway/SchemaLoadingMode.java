@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway;
+
+/**
+ * Ways of loading the supergraph schema of a gateway project.
+ */
+public enum SchemaLoadingMode {
+    /**
+     * Builds an executable GraphQL schema from the supergraph, which validates it against the full GraphQL
+     * specification.
+     */
+    EXECUTABLE_SCHEMA,
+    /**
+     * Reads the supergraph into type definitions and validates only the parts the gateway generation depends on.
+     * No executable schema is built, so loading takes less time and memory. Type extensions are not supported.
+     */
+    TYPE_DEFINITIONS
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * Default settings of the HTTP clients the generated gateway uses to call the subgraphs. Each setting can be
+ * overridden per subgraph with the {@code <SUBGRAPH>_CLIENT_CONFIG} configurable of the generated gateway. The
+ * initial values are the defaults of the Ballerina GraphQL client.
+ */
+public class SubgraphClientDefaults {
+
+    /**
+     * HTTP versions of the requests to the subgraphs.
+     */
+    public enum HttpVersion {
+        HTTP_1_1("1.1"),
+        HTTP_2_0("2.0");
+
+        private final String value;
+
+        HttpVersion(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Keep-alive behaviours of HTTP/1.1 connections and compression behaviours of requests.
+     */
+    public enum Mode {
+        AUTO,
+        ALWAYS,
+        NEVER
+    }
+
+    private HttpVersion httpVersion = HttpVersion.HTTP_2_0;
+    private int maxActiveConnections = -1;
+    private int maxIdleConnections = 100;
+    private BigDecimal waitTime = BigDecimal.valueOf(30);
+    private Mode keepAlive = Mode.AUTO;
+    private BigDecimal timeout = BigDecimal.valueOf(60);
+    private int retryCount = 0;
+    private BigDecimal retryInterval = BigDecimal.ZERO;
+    private Mode compression = Mode.AUTO;
+
+    public HttpVersion getHttpVersion() {
+        return httpVersion;
+    }
+
+    public void setHttpVersion(HttpVersion httpVersion) {
+        this.httpVersion = httpVersion;
+    }
+
+    public int getMaxActiveConnections() {
+        return maxActiveConnections;
+    }
+
+    /**
+     * Sets the maximum number of active connections to a subgraph, or -1 for no limit.
+     */
+    public void setMaxActiveConnections(int maxActiveConnections) {
+        this.maxActiveConnections = maxActiveConnections;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public BigDecimal getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Sets the time in seconds a request waits for a connection when the maximum number of connections are active.
+     */
+    public void setWaitTime(BigDecimal waitTime) {
+        this.waitTime = waitTime;
+    }
+
+    public Mode getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(Mode keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public BigDecimal getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout of a request to a subgraph in seconds.
+     */
+    public void setTimeout(BigDecimal timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Sets the number of retries of a failed request to a subgraph, or 0 to not retry.
+     */
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public BigDecimal getRetryInterval() {
+        return retryInterval;
+    }
+
+    /**
+     * Sets the interval between the retries of a failed request in seconds.
+     */
+    public void setRetryInterval(BigDecimal retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public Mode getCompression() {
+        return compression;
+    }
+
+    public void setCompression(Mode compression) {
+        this.compression = compression;
+    }
+}
@@ -31,29 +31,18 @@ import graphql.language.StringValue;
 import graphql.language.Type;
 import graphql.language.TypeName;
 import graphql.language.Value;
-import graphql.schema.GraphQLAppliedDirective;
-import graphql.schema.GraphQLAppliedDirectiveArgument;
 import graphql.schema.GraphQLEnumType;
 import graphql.schema.GraphQLEnumValueDefinition;
 import graphql.schema.GraphQLFieldDefinition;
-import graphql.schema.GraphQLList;
-import graphql.schema.GraphQLNonNull;
-import graphql.schema.GraphQLObjectType;
-import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLSchemaElement;
 import graphql.schema.GraphQLType;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 import io.xlibb.gateway.exception.ValidationException;
 import io.xlibb.gateway.graphql.SpecReader;
+import io.xlibb.gateway.graphql.SupergraphIndex;
 import io.xlibb.gateway.graphql.components.JoinGraph;
-import org.apache.commons.io.IOUtils;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -137,41 +126,6 @@ public class CommonUtils {
                 child -> child instanceof GraphQLFieldDefinition).collect(Collectors.toList());
     }
 
-    /**
-     * Return the type name of the GraphQL type.
-     *
-     * @param graphQLType GraphQL type
-     * @return Type name
-     * @throws GatewayGenerationException if the type is not supported
-     */
-    public static String getTypeFromGraphQLType(GraphQLType graphQLType) throws GatewayGenerationException {
-        if (graphQLType instanceof GraphQLObjectType) {
-            return ((GraphQLObjectType) graphQLType).getName() + "?";
-        } else if (graphQLType instanceof GraphQLList) {
-            return getTypeFromGraphQLType(((GraphQLList) graphQLType).getOriginalWrappedType()) + "[]?";
-        } else if (graphQLType instanceof GraphQLNonNull) {
-            return getNonNullTypeFromGraphQLType(((GraphQLNonNull) graphQLType).getOriginalWrappedType());
-        } else if (graphQLType instanceof GraphQLScalarType) {
-            return getBallerinaTypeName(((GraphQLScalarType) graphQLType).getName()) + "?";
-        } else {
-            throw new GatewayGenerationException("Unsupported type: " + graphQLType);
-        }
-    }
-
-    public static String getNonNullTypeFromGraphQLType(GraphQLType graphQLType) throws GatewayGenerationException {
-        if (graphQLType instanceof GraphQLObjectType) {
-            return ((GraphQLObjectType) graphQLType).getName();
-        } else if (graphQLType instanceof GraphQLList) {
-            return getTypeFromGraphQLType(((GraphQLList) graphQLType).getOriginalWrappedType()) + "[]";
-        } else if (graphQLType instanceof GraphQLScalarType) {
-            return getBallerinaTypeName(((GraphQLScalarType) graphQLType).getName());
-        } else if (graphQLType instanceof GraphQLNonNull) {
-            return getNonNullTypeFromGraphQLType(((GraphQLNonNull) graphQLType).getOriginalWrappedType());
-        } else {
-            throw new GatewayGenerationException("Unsupported type: " + graphQLType);
-        }
-    }
-
     /**
      * Return the type name of the GraphQL type.
      *
@@ -195,7 +149,7 @@ public class CommonUtils {
     }
 
     public static String getClientFromFieldDefinition(FieldDefinition definition,
-                                                      List<GraphQLAppliedDirective> joinTypeDirectivesOnParent) {
+                                                      List<Directive> joinTypeDirectivesOnParent) {
         for (Directive directive : definition.getDirectives()) {
             if (directive.getName().equals(DIRECTIVE_JOIN_FIELD)) {
                 String graph = null;
@@ -215,8 +169,8 @@ public class CommonUtils {
         }
 
         if (joinTypeDirectivesOnParent.size() == 1) {
-            for (GraphQLAppliedDirectiveArgument argument : joinTypeDirectivesOnParent.get(0).getArguments()) {
-                Object value = argument.getArgumentValue().getValue();
+            for (Argument argument : joinTypeDirectivesOnParent.get(0).getArguments()) {
+                Value<?> value = argument.getValue();
                 if (argument.getName().equals(ARGUMENT_GRAPH) && value instanceof EnumValue) {
                     return ((EnumValue) value).getName();
                 }
@@ -227,71 +181,99 @@ public class CommonUtils {
     }
 
     /**
-     * Return the type name of the GraphQL type without the array brackets.
+     * Return the type name of a GraphQL type read from a type definition.
      *
-     * @param queryType GraphQL type
+     * @param type            GraphQL type
+     * @param supergraphIndex index of the supergraph the type belongs to
      * @return Type name
      * @throws GatewayGenerationException if the type is not supported
      */
-    public static String getBasicTypeNameFromGraphQLType(GraphQLType queryType) throws GatewayGenerationException {
-        if (queryType instanceof GraphQLScalarType) {
-            return getBallerinaTypeName(((GraphQLScalarType) queryType).getName());
-        } else if (queryType instanceof GraphQLObjectType) {
-            return ((GraphQLObjectType) queryType).getName();
-        } else if (queryType instanceof GraphQLList) {
-            return getBasicTypeNameFromGraphQLType(((GraphQLList) queryType).getOriginalWrappedType());
-        } else if (queryType instanceof GraphQLNonNull) {
-            return getBasicTypeNameFromGraphQLType(((GraphQLNonNull) queryType).getOriginalWrappedType());
-        } else {
-            throw new GatewayGenerationException("Unsupported type: " + queryType);
+    public static String getTypeFromGraphQLType(Type<?> type, SupergraphIndex supergraphIndex)
+            throws GatewayGenerationException {
+        if (type instanceof NonNullType) {
+            return getNonNullTypeFromGraphQLType(((NonNullType) type).getType(), supergraphIndex);
+        } else if (type instanceof ListType) {
+            return getTypeFromGraphQLType(((ListType) type).getType(), supergraphIndex) + "[]?";
         }
+        return getBasicTypeNameFromGraphQLType(type, supergraphIndex) + "?";
+    }
+
+    public static String getNonNullTypeFromGraphQLType(Type<?> type, SupergraphIndex supergraphIndex)
+            throws GatewayGenerationException {
+        if (type instanceof NonNullType) {
+            return getNonNullTypeFromGraphQLType(((NonNullType) type).getType(), supergraphIndex);
+        } else if (type instanceof ListType) {
+            return getTypeFromGraphQLType(((ListType) type).getType(), supergraphIndex) + "[]";
+        }
+        return getBasicTypeNameFromGraphQLType(type, supergraphIndex);
     }
 
     /**
-     * Return whether the GraphQL type is a scalar type.
+     * Return the type name of a GraphQL type read from a type definition without the array brackets.
      *
-     * @param queryType GraphQL type
+     * @param type            GraphQL type
+     * @param supergraphIndex index of the supergraph the type belongs to
+     * @return Type name
+     * @throws GatewayGenerationException if the type is not supported
+     */
+    public static String getBasicTypeNameFromGraphQLType(Type<?> type, SupergraphIndex supergraphIndex)
+            throws GatewayGenerationException {
+        if (type instanceof NonNullType) {
+            return getBasicTypeNameFromGraphQLType(((NonNullType) type).getType(), supergraphIndex);
+        } else if (type instanceof ListType) {
+            return getBasicTypeNameFromGraphQLType(((ListType) type).getType(), supergraphIndex);
+        } else if (type instanceof TypeName) {
+            String name = ((TypeName) type).getName();
+            if (supergraphIndex.isObjectType(name)) {
+                return name;
+            } else if (supergraphIndex.isScalarType(name)) {
+                return getBallerinaTypeName(name);
+            }
+        }
+        throw new GatewayGenerationException("Unsupported type: " + type);
+    }
+
+    /**
+     * Return whether a GraphQL type read from a type definition is a scalar type.
+     *
+     * @param type            GraphQL type
+     * @param supergraphIndex index of the supergraph the type belongs to
      * @return Whether the GraphQL type is a scalar type
      */
-    public static Boolean isScalarType(GraphQLType queryType) {
-        if (queryType instanceof GraphQLScalarType) {
-            return true;
-        } else if (queryType instanceof GraphQLNonNull) {
-            return isScalarType(((GraphQLNonNull) queryType).getOriginalWrappedType());
-        } else if (queryType instanceof GraphQLList) {
-            return isScalarType(((GraphQLList) queryType).getOriginalWrappedType());
+    public static Boolean isScalarType(Type<?> type, SupergraphIndex supergraphIndex) {
+        if (type instanceof NonNullType) {
+            return isScalarType(((NonNullType) type).getType(), supergraphIndex);
+        } else if (type instanceof ListType) {
+            return isScalarType(((ListType) type).getType(), supergraphIndex);
         }
-        return false;
+        return type instanceof TypeName && supergraphIndex.isScalarType(((TypeName) type).getName());
     }
 
     /**
-     * Return whether the GraphQL type is a list type.
+     * Return whether a GraphQL type read from a type definition is a list type.
      *
-     * @param queryType GraphQL type
+     * @param type GraphQL type
      * @return Whether the GraphQL type is a list type
      */
-    public static Boolean isListType(GraphQLType queryType) {
-        if (queryType instanceof GraphQLList) {
-            return true;
-        } else if (queryType instanceof GraphQLNonNull) {
-            return isListType(((GraphQLNonNull) queryType).getOriginalWrappedType());
+    public static Boolean isListType(Type<?> type) {
+        if (type instanceof NonNullType) {
+            return isListType(((NonNullType) type).getType());
         }
-        return false;
+        return type instanceof ListType;
     }
 
     /**
-     * Return whether the GraphQL type is an object type.
+     * Return whether a GraphQL type read from a type definition is an object type.
      *
-     * @param queryType GraphQL type
+     * @param type            GraphQL type
+     * @param supergraphIndex index of the supergraph the type belongs to
      * @return Whether the GraphQL type is an object type
      */
-    public static Boolean isObjectType(GraphQLType queryType) {
-        if (queryType instanceof GraphQLObjectType) {
-            return true;
-        } else if (queryType instanceof GraphQLNonNull) {
-            return isObjectType(((GraphQLNonNull) queryType).getOriginalWrappedType());
+    public static Boolean isObjectType(Type<?> type, SupergraphIndex supergraphIndex) {
+        if (type instanceof NonNullType) {
+            return isObjectType(((NonNullType) type).getType(), supergraphIndex);
         }
-        return false;
+        return type instanceof TypeName && supergraphIndex.isObjectType(((TypeName) type).getName());
     }
 
     /**
@@ -311,30 +293,6 @@ public class CommonUtils {
         return joinGraphs;
     }
 
-    /**
-     * Gets the path of the  file after copying it to the specified tmpDir. Used to read resources.
-     *
-     * @param tmpDir   Temporary directory
-     * @param filename Name of the file
-     * @return Path to file in the temporary directory created
-     * @throws IOException When failed to get the gateway_templates/resource_function_body.bal.partial file
-     *                     from resources
-     */
-    public static Path getResourceTemplateFilePath(Path tmpDir, String filename) throws IOException {
-        Path path = null;
-        ClassLoader classLoader = CommonUtils.class.getClassLoader();
-        InputStream inputStream =
-                classLoader.getResourceAsStream(GATEWAY_TEMPLATE_FILES_DIRECTORY + "/" + filename);
-        if (inputStream != null) {
-            String resource = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-            path = tmpDir.resolve(filename);
-            try (PrintWriter writer = new PrintWriter(path.toString(), StandardCharsets.UTF_8)) {
-                writer.print(resource);
-            }
-        }
-        return path;
-    }
-
     public static String getValue(Value<?> value) throws GatewayGenerationException {
         if (value instanceof IntValue) {
             return ((IntValue) value).getValue().toString();
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template split into literal text and placeholder segments, so it can be rendered in a single pass.
+ * <p>
+ * A template is parsed once into alternating literals and placeholders. Rendering appends each literal followed by
+ * the value bound to the next placeholder. Values are inserted as they are and are not scanned for placeholders
+ * again. Placeholders without a binding, and {@code @{name}} sequences which are not known placeholders, are kept
+ * in the output unchanged.
+ */
+public class CompiledTemplate {
+    private static final String PLACEHOLDER_START = "@{";
+    private static final char PLACEHOLDER_END = '}';
+
+    private final String source;
+    private final String[] literals;
+    private final TemplatePlaceholder[] placeholders;
+
+    private CompiledTemplate(String source, String[] literals, TemplatePlaceholder[] placeholders) {
+        this.source = source;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Parses the given template text.
+     *
+     * @param source the template text
+     * @return the compiled template
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<TemplatePlaceholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < source.length()) {
+            int start = source.indexOf(PLACEHOLDER_START, position);
+            if (start < 0) {
+                break;
+            }
+            int end = source.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                break;
+            }
+            literal.append(source, position, start);
+            TemplatePlaceholder placeholder =
+                    TemplatePlaceholder.fromName(source.substring(start + PLACEHOLDER_START.length(), end));
+            if (placeholder == null) {
+                literal.append(source, start, end + 1);
+            } else {
+                literals.add(literal.toString());
+                placeholders.add(placeholder);
+                literal.setLength(0);
+            }
+            position = end + 1;
+        }
+        literal.append(source, position, source.length());
+        literals.add(literal.toString());
+        return new CompiledTemplate(source, literals.toArray(new String[0]),
+                placeholders.toArray(new TemplatePlaceholder[0]));
+    }
+
+    /**
+     * Returns the original template text.
+     *
+     * @return the template text
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Renders the template with the given bindings and appends the result to the given builder.
+     *
+     * @param output   the builder to append the rendered template to
+     * @param bindings the values of the placeholders
+     */
+    public void render(StringBuilder output, Map<TemplatePlaceholder, String> bindings) {
+        for (int i = 0; i < placeholders.length; i++) {
+            output.append(literals[i]);
+            String value = bindings.get(placeholders[i]);
+            if (value == null) {
+                output.append(PLACEHOLDER_START).append(placeholders[i].getName()).append(PLACEHOLDER_END);
+            } else {
+                output.append(value);
+            }
+        }
+        output.append(literals[placeholders.length]);
+    }
+
+    /**
+     * Renders the template with the given bindings.
+     *
+     * @param bindings the values of the placeholders
+     * @return the rendered template
+     */
+    public String render(Map<TemplatePlaceholder, String> bindings) {
+        StringBuilder output = new StringBuilder(source.length());
+        render(output, bindings);
+        return output.toString();
+    }
+}
@@ -18,23 +18,39 @@
 
 package io.xlibb.gateway.generator;
 
-import graphql.schema.GraphQLSchema;
+import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
 import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.SubgraphClientDefaults;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 import io.xlibb.gateway.exception.ValidationException;
+import io.xlibb.gateway.graphql.SupergraphIndex;
 import org.apache.commons.io.IOUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Class to generated source code for the gateway.
@@ -43,37 +59,78 @@ public class GatewayCodeGenerator {
     public static final String SERVICE_FILE_NAME = "service.bal";
     public static final String QUERY_PLAN_FILE_NAME = "query_plan.bal";
     public static final String TYPES_FILE_NAME = "types.bal";
+    public static final String PERSISTED_QUERIES_FILE_NAME = "persisted_queries.bal";
     public static final String GATEWAY_PROJECT_TEMPLATE_DIRECTORY = "gateway";
+    private static final int GENERATOR_COUNT = 3;
+    private static final Set<String> GENERATED_SOURCE_FILES =
+            Set.of(TYPES_FILE_NAME, QUERY_PLAN_FILE_NAME, SERVICE_FILE_NAME);
     private static final String[] GATEWAY_PROJECT_TEMPLATE_FILES = {
             "Ballerina.toml",
             "resolver.bal",
             "utils.bal",
             "records.bal",
-            "query_field_classifier.bal"
+            "fetch_plan.bal",
+            "entity_cache.bal",
+            "response_cache.bal",
+            "persisted_query_store.bal",
+            "subgraph_client.bal",
+            "shared_fetch.bal",
+            "entity_loader.bal",
+            "root_field_batch.bal",
+            "statistics.bal"
     };
+    private static final String PERSISTED_QUERIES_DECLARATION =
+            "// Documents preloaded to the persisted query store at startup, as the JSON text of a list of documents " +
+            "or of a%n// persisted query manifest.%nfinal string PERSISTED_QUERIES = \"%s\";%n";
+    private static final String NO_PERSISTED_QUERIES = "[]";
+    static final BString CLIENT_TIMEOUT = StringUtils.fromString("timeout");
+    static final BString CLIENT_RETRY_COUNT = StringUtils.fromString("retryCount");
+    static final BString CLIENT_RETRY_INTERVAL = StringUtils.fromString("retryInterval");
+    static final BString CLIENT_MAX_ACTIVE_CONNECTIONS = StringUtils.fromString("maxActiveConnections");
+    static final BString CLIENT_MAX_IDLE_CONNECTIONS = StringUtils.fromString("maxIdleConnections");
+    static final BString CLIENT_WAIT_TIME = StringUtils.fromString("waitTime");
 
     public static final String ERROR_INVALID_SUPERGRAPH_FILE_PATH = "Given supergraph file path is invalid";
     public static final String ERROR_INVALID_OUTPUT_PATH = "Given output path is invalid";
     public static final String ERROR_OUTPUT_PATH_NOT_WRITABLE = "Given out path is not writable";
     public static final String ERROR_INVALID_SCHEMA = "Error occurred while parsing the GraphQL schema";
+    public static final String ERROR_INVALID_PERSISTED_QUERIES_PATH = "Given persisted queries file path is invalid";
+    public static final String ERROR_STREAMING_AND_PARALLEL =
+            "Streaming and parallel generation cannot be used together";
 
     public static BString generateGateway(BString supergraphPath, BString outPath, BString port) {
+        return generateGateway(supergraphPath, outPath, port, StringUtils.fromString(""));
+    }
+
+    public static BString generateGateway(BString supergraphPath, BString outPath, BString port,
+                                          BString persistedQueriesPath) {
+        return generateGateway(supergraphPath, outPath, port, persistedQueriesPath, false, false, false,
+                ValueCreator.createMapValue());
+    }
+
+    public static BString generateGateway(BString supergraphPath, BString outPath, BString port,
+                                          BString persistedQueriesPath, boolean streaming, boolean parallel,
+                                          boolean incremental, BMap<BString, Object> clientDefaults) {
         try {
             Path path = Paths.get(supergraphPath.getValue());
             Path outputPath = Paths.get(outPath.getValue());
-            File outputDest = new File(outputPath.toString());
-            Path fileName = path.getFileName();
-            if (fileName == null) {
-                return StringUtils.fromString(ERROR_INVALID_SUPERGRAPH_FILE_PATH);
-            }
-            if (!outputDest.exists()) {
-                return StringUtils.fromString(ERROR_INVALID_OUTPUT_PATH);
+            String error = validatePaths(path, outputPath);
+            if (error != null) {
+                return StringUtils.fromString(error);
             }
-            if (!outputDest.canWrite()) {
-                return StringUtils.fromString(ERROR_OUTPUT_PATH_NOT_WRITABLE);
+            GatewayProject project = new GatewayProject(getProjectName(path), path.toString(),
+                    outputPath.toString(), Integer.parseInt(port.getValue()));
+            if (!persistedQueriesPath.getValue().isEmpty()) {
+                Path persistedQueries = Paths.get(persistedQueriesPath.getValue());
+                if (!Files.isRegularFile(persistedQueries)) {
+                    return StringUtils.fromString(ERROR_INVALID_PERSISTED_QUERIES_PATH);
+                }
+                project.setPersistedQueriesPath(persistedQueries);
             }
-            GatewayProject project = new GatewayProject(fileName.toString().replace(".graphql", ""),
-                    path.toString(), outputPath.toString(), Integer.parseInt(port.getValue()));
+            project.setStreaming(streaming);
+            project.setParallel(parallel);
+            project.setIncremental(incremental);
+            project.setSubgraphClientDefaults(getSubgraphClientDefaults(clientDefaults));
             generateGatewayProject(project);
             return StringUtils.fromString("success");
         } catch (NoSuchFileException e) {
@@ -83,17 +140,127 @@ public class GatewayCodeGenerator {
         }
     }
 
+    public static BString watchGateway(BString supergraphPath, BString outPath, BString port) {
+        return watchGateway(supergraphPath, outPath, port, StringUtils.fromString(""), ValueCreator.createMapValue());
+    }
+
+    public static BString watchGateway(BString supergraphPath, BString outPath, BString port,
+                                       BString persistedQueriesPath, BMap<BString, Object> clientDefaults) {
+        Path path = Paths.get(supergraphPath.getValue());
+        Path outputPath = Paths.get(outPath.getValue());
+        String error = validatePaths(path, outputPath);
+        if (error != null) {
+            return StringUtils.fromString(error);
+        }
+        if (!Files.isRegularFile(path)) {
+            return StringUtils.fromString(ERROR_INVALID_SUPERGRAPH_FILE_PATH);
+        }
+        Path persistedQueries = null;
+        if (!persistedQueriesPath.getValue().isEmpty()) {
+            persistedQueries = Paths.get(persistedQueriesPath.getValue());
+            if (!Files.isRegularFile(persistedQueries)) {
+                return StringUtils.fromString(ERROR_INVALID_PERSISTED_QUERIES_PATH);
+            }
+        }
+        PrintStream outStream = System.out;
+        try (GatewayGenerationDaemon daemon = new GatewayGenerationDaemon(path, outputPath,
+                Integer.parseInt(port.getValue()), persistedQueries, getSubgraphClientDefaults(clientDefaults),
+                outStream)) {
+            outStream.println("Watching " + path + " for changes");
+            daemon.run();
+            return StringUtils.fromString("success");
+        } catch (IOException e) {
+            return StringUtils.fromString(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the subgraph client defaults given to the generator. The settings missing in the given map keep the
+     * defaults of the Ballerina GraphQL client.
+     *
+     * @param clientDefaults the settings by the name of the setting
+     * @return the subgraph client defaults
+     */
+    static SubgraphClientDefaults getSubgraphClientDefaults(BMap<BString, Object> clientDefaults) {
+        SubgraphClientDefaults defaults = new SubgraphClientDefaults();
+        if (clientDefaults.containsKey(CLIENT_TIMEOUT)) {
+            defaults.setTimeout(((BDecimal) clientDefaults.get(CLIENT_TIMEOUT)).decimalValue());
+        }
+        if (clientDefaults.containsKey(CLIENT_RETRY_COUNT)) {
+            defaults.setRetryCount(((Long) clientDefaults.get(CLIENT_RETRY_COUNT)).intValue());
+        }
+        if (clientDefaults.containsKey(CLIENT_RETRY_INTERVAL)) {
+            defaults.setRetryInterval(((BDecimal) clientDefaults.get(CLIENT_RETRY_INTERVAL)).decimalValue());
+        }
+        if (clientDefaults.containsKey(CLIENT_MAX_ACTIVE_CONNECTIONS)) {
+            defaults.setMaxActiveConnections(((Long) clientDefaults.get(CLIENT_MAX_ACTIVE_CONNECTIONS)).intValue());
+        }
+        if (clientDefaults.containsKey(CLIENT_MAX_IDLE_CONNECTIONS)) {
+            defaults.setMaxIdleConnections(((Long) clientDefaults.get(CLIENT_MAX_IDLE_CONNECTIONS)).intValue());
+        }
+        if (clientDefaults.containsKey(CLIENT_WAIT_TIME)) {
+            defaults.setWaitTime(((BDecimal) clientDefaults.get(CLIENT_WAIT_TIME)).decimalValue());
+        }
+        return defaults;
+    }
+
+    private static String validatePaths(Path supergraphPath, Path outputPath) {
+        File outputDest = new File(outputPath.toString());
+        if (supergraphPath.getFileName() == null) {
+            return ERROR_INVALID_SUPERGRAPH_FILE_PATH;
+        }
+        if (!outputDest.exists()) {
+            return ERROR_INVALID_OUTPUT_PATH;
+        }
+        if (!outputDest.canWrite()) {
+            return ERROR_OUTPUT_PATH_NOT_WRITABLE;
+        }
+        return null;
+    }
+
+    static String getProjectName(Path supergraphPath) {
+        return String.valueOf(supergraphPath.getFileName()).replace(".graphql", "");
+    }
+
     public static void generateGatewayProject(GatewayProject project) throws GatewayGenerationException {
+        if (project.isStreaming() && project.isParallel()) {
+            throw new GatewayGenerationException(ERROR_STREAMING_AND_PARALLEL);
+        }
         try {
+            if (project.isIncremental()) {
+                generateGatewayProjectIncrementally(project);
+                return;
+            }
             copyTemplateFiles(project.getOutputPath());
-            generateBalSources(project, project.getOutputPath());
-            deletePartialFiles(project.getOutputPath());
-        } catch (GatewayGenerationException | IOException | ValidationException e) {
+            writePersistedQueries(project, project.getOutputPath(), false);
+            generateBalSources(project, project.getOutputPath(), GENERATED_SOURCE_FILES);
+        } catch (GatewayGenerationException | IOException e) {
             throw new GatewayGenerationException(e.getMessage());
         }
     }
 
+    private static void generateGatewayProjectIncrementally(GatewayProject project)
+            throws GatewayGenerationException, IOException {
+        Path outputPath = project.getOutputPath();
+        GenerationManifest manifest = GenerationManifest.of(project);
+        Set<String> affectedFiles = new HashSet<>(manifest.getAffectedFiles(GenerationManifest.read(outputPath)));
+        for (String fileName : GENERATED_SOURCE_FILES) {
+            if (!Files.isRegularFile(outputPath.resolve(fileName))) {
+                affectedFiles.add(fileName);
+            }
+        }
+        copyTemplateFiles(outputPath, true);
+        writePersistedQueries(project, outputPath, true);
+        generateBalSources(project, outputPath, affectedFiles);
+        writeSourceToFile(manifest.toFileContent(), GenerationManifest.MANIFEST_FILE_NAME, outputPath, true);
+    }
+
     public static void copyTemplateFiles(Path targetPath) throws GatewayGenerationException, IOException {
+        copyTemplateFiles(targetPath, false);
+    }
+
+    private static void copyTemplateFiles(Path targetPath, boolean onlyIfChanged)
+            throws GatewayGenerationException, IOException {
         ClassLoader classLoader = GatewayCodeGenerator.class.getClassLoader();
         for (String fileName : GATEWAY_PROJECT_TEMPLATE_FILES) {
             InputStream inputStream = classLoader.getResourceAsStream(
@@ -102,6 +269,9 @@ public class GatewayCodeGenerator {
             checkInputStream(inputStream);
             String resource = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
             Path path = targetPath.resolve(fileName);
+            if (onlyIfChanged && hasContent(path, resource)) {
+                continue;
+            }
             try (PrintWriter writer = new PrintWriter(path.toString(), StandardCharsets.UTF_8)) {
                 writer.print(resource);
             } catch (IOException e) {
@@ -116,26 +286,140 @@ public class GatewayCodeGenerator {
         }
     }
 
-    private static void deletePartialFiles(Path directoryPath) {
+    private static void generateBalSources(GatewayProject project, Path outputPath, Set<String> fileNames)
+            throws GatewayGenerationException, IOException {
+        if (project.isStreaming()) {
+            emitBalSources(project, outputPath, fileNames);
+            return;
+        }
+        if (project.isParallel()) {
+            generateBalSourcesInParallel(project, outputPath, fileNames);
+            return;
+        }
+        SupergraphIndex supergraphIndex = project.getSupergraphIndex();
+        boolean onlyIfChanged = project.isIncremental();
+
+        if (fileNames.contains(TYPES_FILE_NAME)) {
+            writeSourceToFile(new GatewayTypeGenerator(supergraphIndex).generateSrc(), TYPES_FILE_NAME, outputPath,
+                    onlyIfChanged);
+        }
+        if (fileNames.contains(QUERY_PLAN_FILE_NAME)) {
+            writeSourceToFile(new GatewayQueryPlanGenerator(supergraphIndex).generateSrc(), QUERY_PLAN_FILE_NAME,
+                    outputPath, onlyIfChanged);
+        }
+        if (fileNames.contains(SERVICE_FILE_NAME)) {
+            writeSourceToFile(new GatewayServiceGenerator(project).generateSrc(), SERVICE_FILE_NAME, outputPath,
+                    onlyIfChanged);
+        }
+    }
+
+    private static void emitBalSources(GatewayProject project, Path outputPath, Set<String> fileNames)
+            throws GatewayGenerationException, IOException {
+        SupergraphIndex supergraphIndex = project.getSupergraphIndex();
+        boolean onlyIfChanged = project.isIncremental();
+
+        if (fileNames.contains(TYPES_FILE_NAME)) {
+            emitSourceToFile(new GatewayTypeGenerator(supergraphIndex)::emitSrc, TYPES_FILE_NAME, outputPath,
+                    onlyIfChanged);
+        }
+        if (fileNames.contains(QUERY_PLAN_FILE_NAME)) {
+            emitSourceToFile(new GatewayQueryPlanGenerator(supergraphIndex)::emitSrc, QUERY_PLAN_FILE_NAME,
+                    outputPath, onlyIfChanged);
+        }
+        if (fileNames.contains(SERVICE_FILE_NAME)) {
+            emitSourceToFile(new GatewayServiceGenerator(project)::emitSrc, SERVICE_FILE_NAME, outputPath,
+                    onlyIfChanged);
+        }
+    }
+
+    private static void generateBalSourcesInParallel(GatewayProject project, Path outputPath, Set<String> fileNames)
+            throws GatewayGenerationException, IOException {
+        SupergraphIndex supergraphIndex = project.getSupergraphIndex();
+        boolean onlyIfChanged = project.isIncremental();
+        Map<String, Callable<String>> generators = new LinkedHashMap<>();
+        generators.put(TYPES_FILE_NAME, () -> new GatewayTypeGenerator(supergraphIndex, true).generateSrc());
+        generators.put(QUERY_PLAN_FILE_NAME,
+                () -> new GatewayQueryPlanGenerator(supergraphIndex, true).generateSrc());
+        generators.put(SERVICE_FILE_NAME, () -> new GatewayServiceGenerator(project).generateSrc());
+
+        ExecutorService executor = Executors.newFixedThreadPool(GENERATOR_COUNT);
+        try {
+            Map<String, Future<String>> sources = new LinkedHashMap<>();
+            for (Map.Entry<String, Callable<String>> generator : generators.entrySet()) {
+                if (fileNames.contains(generator.getKey())) {
+                    sources.put(generator.getKey(), executor.submit(generator.getValue()));
+                }
+            }
+            for (Map.Entry<String, Future<String>> source : sources.entrySet()) {
+                writeSourceToFile(getGeneratedSource(source.getValue()), source.getKey(), outputPath,
+                        onlyIfChanged);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String getGeneratedSource(Future<String> source) throws GatewayGenerationException {
         try {
-            for (Path path : Files.walk(directoryPath)
-                    .filter(path -> path.toString().endsWith(".partial")).toArray(Path[]::new)) {
-                Files.delete(path);
+            return source.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GatewayGenerationException) {
+                throw (GatewayGenerationException) e.getCause();
             }
-        } catch (IOException ignore) { }
+            throw new GatewayGenerationException("Error while generating the gateway sources: " +
+                    e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayGenerationException("Gateway source generation was interrupted");
+        }
     }
 
-    private static void generateBalSources(GatewayProject project, Path outputPath)
-            throws GatewayGenerationException, IOException, ValidationException {
-        GraphQLSchema graphQLSchema = project.getSchema();
+    private static void writePersistedQueries(GatewayProject project, Path outputPath, boolean onlyIfChanged)
+            throws GatewayGenerationException, IOException {
+        String persistedQueries = NO_PERSISTED_QUERIES;
+        if (project.getPersistedQueriesPath() != null) {
+            try {
+                persistedQueries = Files.readString(project.getPersistedQueriesPath(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new GatewayGenerationException(ERROR_INVALID_PERSISTED_QUERIES_PATH);
+            }
+        }
+        writeSourceToFile(String.format(PERSISTED_QUERIES_DECLARATION, escapeStringLiteral(persistedQueries)),
+                PERSISTED_QUERIES_FILE_NAME, outputPath, onlyIfChanged);
+    }
 
-        writeSourceToFile(new GatewayTypeGenerator(graphQLSchema).generateSrc(), TYPES_FILE_NAME, outputPath);
-        writeSourceToFile(new GatewayQueryPlanGenerator(graphQLSchema).generateSrc(), QUERY_PLAN_FILE_NAME, outputPath);
-        writeSourceToFile(new GatewayServiceGenerator(project).generateSrc(), SERVICE_FILE_NAME, outputPath);
+    private static String escapeStringLiteral(String value) {
+        StringBuilder literal = new StringBuilder(value.length());
+        for (char character : value.toCharArray()) {
+            switch (character) {
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    literal.append(character);
+            }
+        }
+        return literal.toString();
     }
 
-    private static void writeSourceToFile(String content, String filename, Path targetPath) throws IOException {
+    private static void writeSourceToFile(String content, String filename, Path targetPath, boolean onlyIfChanged)
+            throws IOException {
         Path path = targetPath.resolve(filename);
+        if (onlyIfChanged && hasContent(path, content)) {
+            return;
+        }
         try (PrintWriter writer = new PrintWriter(path.toString(), StandardCharsets.UTF_8)) {
             writer.print(content);
         } catch (IOException e) {
@@ -143,4 +427,37 @@ public class GatewayCodeGenerator {
         }
     }
 
+    private static void emitSourceToFile(SourceEmission emission, String filename, Path targetPath,
+                                         boolean onlyIfChanged) throws GatewayGenerationException, IOException {
+        Path path = targetPath.resolve(filename);
+        Path emittedPath = onlyIfChanged ? Files.createTempFile(targetPath, filename, ".tmp") : path;
+        try {
+            try (Writer writer = Files.newBufferedWriter(emittedPath, StandardCharsets.UTF_8)) {
+                emission.emit(writer);
+            }
+            if (onlyIfChanged) {
+                if (Files.isRegularFile(path) && Files.mismatch(path, emittedPath) == -1) {
+                    return;
+                }
+                Files.move(emittedPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new IOException("Error while writing the generated source to the file.");
+        } finally {
+            if (onlyIfChanged) {
+                Files.deleteIfExists(emittedPath);
+            }
+        }
+    }
+
+    private static boolean hasContent(Path path, String content) throws IOException {
+        return Files.isRegularFile(path) && Files.readString(path, StandardCharsets.UTF_8).equals(content);
+    }
+
+    /**
+     * Writes a generated source to a writer.
+     */
+    private interface SourceEmission {
+        void emit(Writer writer) throws GatewayGenerationException, IOException;
+    }
 }
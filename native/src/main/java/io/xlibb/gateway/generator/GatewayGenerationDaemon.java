@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.SubgraphClientDefaults;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import io.xlibb.gateway.exception.ValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the gateway generator running and regenerates the gateway whenever the supergraph file changes.
+ * <p>
+ * The generator is loaded and warmed up once, so a regeneration only pays for parsing the changed supergraph and
+ * producing the sources. Generations are incremental, which means only the files affected by a change are rewritten.
+ * The daemon watches the directory of the supergraph file, so that editors which save by replacing the file are
+ * detected as well.
+ */
+public class GatewayGenerationDaemon implements Closeable {
+    private static final long DEBOUNCE_MILLIS = 50;
+
+    private final Path supergraphPath;
+    private final Path outputPath;
+    private final int port;
+    private final Path persistedQueriesPath;
+    private final SubgraphClientDefaults clientDefaults;
+    private final PrintStream outStream;
+    private final WatchService watchService;
+
+    public GatewayGenerationDaemon(Path supergraphPath, Path outputPath, int port, PrintStream outStream)
+            throws IOException {
+        this(supergraphPath, outputPath, port, null, new SubgraphClientDefaults(), outStream);
+    }
+
+    /**
+     * Creates a daemon generating the gateway with the given options, as {@code generateGateway} does.
+     *
+     * @param supergraphPath       the path of the watched supergraph file
+     * @param outputPath           the output path of the gateway
+     * @param port                 the port of the gateway
+     * @param persistedQueriesPath the path of the persisted queries preloaded to the gateway, or {@code null}
+     * @param clientDefaults       the default settings of the subgraph clients of the gateway
+     * @param outStream            the stream the generations are reported to
+     * @throws IOException if the directory of the supergraph file cannot be watched
+     */
+    public GatewayGenerationDaemon(Path supergraphPath, Path outputPath, int port, Path persistedQueriesPath,
+                                   SubgraphClientDefaults clientDefaults, PrintStream outStream) throws IOException {
+        this.supergraphPath = supergraphPath.toAbsolutePath();
+        this.outputPath = outputPath;
+        this.port = port;
+        this.persistedQueriesPath = persistedQueriesPath;
+        this.clientDefaults = clientDefaults;
+        this.outStream = outStream;
+        Path directory = this.supergraphPath.getParent();
+        if (directory == null) {
+            throw new IOException("Cannot watch the supergraph file: " + supergraphPath);
+        }
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Generates the gateway and then regenerates it on every change of the supergraph file, until the daemon is
+     * closed or the thread is interrupted.
+     */
+    public void run() {
+        generate();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = isSupergraphChanged(key);
+                // Editors often write a file in several steps, so wait for the events of a save to settle.
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= isSupergraphChanged(key);
+                }
+                if (changed) {
+                    generate();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // The daemon is closed.
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private boolean isSupergraphChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || supergraphPath.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void generate() {
+        long startTime = System.nanoTime();
+        try {
+            GatewayProject project = new GatewayProject(GatewayCodeGenerator.getProjectName(supergraphPath),
+                    supergraphPath.toString(), outputPath.toString(), port);
+            project.setIncremental(true);
+            if (persistedQueriesPath != null) {
+                project.setPersistedQueriesPath(persistedQueriesPath);
+            }
+            project.setSubgraphClientDefaults(clientDefaults);
+            GatewayCodeGenerator.generateGatewayProject(project);
+            outStream.println("Gateway generated in " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+        } catch (IOException | ValidationException | GatewayGenerationException e) {
+            outStream.println("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // A supergraph saved halfway can make the parser or the generators fail unexpectedly. Report it and keep
+            // watching, as the next save regenerates the gateway.
+            outStream.println("Error: " + e);
+        }
+    }
+}
@@ -18,34 +18,34 @@
 
 package io.xlibb.gateway.generator;
 
-import graphql.language.EnumValue;
-import graphql.language.StringValue;
-import graphql.schema.GraphQLAppliedDirective;
-import graphql.schema.GraphQLAppliedDirectiveArgument;
 import graphql.schema.GraphQLSchema;
+import io.ballerina.compiler.syntax.tree.IdentifierToken;
 import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
 import io.ballerina.compiler.syntax.tree.MappingConstructorExpressionNode;
 import io.ballerina.compiler.syntax.tree.MappingFieldNode;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
 import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.compiler.syntax.tree.NodeList;
 import io.ballerina.compiler.syntax.tree.NodeParser;
 import io.ballerina.compiler.syntax.tree.SeparatedNodeList;
 import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.compiler.syntax.tree.TableConstructorExpressionNode;
 import io.ballerina.tools.text.TextDocument;
 import io.ballerina.tools.text.TextDocuments;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 import io.xlibb.gateway.exception.ValidationException;
-import io.xlibb.gateway.graphql.SpecReader;
+import io.xlibb.gateway.graphql.SupergraphIndex;
 import io.xlibb.gateway.graphql.components.FieldData;
 import io.xlibb.gateway.graphql.components.JoinGraph;
 import io.xlibb.gateway.graphql.components.SchemaTypes;
 import org.ballerinalang.formatter.core.Formatter;
 import org.ballerinalang.formatter.core.FormatterException;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -62,9 +62,11 @@ import static io.ballerina.compiler.syntax.tree.NodeFactory.createBuiltinSimpleN
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createCaptureBindingPatternNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createIntersectionTypeDescriptorNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createKeySpecifierNode;
+import static io.ballerina.compiler.syntax.tree.NodeFactory.createListConstructorExpressionNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createMappingConstructorExpressionNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createModulePartNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createModuleVariableDeclarationNode;
+import static io.ballerina.compiler.syntax.tree.NodeFactory.createNilLiteralNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createSimpleNameReferenceNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createSpecificFieldNode;
 import static io.ballerina.compiler.syntax.tree.NodeFactory.createTableConstructorExpressionNode;
@@ -93,45 +95,114 @@ import static io.ballerina.compiler.syntax.tree.SyntaxKind.SEMICOLON_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.STRING_LITERAL;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.STRING_LITERAL_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.TABLE_KEYWORD;
-import static io.xlibb.gateway.generator.CommonUtils.ARGUMENT_GRAPH;
-import static io.xlibb.gateway.generator.CommonUtils.ARGUMENT_KEY;
 import static io.xlibb.gateway.generator.CommonUtils.CLIENT_NAME_DECLARATION;
 import static io.xlibb.gateway.generator.CommonUtils.CLIENT_NAME_PLACEHOLDER;
 import static io.xlibb.gateway.generator.CommonUtils.CLIENT_NAME_VALUE_PLACEHOLDER;
-import static io.xlibb.gateway.generator.CommonUtils.DIRECTIVE_JOIN_TYPE;
-import static io.xlibb.gateway.generator.CommonUtils.getJoinGraphs;
 
 /**
  * Class to generate the query plan for the gateway.
  */
 public class GatewayQueryPlanGenerator {
+    private static final String QUERY_PLAN_ENTRY_TYPE = "QueryPlanEntry";
+    private static final String QUERY_PLAN_VARIABLE = "queryPlan";
+    private static final String SUBGRAPH_OWNERSHIP_TYPE = "SubgraphOwnership";
+    private static final String OWNERSHIP_VARIABLE = "ownership";
 
-    private final GraphQLSchema graphQLSchema;
-    private final Map<String, JoinGraph> joinGraphs;
+    private final SupergraphIndex supergraphIndex;
     private final SchemaTypes schemaTypes;
+    private final boolean parallel;
 
-    public GatewayQueryPlanGenerator(GraphQLSchema graphQLSchema) throws GatewayGenerationException,
-                                                                         ValidationException {
-        this.graphQLSchema = graphQLSchema;
-        this.joinGraphs = getJoinGraphs(graphQLSchema);
-        this.schemaTypes = new SchemaTypes(graphQLSchema);
+    public GatewayQueryPlanGenerator(GraphQLSchema graphQLSchema) throws ValidationException {
+        this(new SupergraphIndex(graphQLSchema));
+    }
+
+    public GatewayQueryPlanGenerator(SupergraphIndex supergraphIndex) {
+        this(supergraphIndex, false);
+    }
+
+    public GatewayQueryPlanGenerator(SupergraphIndex supergraphIndex, boolean parallel) {
+        this.supergraphIndex = supergraphIndex;
+        this.schemaTypes = supergraphIndex.getSchemaTypes();
+        this.parallel = parallel;
     }
 
     public String generateSrc() throws GatewayGenerationException {
         try {
             SyntaxTree syntaxTree = generateSyntaxTree();
             return Formatter.format(syntaxTree).toString();
-        } catch (ValidationException | FormatterException e) {
+        } catch (FormatterException e) {
             throw new GatewayGenerationException("Error while generating the gateway types");
         }
     }
 
-    private SyntaxTree generateSyntaxTree() throws ValidationException {
+    /**
+     * Writes the generated query plan to the given writer without building the syntax tree of the whole file. The
+     * rows of the query plan and ownership tables are formatted and written one at a time.
+     *
+     * @param writer the writer of the query plan file
+     * @throws GatewayGenerationException if the query plan cannot be generated
+     * @throws IOException                if the query plan cannot be written
+     */
+    public void emitSrc(Writer writer) throws GatewayGenerationException, IOException {
+        SourceEmitter emitter = new SourceEmitter(writer);
+        for (Map.Entry<String, JoinGraph> entry : supergraphIndex.getJoinGraphs().entrySet()) {
+            emitter.emitDeclaration(getClientConstantDeclaration(entry.getKey(), entry.getValue()), false);
+        }
+        emitQueryPlanTable(emitter);
+        emitOwnershipTable(emitter);
+    }
+
+    private void emitQueryPlanTable(SourceEmitter emitter) throws GatewayGenerationException, IOException {
+        List<String> names = supergraphIndex.getCustomDefinedObjectTypeNames();
+        if (names.size() <= 1) {
+            // A table of a single row is formatted on the line of the declaration.
+            emitter.emitDeclaration(getQueryPlanTableNode(getTableRows()), false);
+            return;
+        }
+        emitter.emitOpening(getQueryPlanTableNode(createSeparatedNodeList()),
+                declaration -> getTableConstructor(declaration).closeBracket());
+        int last = names.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            emitter.emitMember(getQueryPlanTableNode(createSeparatedNodeList(getTableRow(names.get(i)))),
+                    declaration -> getTableConstructor(declaration).rows().get(0), i == last ? "" : ",");
+        }
+        emitter.emitClosing();
+    }
+
+    private void emitOwnershipTable(SourceEmitter emitter) throws GatewayGenerationException, IOException {
+        List<Map.Entry<String, String>> owners = getOwners();
+        if (owners.size() <= 1) {
+            List<Node> rows = new ArrayList<>();
+            for (Map.Entry<String, String> owner : owners) {
+                rows.add(getOwnershipRow(owner.getKey(), owner.getValue()));
+            }
+            emitter.emitDeclaration(getOwnershipTableNode(createSeparatedNodeList(rows)), false);
+            return;
+        }
+        emitter.emitOpening(getOwnershipTableNode(createSeparatedNodeList()),
+                declaration -> getTableConstructor(declaration).closeBracket());
+        int last = owners.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            Map.Entry<String, String> owner = owners.get(i);
+            emitter.emitMember(getOwnershipTableNode(createSeparatedNodeList(
+                    getOwnershipRow(owner.getKey(), owner.getValue()))),
+                    declaration -> getTableConstructor(declaration).rows().get(0), i == last ? "" : ",");
+        }
+        emitter.emitClosing();
+    }
+
+    private static TableConstructorExpressionNode getTableConstructor(ModuleMemberDeclarationNode declaration) {
+        return (TableConstructorExpressionNode) ((ModuleVariableDeclarationNode) declaration).initializer()
+                .orElseThrow();
+    }
+
+    SyntaxTree generateSyntaxTree() throws GatewayGenerationException {
         List<ModuleMemberDeclarationNode> nodeList = new LinkedList<>();
         NodeList<ImportDeclarationNode> importsList = createEmptyNodeList();
 
         addClientConstantDeclarations(nodeList);
         addQueryPlanTableNode(nodeList);
+        addOwnershipTableNode(nodeList);
 
         NodeList<ModuleMemberDeclarationNode> members = createNodeList(nodeList.toArray(
                 new ModuleMemberDeclarationNode[0]));
@@ -146,8 +217,111 @@ public class GatewayQueryPlanGenerator {
         return syntaxTree.modifyWith(modulePartNode);
     }
 
-    private void addQueryPlanTableNode(List<ModuleMemberDeclarationNode> nodeList) {
-        ModuleMemberDeclarationNode tableNode = createModuleVariableDeclarationNode(
+    private void addQueryPlanTableNode(List<ModuleMemberDeclarationNode> nodeList)
+            throws GatewayGenerationException {
+        nodeList.add(getQueryPlanTableNode(getTableRows()));
+    }
+
+    private ModuleMemberDeclarationNode getQueryPlanTableNode(SeparatedNodeList<Node> tableRows) {
+        return getTableDeclarationNode(QUERY_PLAN_ENTRY_TYPE,
+                createSeparatedNodeList(createIdentifierToken("typename")), QUERY_PLAN_VARIABLE, tableRows);
+    }
+
+    private void addOwnershipTableNode(List<ModuleMemberDeclarationNode> nodeList) {
+        List<Node> rows = new ArrayList<>();
+        for (Map.Entry<String, String> owner : getOwners()) {
+            if (!rows.isEmpty()) {
+                rows.add(createToken(COMMA_TOKEN));
+            }
+            rows.add(getOwnershipRow(owner.getKey(), owner.getValue()));
+        }
+        nodeList.add(getOwnershipTableNode(createSeparatedNodeList(rows)));
+    }
+
+    private ModuleMemberDeclarationNode getOwnershipTableNode(SeparatedNodeList<Node> tableRows) {
+        return getTableDeclarationNode(SUBGRAPH_OWNERSHIP_TYPE, createSeparatedNodeList(
+                createIdentifierToken("typename"), createToken(COMMA_TOKEN), createIdentifierToken("'client")),
+                OWNERSHIP_VARIABLE, tableRows);
+    }
+
+    /**
+     * Returns the type name and client name pairs of the subgraphs owning a part of each type, i.e. having a key
+     * of the type or resolving a field of it. Types are in the order of the query plan and clients in the order
+     * of the join graphs.
+     */
+    private List<Map.Entry<String, String>> getOwners() {
+        List<Map.Entry<String, String>> owners = new ArrayList<>();
+        for (String typeName : supergraphIndex.getCustomDefinedObjectTypeNames()) {
+            Map<String, String> keys = supergraphIndex.getKeys(typeName);
+            for (Map.Entry<String, JoinGraph> joinGraph : supergraphIndex.getJoinGraphs().entrySet()) {
+                if (keys.containsKey(joinGraph.getValue().getName())
+                        || !getOwnedFields(typeName, joinGraph.getKey()).isEmpty()) {
+                    owners.add(Map.entry(typeName, joinGraph.getKey()));
+                }
+            }
+        }
+        return owners;
+    }
+
+    private List<String> getOwnedFields(String typeName, String clientName) {
+        List<String> fieldNames = new ArrayList<>();
+        for (FieldData field : schemaTypes.getFieldsOfType(typeName)) {
+            if (!field.isID() && field.getClient().equals(clientName)) {
+                fieldNames.add(field.getFieldName());
+            }
+        }
+        return fieldNames;
+    }
+
+    private MappingConstructorExpressionNode getOwnershipRow(String typeName, String clientName) {
+        String key = supergraphIndex.getKeys(typeName).get(supergraphIndex.getJoinGraphs().get(clientName).getName());
+        List<Node> fieldNames = new ArrayList<>();
+        for (String fieldName : getOwnedFields(typeName, clientName)) {
+            if (!fieldNames.isEmpty()) {
+                fieldNames.add(createToken(COMMA_TOKEN));
+            }
+            fieldNames.add(getStringLiteralNode(fieldName));
+        }
+        return createMappingConstructorExpressionNode(
+                createToken(OPEN_BRACE_TOKEN),
+                createSeparatedNodeList(
+                        createSpecificFieldNode(null, createIdentifierToken("typename"), createToken(COLON_TOKEN),
+                                getStringLiteralNode(typeName)),
+                        createToken(COMMA_TOKEN),
+                        createSpecificFieldNode(null, createIdentifierToken("'client"), createToken(COLON_TOKEN),
+                                createSimpleNameReferenceNode(createIdentifierToken(clientName))),
+                        createToken(COMMA_TOKEN),
+                        createSpecificFieldNode(null, createIdentifierToken("key"), createToken(COLON_TOKEN),
+                                key == null
+                                        ? createNilLiteralNode(createToken(OPEN_PAREN_TOKEN),
+                                        createToken(CLOSE_PAREN_TOKEN))
+                                        : getStringLiteralNode(key)),
+                        createToken(COMMA_TOKEN),
+                        createSpecificFieldNode(null, createIdentifierToken("fields"), createToken(COLON_TOKEN),
+                                createListConstructorExpressionNode(createToken(OPEN_BRACKET_TOKEN),
+                                        createSeparatedNodeList(fieldNames), createToken(CLOSE_BRACKET_TOKEN)))
+                ),
+                createToken(CLOSE_BRACE_TOKEN)
+        );
+    }
+
+    private static Node getStringLiteralNode(String value) {
+        return createBasicLiteralNode(
+                STRING_LITERAL,
+                createLiteralValueToken(
+                        STRING_LITERAL_TOKEN,
+                        "\"" + value + "\"",
+                        createEmptyMinutiaeList(),
+                        createEmptyMinutiaeList()
+                )
+        );
+    }
+
+    private static ModuleMemberDeclarationNode getTableDeclarationNode(String rowType,
+                                                                       SeparatedNodeList<IdentifierToken> keyFields,
+                                                                       String variableName,
+                                                                       SeparatedNodeList<Node> tableRows) {
+        return createModuleVariableDeclarationNode(
                 null,
                 createToken(PUBLIC_KEYWORD),
                 createNodeList(createToken(FINAL_KEYWORD)),
@@ -160,7 +334,7 @@ public class GatewayQueryPlanGenerator {
                                         createTypeParameterNode(
                                                 createToken(LT_TOKEN),
                                                 createSimpleNameReferenceNode(
-                                                        createIdentifierToken("QueryPlanEntry",
+                                                        createIdentifierToken(rowType,
                                                                 createEmptyMinutiaeList(),
                                                                 createEmptyMinutiaeList()
                                                         )
@@ -171,39 +345,33 @@ public class GatewayQueryPlanGenerator {
                                         createKeySpecifierNode(
                                                 createToken(KEY_KEYWORD),
                                                 createToken(OPEN_PAREN_TOKEN),
-                                                createSeparatedNodeList(createIdentifierToken("typename")),
+                                                keyFields,
                                                 createToken(CLOSE_PAREN_TOKEN)
                                         )
                                 )
                         ),
-                        createCaptureBindingPatternNode(createIdentifierToken("queryPlan"))
+                        createCaptureBindingPatternNode(createIdentifierToken(variableName))
                 ),
                 createToken(EQUAL_TOKEN),
                 createTableConstructorExpressionNode(
                         createToken(TABLE_KEYWORD),
                         null,
                         createToken(OPEN_BRACKET_TOKEN),
-                        getTableRows(),
+                        tableRows,
                         createToken(CLOSE_BRACKET_TOKEN)
                 ),
                 createToken(SEMICOLON_TOKEN)
         );
-        nodeList.add(tableNode);
     }
 
-    private SeparatedNodeList<Node> getTableRows() {
+    private SeparatedNodeList<Node> getTableRows() throws GatewayGenerationException {
         List<Node> nodeList = new ArrayList<>();
-        List<String> names = CommonUtils.getCustomDefinedObjectTypeNames(graphQLSchema);
+        List<MappingConstructorExpressionNode> entries = ParallelUtils.map(
+                supergraphIndex.getCustomDefinedObjectTypeNames(), parallel, this::getTableRow);
 
-        int namesLength = names.size();
+        int namesLength = entries.size();
         int i = 0;
-        for (String name : names) {
-            MappingConstructorExpressionNode entry = createMappingConstructorExpressionNode(
-                    createToken(OPEN_BRACE_TOKEN),
-                    getTableEntry(name),
-                    createToken(CLOSE_BRACE_TOKEN)
-            );
-
+        for (MappingConstructorExpressionNode entry : entries) {
             nodeList.add(entry);
             i += 1;
             if (i < namesLength) {
@@ -213,6 +381,14 @@ public class GatewayQueryPlanGenerator {
         return createSeparatedNodeList(nodeList);
     }
 
+    private MappingConstructorExpressionNode getTableRow(String name) {
+        return createMappingConstructorExpressionNode(
+                createToken(OPEN_BRACE_TOKEN),
+                getTableEntry(name),
+                createToken(CLOSE_BRACE_TOKEN)
+        );
+    }
+
     private SeparatedNodeList<MappingFieldNode> getTableEntry(String name) {
         List<Node> nodeList = new ArrayList<>();
         nodeList.add(
@@ -233,7 +409,7 @@ public class GatewayQueryPlanGenerator {
         );
         nodeList.add(createToken(COMMA_TOKEN));
 
-        Map<String, String> keys = getKeys(name);
+        Map<String, String> keys = supergraphIndex.getKeys(name);
         Node keyNode = createSpecificFieldNode(
                 null,
                 createIdentifierToken("keys"),
@@ -294,61 +470,6 @@ public class GatewayQueryPlanGenerator {
         return createSeparatedNodeList(nodeList);
     }
 
-    private Map<String, String> getKeys(String name) {
-        Map<String, String> keys = new HashMap<>();
-        List<GraphQLAppliedDirective> directives = SpecReader.getObjectTypeDirectives(this.graphQLSchema, name);
-
-        for (GraphQLAppliedDirective directive : directives) {
-            if (directive.getName().equals(DIRECTIVE_JOIN_TYPE)) {
-                try {
-                    String graph = getGraphOfJoinTypeArgument(directive);
-                    String key = getKeyOfJoinTypeArgument(name, directive);
-                    keys.put(graph, key);
-                } catch (GatewayGenerationException | ValidationException ignored) {
-
-                }
-            }
-        }
-        return keys;
-    }
-
-    private String getGraphOfJoinTypeArgument(GraphQLAppliedDirective directive)
-            throws GatewayGenerationException, ValidationException {
-        for (GraphQLAppliedDirectiveArgument argument : directive.getArguments()) {
-            if (argument.getName().equals(ARGUMENT_GRAPH)) {
-                Object value = argument.getArgumentValue().getValue();
-                if (value == null) {
-                    throw new ValidationException("graph argument value is null");
-                }
-                String graphEnumName =
-                        ((EnumValue) value).getName();
-                return this.joinGraphs.get(graphEnumName).getName();
-            }
-        }
-        throw new GatewayGenerationException("No graph argument found in @join__type directive");
-    }
-
-    private String getKeyOfJoinTypeArgument(String name, GraphQLAppliedDirective directive)
-            throws GatewayGenerationException {
-        for (GraphQLAppliedDirectiveArgument argument : directive.getArguments()) {
-                if (argument.getName().equals(ARGUMENT_KEY)) {
-                        Object argumentValue = argument.getArgumentValue().getValue();
-                        if (argumentValue == null) {
-                                break;
-                        } 
-                        return ((StringValue) argumentValue).getValue();
-                }
-        }
-
-        for (FieldData field : schemaTypes.getFieldsOfType(name)) {
-                if (field.isID()) {
-                        return field.getFieldName();
-                }
-        }
-
-        throw new GatewayGenerationException("No key argument found in @join__type directive");
-    }
-
     private SeparatedNodeList<Node> getFieldTableRows(String name) {
         List<Node> nodeList = new ArrayList<>();
         List<FieldData> fields = schemaTypes.getFieldsOfType(name);
@@ -429,13 +550,16 @@ public class GatewayQueryPlanGenerator {
         return createSeparatedNodeList(fieldNodeList);
     }
 
-    private void addClientConstantDeclarations(List<ModuleMemberDeclarationNode> nodeList) throws ValidationException {
-        for (Map.Entry<String, JoinGraph> entry :
-                getJoinGraphs(this.graphQLSchema).entrySet()) {
-            nodeList.add(NodeParser.parseModuleMemberDeclaration(
-                    CLIENT_NAME_DECLARATION.replace(CLIENT_NAME_PLACEHOLDER, entry.getKey())
-                            .replace(CLIENT_NAME_VALUE_PLACEHOLDER, entry.getValue().getName())
-            ));
+    private void addClientConstantDeclarations(List<ModuleMemberDeclarationNode> nodeList) {
+        for (Map.Entry<String, JoinGraph> entry : supergraphIndex.getJoinGraphs().entrySet()) {
+            nodeList.add(getClientConstantDeclaration(entry.getKey(), entry.getValue()));
         }
     }
+
+    private static ModuleMemberDeclarationNode getClientConstantDeclaration(String clientName, JoinGraph joinGraph) {
+        return NodeParser.parseModuleMemberDeclaration(
+                CLIENT_NAME_DECLARATION.replace(CLIENT_NAME_PLACEHOLDER, clientName)
+                        .replace(CLIENT_NAME_VALUE_PLACEHOLDER, joinGraph.getName())
+        );
+    }
 }
@@ -18,35 +18,36 @@
 
 package io.xlibb.gateway.generator;
 
+import graphql.language.Argument;
+import graphql.language.AstPrinter;
+import graphql.language.Directive;
 import graphql.language.EnumValue;
+import graphql.language.FieldDefinition;
 import graphql.language.InputValueDefinition;
 import graphql.language.StringValue;
-import graphql.schema.GraphQLAppliedDirective;
-import graphql.schema.GraphQLAppliedDirectiveArgument;
-import graphql.schema.GraphQLArgument;
-import graphql.schema.GraphQLFieldDefinition;
-import graphql.schema.GraphQLSchemaElement;
-import graphql.schema.GraphQLType;
+import graphql.language.Type;
 import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
 import io.ballerina.compiler.syntax.tree.NodeList;
 import io.ballerina.compiler.syntax.tree.NodeParser;
+import io.ballerina.compiler.syntax.tree.ServiceDeclarationNode;
 import io.ballerina.compiler.syntax.tree.SyntaxTree;
 import io.ballerina.tools.text.TextDocument;
 import io.ballerina.tools.text.TextDocuments;
 import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.SubgraphClientDefaults;
 import io.xlibb.gateway.exception.GatewayGenerationException;
-import io.xlibb.gateway.exception.ValidationException;
-import io.xlibb.gateway.graphql.SpecReader;
+import io.xlibb.gateway.graphql.SupergraphIndex;
 import io.xlibb.gateway.graphql.components.FieldType;
 import io.xlibb.gateway.graphql.components.JoinGraph;
 import org.ballerinalang.formatter.core.Formatter;
 import org.ballerinalang.formatter.core.FormatterException;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -59,13 +60,10 @@ import static io.xlibb.gateway.generator.CommonUtils.BALLERINA_GRAPHQL_IMPORT_ST
 import static io.xlibb.gateway.generator.CommonUtils.CLIENT_NAME_PLACEHOLDER;
 import static io.xlibb.gateway.generator.CommonUtils.CLIENT_NAME_VALUE_PLACEHOLDER;
 import static io.xlibb.gateway.generator.CommonUtils.DIRECTIVE_JOIN_FIELD;
-import static io.xlibb.gateway.generator.CommonUtils.DIRECTIVE_JOIN_TYPE;
 import static io.xlibb.gateway.generator.CommonUtils.GRAPHQL_DEPRECATED_DIRECTIVE;
 import static io.xlibb.gateway.generator.CommonUtils.GRAPHQL_DEPRECATED_DIRECTIVE_DEFAULT_REASON;
 import static io.xlibb.gateway.generator.CommonUtils.TYPE_MUTATION;
 import static io.xlibb.gateway.generator.CommonUtils.TYPE_QUERY;
-import static io.xlibb.gateway.generator.CommonUtils.getJoinGraphs;
-import static io.xlibb.gateway.generator.CommonUtils.getResourceTemplateFilePath;
 
 enum FunctionType {
     QUERY,
@@ -76,23 +74,20 @@ enum FunctionType {
  * Class to generate service code for the gateway.
  */
 public class GatewayServiceGenerator {
-    public static final String DEPRECATED_PLACEHOLDER = "@\\{deprecatedDirective}";
-    public static final String QUERY_PLACEHOLDER = "@\\{query}";
-    public static final String FUNCTION_PARAM_PLACEHOLDER = "@\\{params}";
-    public static final String RESPONSE_TYPE_PLACEHOLDER = "@\\{responseType}";
-    public static final String BASIC_RESPONSE_TYPE_PLACEHOLDER = "@\\{basicResponseType}";
-    public static final String QUERY_ARGS_PLACEHOLDER = "@\\{queryArgs}";
     public static final String URL_PLACEHOLDER = "@\\{url}";
-    public static final String RESOURCE_FUNCTIONS_PLACEHOLDER = "@\\{resourceFunctions}";
-    public static final String MATCH_CLIENT_STATEMENTS_PLACEHOLDER = "@\\{matchClientStatements}";
     public static final String PORT_PLACEHOLDER = "@\\{port}";
     public static final String CONFIGURABLE_PORT_STATEMENT = "configurable int PORT = " + PORT_PLACEHOLDER + ";";
-    public static final String INITIAL_RESULT = "@\\{initialResult}";
-    public static final String INITIAL_RESULT_ASSIGNMENT = "@\\{initialResultAssignment}";
     public static final String BALLERINA_LOG_IMPORT_STATEMENT = "import ballerina/log;";
     public static final String GRAPHQL_CLIENT_DECLARATION_STATEMENT =
             "final graphql:Client " + CLIENT_NAME_PLACEHOLDER +
-                    "_CLIENT = check new graphql:Client(\"" + URL_PLACEHOLDER + "\");";
+                    "_CLIENT = check new graphql:Client(\"" + URL_PLACEHOLDER + "\", getClientConfiguration(" +
+                    CLIENT_NAME_PLACEHOLDER + "_CLIENT_CONFIG));";
+    public static final String CLIENT_CONFIG_DECLARATION_STATEMENT =
+            "configurable SubgraphClientConfig " + CLIENT_NAME_PLACEHOLDER + "_CLIENT_CONFIG = {};";
+    public static final String SUBGRAPH_CLIENT_DEFAULTS_DECLARATION_STATEMENT =
+            "final readonly & SubgraphClientDefaults SUBGRAPH_CLIENT_DEFAULTS = {httpVersion: \"%s\", " +
+                    "maxActiveConnections: %d, maxIdleConnections: %d, waitTime: %s, keepAlive: \"%s\", " +
+                    "timeout: %s, retryCount: %d, retryInterval: %s, compression: \"%s\"};";
     public static final String MATCH_CLIENT_STATEMENT_TEMPLATE =
             "\"" + CLIENT_NAME_VALUE_PLACEHOLDER + "\" => {return " + CLIENT_NAME_PLACEHOLDER + "_CLIENT;}";
     public static final String RESOURCE_FUNCTION_TEMPLATE_FILE = "resource_function.bal.partial";
@@ -103,26 +98,75 @@ public class GatewayServiceGenerator {
             "scalar_return_type_remote_function.bal.partial";
     public static final String GET_CLIENT_FUNCTION_TEMPLATE_FILE = "get_client_function.bal.partial";
     public static final String SERVICE_DECLARATION_TEMPLATE_FILE = "service_declaration.bal.partial";
+    // Service declaration in which a service function is formatted on its own when the service is emitted.
+    private static final String MEMBER_FORMATTING_SERVICE = "isolated service on new graphql:Listener(PORT) {%n%s%n}";
 
 
     private final GatewayProject project;
+    private final SupergraphIndex supergraphIndex;
     private final Map<String, JoinGraph> joinGraphs;
 
-    public GatewayServiceGenerator(GatewayProject project) throws ValidationException {
+    public GatewayServiceGenerator(GatewayProject project) {
         this.project = project;
-        joinGraphs = getJoinGraphs(project.getSchema());
+        this.supergraphIndex = project.getSupergraphIndex();
+        this.joinGraphs = supergraphIndex.getJoinGraphs();
     }
 
     public String generateSrc() throws GatewayGenerationException {
         try {
             SyntaxTree syntaxTree = generateSyntaxTree();
             return Formatter.format(syntaxTree).toSourceCode();
-        } catch (IOException | FormatterException e) {
+        } catch (FormatterException e) {
             throw new GatewayGenerationException("Error while generating the gateway services");
         }
     }
 
-    private SyntaxTree generateSyntaxTree() throws GatewayGenerationException, IOException {
+    /**
+     * Writes the generated service to the given writer without building the syntax tree of the whole file. The
+     * resource and remote functions of the service are formatted and written one function at a time.
+     *
+     * @param writer the writer of the service file
+     * @throws GatewayGenerationException if the service cannot be generated
+     * @throws IOException                if the service cannot be written
+     */
+    public void emitSrc(Writer writer) throws GatewayGenerationException, IOException {
+        SourceEmitter emitter = new SourceEmitter(writer);
+        emitter.emitImports(List.of(BALLERINA_GRAPHQL_IMPORT_STATEMENT, BALLERINA_LOG_IMPORT_STATEMENT));
+        for (ModuleMemberDeclarationNode clientDeclaration : getClientDeclarations()) {
+            emitter.emitDeclaration(clientDeclaration, false);
+        }
+        emitter.emitDeclaration(getGetClientFunction(), true);
+        emitter.emitDeclaration(NodeParser.parseModuleMemberDeclaration(CONFIGURABLE_PORT_STATEMENT
+                .replace(PORT_PLACEHOLDER, String.valueOf(project.getPort()))), true);
+
+        List<FieldDefinition> queryFields = supergraphIndex.getQueryFields();
+        List<FieldDefinition> mutationFields = supergraphIndex.getMutationFields();
+        ModuleMemberDeclarationNode emptyService = getServiceDeclaration("");
+        int count = queryFields.size() + mutationFields.size();
+        if (count == 0) {
+            emitter.emitDeclaration(emptyService, true);
+            return;
+        }
+        emitter.emitBlankLine();
+        emitter.emitOpening(emptyService, declaration -> ((ServiceDeclarationNode) declaration).closeBraceToken());
+        // The resource functions are preceded by a blank line in the service declaration template.
+        emitter.emitBlankLine();
+        for (int i = 0; i < count; i++) {
+            String serviceFunction = i < queryFields.size()
+                    ? getServiceFunction(FunctionType.QUERY, queryFields.get(i))
+                    : getServiceFunction(FunctionType.MUTATION, mutationFields.get(i - queryFields.size()));
+            emitter.emitMember(NodeParser.parseModuleMemberDeclaration(
+                            String.format(MEMBER_FORMATTING_SERVICE, serviceFunction)),
+                    declaration -> ((ServiceDeclarationNode) declaration).members().get(0), "");
+            // The formatter keeps the blank line following the functions of templates ending with a line break.
+            if (serviceFunction.endsWith("\n")) {
+                emitter.emitBlankLine();
+            }
+        }
+        emitter.emitClosing();
+    }
+
+    SyntaxTree generateSyntaxTree() throws GatewayGenerationException {
         NodeList<ImportDeclarationNode> importsList = createNodeList(
                 NodeParser.parseImportDeclaration(BALLERINA_GRAPHQL_IMPORT_STATEMENT),
                 NodeParser.parseImportDeclaration(BALLERINA_LOG_IMPORT_STATEMENT)
@@ -132,7 +176,7 @@ public class GatewayServiceGenerator {
         nodes.add(getGetClientFunction());
         nodes.add(NodeParser.parseModuleMemberDeclaration(CONFIGURABLE_PORT_STATEMENT
                 .replace(PORT_PLACEHOLDER, String.valueOf(project.getPort()))));
-        nodes.add(getServiceDeclaration());
+        nodes.add(getServiceDeclaration(getServiceFunctions()));
 
         NodeList<ModuleMemberDeclarationNode> members = createNodeList(
                 nodes.toArray(
@@ -149,105 +193,132 @@ public class GatewayServiceGenerator {
         return syntaxTree.modifyWith(modulePartNode);
     }
 
-    private ModuleMemberDeclarationNode getServiceDeclaration() throws GatewayGenerationException, IOException {
-        String resourceFunctions = String.join(System.lineSeparator(), getServiceFunctions());
-        String serviceTemplate = Files.readString(getResourceTemplateFilePath(project.getTempDir(),
-                SERVICE_DECLARATION_TEMPLATE_FILE)).replaceAll(RESOURCE_FUNCTIONS_PLACEHOLDER, resourceFunctions);
-        return NodeParser.parseModuleMemberDeclaration(serviceTemplate);
+    private ModuleMemberDeclarationNode getServiceDeclaration(String serviceFunctions)
+            throws GatewayGenerationException {
+        Map<TemplatePlaceholder, String> bindings = new EnumMap<>(TemplatePlaceholder.class);
+        bindings.put(TemplatePlaceholder.RESOURCE_FUNCTIONS, serviceFunctions);
+        String serviceDeclaration = TemplateRegistry.getCompiledTemplate(SERVICE_DECLARATION_TEMPLATE_FILE)
+                .render(bindings);
+        return NodeParser.parseModuleMemberDeclaration(serviceDeclaration);
     }
 
-    private List<String> getServiceFunctions() throws GatewayGenerationException, IOException {
-        List<String> resourceFunctions = new ArrayList<>();
-        for (GraphQLSchemaElement graphQLObjectType : CommonUtils.getQueryTypes(project.getSchema())) {
-            resourceFunctions.add(getServiceFunction(FunctionType.QUERY, graphQLObjectType));
+    private String getServiceFunctions() throws GatewayGenerationException {
+        if (project.isParallel()) {
+            List<String> resourceFunctions = new ArrayList<>();
+            resourceFunctions.addAll(ParallelUtils.map(supergraphIndex.getQueryFields(), true,
+                    fieldDefinition -> getServiceFunction(FunctionType.QUERY, fieldDefinition)));
+            resourceFunctions.addAll(ParallelUtils.map(supergraphIndex.getMutationFields(), true,
+                    fieldDefinition -> getServiceFunction(FunctionType.MUTATION, fieldDefinition)));
+            return String.join(System.lineSeparator(), resourceFunctions);
+        }
+        StringBuilder resourceFunctions = new StringBuilder();
+        Map<TemplatePlaceholder, String> bindings = new EnumMap<>(TemplatePlaceholder.class);
+        for (FieldDefinition fieldDefinition : supergraphIndex.getQueryFields()) {
+            appendServiceFunction(resourceFunctions, bindings, FunctionType.QUERY, fieldDefinition);
         }
-        for (GraphQLSchemaElement graphQLObjectType : CommonUtils.getMutationTypes(project.getSchema())) {
-            resourceFunctions.add(getServiceFunction(FunctionType.MUTATION, graphQLObjectType));
+        for (FieldDefinition fieldDefinition : supergraphIndex.getMutationFields()) {
+            appendServiceFunction(resourceFunctions, bindings, FunctionType.MUTATION, fieldDefinition);
         }
-        return resourceFunctions;
+        return resourceFunctions.toString();
     }
 
-    private String getServiceFunction(FunctionType functionType, GraphQLSchemaElement graphQLSchemaElement)
-            throws IOException, GatewayGenerationException {
-        String template;
+    private void appendServiceFunction(StringBuilder resourceFunctions, Map<TemplatePlaceholder, String> bindings,
+                                       FunctionType functionType, FieldDefinition fieldDefinition)
+            throws GatewayGenerationException {
+        if (resourceFunctions.length() > 0) {
+            resourceFunctions.append(System.lineSeparator());
+        }
+        bindings.clear();
+        getServiceFunctionTemplate(functionType, fieldDefinition, bindings).render(resourceFunctions, bindings);
+    }
+
+    private String getServiceFunction(FunctionType functionType, FieldDefinition fieldDefinition)
+            throws GatewayGenerationException {
+        Map<TemplatePlaceholder, String> bindings = new EnumMap<>(TemplatePlaceholder.class);
+        return getServiceFunctionTemplate(functionType, fieldDefinition, bindings).render(bindings);
+    }
+
+    private CompiledTemplate getServiceFunctionTemplate(FunctionType functionType, FieldDefinition fieldDefinition,
+                                                        Map<TemplatePlaceholder, String> bindings)
+            throws GatewayGenerationException {
+        CompiledTemplate template;
         String type;
-        GraphQLType returnType = ((GraphQLFieldDefinition) graphQLSchemaElement).getType();
+        Type<?> returnType = fieldDefinition.getType();
 
         if (functionType == FunctionType.QUERY) {
-            if (CommonUtils.isScalarType(returnType)) {
-                template = Files.readString(getResourceTemplateFilePath(project.getTempDir(),
-                        SCALAR_RETURN_TYPE_RESOURCE_FUNCTION_TEMPLATE_FILE));
+            if (CommonUtils.isScalarType(returnType, supergraphIndex)) {
+                template = TemplateRegistry.getCompiledTemplate(SCALAR_RETURN_TYPE_RESOURCE_FUNCTION_TEMPLATE_FILE);
             } else {
-                template = Files.readString(getResourceTemplateFilePath(project.getTempDir(),
-                        RESOURCE_FUNCTION_TEMPLATE_FILE));
+                template = TemplateRegistry.getCompiledTemplate(RESOURCE_FUNCTION_TEMPLATE_FILE);
             }
             type = TYPE_QUERY;
         } else if (functionType == FunctionType.MUTATION) {
-            if (CommonUtils.isScalarType(returnType)) {
-                template = Files.readString(getResourceTemplateFilePath(project.getTempDir(),
-                        SCALAR_RETURN_TYPE_REMOTE_FUNCTION_TEMPLATE_FILE));
+            if (CommonUtils.isScalarType(returnType, supergraphIndex)) {
+                template = TemplateRegistry.getCompiledTemplate(SCALAR_RETURN_TYPE_REMOTE_FUNCTION_TEMPLATE_FILE);
             } else {
-                template = Files.readString(getResourceTemplateFilePath(project.getTempDir(),
-                        REMOTE_FUNCTION_TEMPLATE_FILE));
+                template = TemplateRegistry.getCompiledTemplate(REMOTE_FUNCTION_TEMPLATE_FILE);
             }
             type = TYPE_MUTATION;
         } else {
             throw new GatewayGenerationException("Unsupported function type");
         }
 
-        List<GraphQLArgument> arguments = ((GraphQLFieldDefinition) graphQLSchemaElement).getArguments();
+        String query = fieldDefinition.getName();
+        List<InputValueDefinition> arguments = fieldDefinition.getInputValueDefinitions();
         if (CommonUtils.isListType(returnType)) {
-            String initialResultType = CommonUtils.getTypeFromGraphQLType(returnType);
+            String initialResultType = CommonUtils.getTypeFromGraphQLType(returnType, supergraphIndex);
             if (!initialResultType.endsWith("?")) {
                 initialResultType = initialResultType + "?";
             }
-            template = template.replaceAll(INITIAL_RESULT, initialResultType + " result = null;")
-                    .replaceAll(INITIAL_RESULT_ASSIGNMENT, "result = response.data.@{query};");
-        } else if (CommonUtils.isObjectType(returnType)) {
-            template = template.replaceAll(INITIAL_RESULT,
-                            "map<json> result = {" + getQueryArgumentList(arguments, false) + "};")
-                    .replaceAll(INITIAL_RESULT_ASSIGNMENT,
-                            "mergeToResultJson(result, <map<json>>response.data.@{query}.toJson());");
+            bindings.put(TemplatePlaceholder.INITIAL_RESULT, initialResultType + " result = null;");
+            bindings.put(TemplatePlaceholder.INITIAL_RESULT_ASSIGNMENT, "result = response.data." + query + ";");
+        } else if (CommonUtils.isObjectType(returnType, supergraphIndex)) {
+            bindings.put(TemplatePlaceholder.INITIAL_RESULT,
+                    "map<json> result = {" + getQueryArgumentList(arguments) + "};");
+            bindings.put(TemplatePlaceholder.INITIAL_RESULT_ASSIGNMENT,
+                    "mergeToResultJson(result, <map<json>>response.data." + query + ".toJson());");
         }
 
-        GraphQLFieldDefinition graphQLFieldDefinition = (GraphQLFieldDefinition) graphQLSchemaElement;
-        return template.replaceAll(QUERY_PLACEHOLDER, graphQLFieldDefinition.getName())
-                .replaceAll(FUNCTION_PARAM_PLACEHOLDER, getArgumentString(graphQLSchemaElement))
-                .replaceAll(RESPONSE_TYPE_PLACEHOLDER,
-                        CommonUtils.getTypeFromGraphQLType(graphQLFieldDefinition.getType()))
-                .replaceAll(BASIC_RESPONSE_TYPE_PLACEHOLDER,
-                        CommonUtils.getBasicTypeNameFromGraphQLType(graphQLFieldDefinition.getType()))
-                .replaceAll(CLIENT_NAME_PLACEHOLDER,
-                        getClientNameFromFieldDefinition(graphQLFieldDefinition, type))
-                .replaceAll(QUERY_ARGS_PLACEHOLDER, getQueryArguments(graphQLSchemaElement))
-                .replaceAll(DEPRECATED_PLACEHOLDER, getDeprecationStatus(graphQLFieldDefinition));
+        bindings.put(TemplatePlaceholder.QUERY, query);
+        bindings.put(TemplatePlaceholder.PARAMS, getArgumentString(arguments));
+        bindings.put(TemplatePlaceholder.RESPONSE_TYPE,
+                CommonUtils.getTypeFromGraphQLType(returnType, supergraphIndex));
+        bindings.put(TemplatePlaceholder.CLIENT_NAME, getClientNameFromFieldDefinition(fieldDefinition, type));
+        bindings.put(TemplatePlaceholder.QUERY_ARGS, getQueryArguments(arguments));
+        bindings.put(TemplatePlaceholder.QUERY_VARIABLES, getQueryVariables(arguments));
+        bindings.put(TemplatePlaceholder.DEPRECATED_DIRECTIVE, getDeprecationStatus(fieldDefinition));
+        return template;
     }
 
-    private ModuleMemberDeclarationNode getGetClientFunction()
-            throws IOException {
-        List<String> matchClientCases = new ArrayList<>();
+    private ModuleMemberDeclarationNode getGetClientFunction() throws GatewayGenerationException {
+        StringBuilder matchClientCases = new StringBuilder();
         for (Map.Entry<String, JoinGraph> entry : joinGraphs.entrySet()) {
-            matchClientCases.add(
+            if (matchClientCases.length() > 0) {
+                matchClientCases.append(System.lineSeparator());
+            }
+            matchClientCases.append(
                     MATCH_CLIENT_STATEMENT_TEMPLATE
                             .replace(CLIENT_NAME_PLACEHOLDER, entry.getKey())
                             .replace(CLIENT_NAME_VALUE_PLACEHOLDER, entry.getValue().getName())
             );
         }
-        String functionTemplate = Files.readString(getResourceTemplateFilePath(project.getTempDir(),
-                GET_CLIENT_FUNCTION_TEMPLATE_FILE));
-        functionTemplate = functionTemplate.replaceAll(
-                MATCH_CLIENT_STATEMENTS_PLACEHOLDER,
-                String.join(System.lineSeparator(), matchClientCases)
-        );
+        Map<TemplatePlaceholder, String> bindings = new EnumMap<>(TemplatePlaceholder.class);
+        bindings.put(TemplatePlaceholder.MATCH_CLIENT_STATEMENTS, matchClientCases.toString());
+        String functionTemplate = TemplateRegistry.getCompiledTemplate(GET_CLIENT_FUNCTION_TEMPLATE_FILE)
+                .render(bindings);
 
         return NodeParser.parseModuleMemberDeclaration(functionTemplate);
     }
 
     private List<ModuleMemberDeclarationNode> getClientDeclarations() {
         List<ModuleMemberDeclarationNode> nodes = new ArrayList<>();
+        nodes.add(NodeParser.parseModuleMemberDeclaration(
+                getSubgraphClientDefaultsDeclaration(project.getSubgraphClientDefaults())));
         for (Map.Entry<String, JoinGraph> entry : joinGraphs.entrySet()) {
             String key = entry.getKey();
             JoinGraph value = entry.getValue();
+            nodes.add(NodeParser.parseModuleMemberDeclaration(
+                    CLIENT_CONFIG_DECLARATION_STATEMENT.replace(CLIENT_NAME_PLACEHOLDER, key)));
             nodes.add(
                     NodeParser.parseModuleMemberDeclaration(
                             GRAPHQL_CLIENT_DECLARATION_STATEMENT.replace(CLIENT_NAME_PLACEHOLDER, key)
@@ -257,95 +328,100 @@ public class GatewayServiceGenerator {
         }
         return nodes;
     }
+
+    static String getSubgraphClientDefaultsDeclaration(SubgraphClientDefaults defaults) {
+        return String.format(SUBGRAPH_CLIENT_DEFAULTS_DECLARATION_STATEMENT, defaults.getHttpVersion().getValue(),
+                defaults.getMaxActiveConnections(), defaults.getMaxIdleConnections(),
+                defaults.getWaitTime().toPlainString(), defaults.getKeepAlive().name(),
+                defaults.getTimeout().toPlainString(), defaults.getRetryCount(),
+                defaults.getRetryInterval().toPlainString(), defaults.getCompression().name());
+    }
     
-    private String getDeprecationStatus(GraphQLFieldDefinition fieldDefinition) {
-        if (!fieldDefinition.getAllAppliedDirectivesByName().containsKey(GRAPHQL_DEPRECATED_DIRECTIVE)) {
+    private String getDeprecationStatus(FieldDefinition fieldDefinition) {
+        if (!fieldDefinition.hasDirective(GRAPHQL_DEPRECATED_DIRECTIVE)) {
             return "";
         }
-        GraphQLAppliedDirective deprecatedDirective = fieldDefinition.getAppliedDirectives(GRAPHQL_DEPRECATED_DIRECTIVE)
-                                                                                                            .get(0);
-        Object reasonArgumentValue = deprecatedDirective.getArgument("reason").getArgumentValue().getValue();
-        String reason = reasonArgumentValue == null ? GRAPHQL_DEPRECATED_DIRECTIVE_DEFAULT_REASON : 
-                                                      ((StringValue) reasonArgumentValue).getValue();
+        Directive deprecatedDirective = fieldDefinition.getDirectives(GRAPHQL_DEPRECATED_DIRECTIVE).get(0);
+        Argument reasonArgument = deprecatedDirective.getArgument("reason");
+        String reason = reasonArgument == null || !(reasonArgument.getValue() instanceof StringValue)
+                ? GRAPHQL_DEPRECATED_DIRECTIVE_DEFAULT_REASON : ((StringValue) reasonArgument.getValue()).getValue();
         return String.format("# # Deprecated%n# %s%n@%s%n", reason, GRAPHQL_DEPRECATED_DIRECTIVE);
     }
 
-    private String getClientNameFromFieldDefinition(GraphQLFieldDefinition graphQLFieldDefinition, String parentType)
+    private String getClientNameFromFieldDefinition(FieldDefinition fieldDefinition, String parentType)
             throws GatewayGenerationException {
-        for (GraphQLAppliedDirective directive : graphQLFieldDefinition.getAppliedDirectives()) {
-            GraphQLAppliedDirectiveArgument appliedDirectiveArgument = directive.getArgument(ARGUMENT_GRAPH);
-            if (appliedDirectiveArgument == null) {
-                continue;
-            }
-            Object value = appliedDirectiveArgument.getArgumentValue().getValue();
-            if (directive.getName().equals(DIRECTIVE_JOIN_FIELD) && value instanceof EnumValue) {
-                return ((EnumValue) value).getName();
+        for (Directive directive : fieldDefinition.getDirectives(DIRECTIVE_JOIN_FIELD)) {
+            Argument argument = directive.getArgument(ARGUMENT_GRAPH);
+            if (argument != null && argument.getValue() instanceof EnumValue) {
+                return ((EnumValue) argument.getValue()).getName();
             }
         }
 
-        List<GraphQLAppliedDirective> appliedDirectivesOnParent =
-                SpecReader.getObjectTypeDirectives(project.getSchema(), parentType);
-        for (GraphQLAppliedDirective directive : appliedDirectivesOnParent) {
-            GraphQLAppliedDirectiveArgument appliedDirectiveArgument = directive.getArgument(ARGUMENT_GRAPH);
-            if (appliedDirectiveArgument == null) {
-                continue;
-            }
-            Object value = appliedDirectiveArgument.getArgumentValue().getValue();
-            if (directive.getName().equals(DIRECTIVE_JOIN_TYPE) && value instanceof EnumValue) {
-                return ((EnumValue) value).getName();
+        for (Directive directive : supergraphIndex.getJoinTypeDirectives(parentType)) {
+            Argument argument = directive.getArgument(ARGUMENT_GRAPH);
+            if (argument != null && argument.getValue() instanceof EnumValue) {
+                return ((EnumValue) argument.getValue()).getName();
             }
         }
 
-        throw new GatewayGenerationException("No client name found: " + graphQLFieldDefinition.getName());
+        throw new GatewayGenerationException("No client name found: " + fieldDefinition.getName());
     }
 
-    private String getArgumentString(GraphQLSchemaElement graphQLObjectType) throws GatewayGenerationException {
-        StringBuilder arguments = new StringBuilder();
-        for (GraphQLArgument argument : ((GraphQLFieldDefinition) graphQLObjectType).getArguments()) {
-            arguments.append(", ");
-            InputValueDefinition inputValueDefinition = argument.getDefinition();
-            if (inputValueDefinition != null) {
-                FieldType fieldType = SpecReader.getFieldType(project.getSchema(),
-                        inputValueDefinition.getType());
-                if (inputValueDefinition.getDefaultValue() != null) {
-                    arguments.append(fieldType.getName()).append(fieldType.getTokens()).append(" ")
-                            .append(argument.getName()).append(" = ")
-                            .append(CommonUtils.getValue(inputValueDefinition.getDefaultValue()));
-                } else {
-                    arguments.append(fieldType.getName()).append(fieldType.getTokens()).append(" ")
-                            .append(argument.getName());
-                }
+    private String getArgumentString(List<InputValueDefinition> arguments) throws GatewayGenerationException {
+        StringBuilder argumentString = new StringBuilder();
+        for (InputValueDefinition argument : arguments) {
+            argumentString.append(", ");
+            FieldType fieldType = supergraphIndex.getFieldType(argument.getType());
+            if (argument.getDefaultValue() != null) {
+                argumentString.append(fieldType.getName()).append(fieldType.getTokens()).append(" ")
+                        .append(argument.getName()).append(" = ")
+                        .append(CommonUtils.getValue(argument.getDefaultValue()));
+            } else {
+                argumentString.append(fieldType.getName()).append(fieldType.getTokens()).append(" ")
+                        .append(argument.getName());
             }
         }
-        return arguments.toString();
+        return argumentString.toString();
     }
 
-    private String getQueryArguments(GraphQLSchemaElement graphQLObjectType) {
+    private String getQueryArguments(List<InputValueDefinition> arguments) {
         StringBuilder argumentString = new StringBuilder();
-        List<GraphQLArgument> arguments = ((GraphQLFieldDefinition) graphQLObjectType).getArguments();
         if (arguments.size() > 0) {
             argumentString.append(", ");
             argumentString.append("{");
-            argumentString.append(getQueryArgumentList(arguments, true));
+            int count = 0;
+            for (InputValueDefinition argument : arguments) {
+                if (count++ > 0) {
+                    argumentString.append(", ");
+                }
+                argumentString.append("\"").append(argument.getName()).append("\": \"")
+                        .append(AstPrinter.printAst(argument.getType())).append("\"");
+            }
             argumentString.append("}");
         }
         return argumentString.toString();
     }
 
-    private String getQueryArgumentList(List<GraphQLArgument> arguments, boolean convertToString) {
+    private String getQueryVariables(List<InputValueDefinition> arguments) {
+        StringBuilder variableString = new StringBuilder();
+        if (arguments.size() > 0) {
+            variableString.append(", ");
+            variableString.append("{");
+            variableString.append(getQueryArgumentList(arguments));
+            variableString.append("}");
+        }
+        return variableString.toString();
+    }
+
+    private String getQueryArgumentList(List<InputValueDefinition> arguments) {
         StringBuilder argumentList = new StringBuilder();
         int size = arguments.size();
         int count = 0;
-        for (GraphQLArgument argument : arguments) {
-            if (convertToString) {
-                argumentList.append("\"").append(argument.getName()).append("\": getParamAsString(")
-                        .append(argument.getName()).append(")");
-            } else {
-                argumentList.append("\"").append(argument.getName()).append("\": ")
-                        .append(argument.getName());
-            }
+        for (InputValueDefinition argument : arguments) {
+            argumentList.append("\"").append(argument.getName()).append("\": ")
+                    .append(argument.getName());
 
-            if (size < ++count) {
+            if (++count < size) {
                 argumentList.append(", ");
             }
         }
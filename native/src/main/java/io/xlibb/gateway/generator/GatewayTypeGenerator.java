@@ -18,9 +18,8 @@
 
 package io.xlibb.gateway.generator;
 
-import graphql.schema.GraphQLFieldDefinition;
+import graphql.language.FieldDefinition;
 import graphql.schema.GraphQLSchema;
-import graphql.schema.GraphQLSchemaElement;
 import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
@@ -34,12 +33,13 @@ import io.ballerina.tools.text.TextDocument;
 import io.ballerina.tools.text.TextDocuments;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 import io.xlibb.gateway.exception.ValidationException;
-import io.xlibb.gateway.graphql.SpecReader;
+import io.xlibb.gateway.graphql.SupergraphIndex;
 import io.xlibb.gateway.graphql.components.FieldType;
-import io.xlibb.gateway.graphql.components.SchemaTypes;
 import org.ballerinalang.formatter.core.Formatter;
 import org.ballerinalang.formatter.core.FormatterException;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -73,22 +73,57 @@ import static io.xlibb.gateway.generator.CommonUtils.BALLERINA_GRAPHQL_IMPORT_ST
  */
 public class GatewayTypeGenerator {
 
-    private final GraphQLSchema graphQLSchema;
+    private final SupergraphIndex supergraphIndex;
+    private final boolean parallel;
 
-    public GatewayTypeGenerator(GraphQLSchema graphQLSchema) {
-        this.graphQLSchema = graphQLSchema;
+    public GatewayTypeGenerator(GraphQLSchema graphQLSchema) throws ValidationException {
+        this(new SupergraphIndex(graphQLSchema));
+    }
+
+    public GatewayTypeGenerator(SupergraphIndex supergraphIndex) {
+        this(supergraphIndex, false);
+    }
+
+    public GatewayTypeGenerator(SupergraphIndex supergraphIndex, boolean parallel) {
+        this.supergraphIndex = supergraphIndex;
+        this.parallel = parallel;
     }
 
     public String generateSrc() throws GatewayGenerationException {
         try {
             SyntaxTree syntaxTree = generateSyntaxTree();
             return Formatter.format(syntaxTree).toString();
-        } catch (ValidationException | FormatterException e) {
+        } catch (FormatterException e) {
             throw new GatewayGenerationException("Error while generating the gateway types");
         }
     }
 
-    private SyntaxTree generateSyntaxTree() throws GatewayGenerationException, ValidationException {
+    /**
+     * Writes the generated types to the given writer one type definition at a time, without building the syntax
+     * tree of the whole file.
+     *
+     * @param writer the writer of the types file
+     * @throws GatewayGenerationException if the types cannot be generated
+     * @throws IOException                if the types cannot be written
+     */
+    public void emitSrc(Writer writer) throws GatewayGenerationException, IOException {
+        SourceEmitter emitter = new SourceEmitter(writer);
+        emitter.emitImports(List.of(BALLERINA_GRAPHQL_IMPORT_STATEMENT));
+        for (String name : supergraphIndex.getCustomDefinedObjectTypeNames()) {
+            emitter.emitDeclaration(getCustomDefinedTypeDefinition(name), true);
+        }
+        for (String name : supergraphIndex.getInputObjectTypeNames()) {
+            emitter.emitDeclaration(getInputTypeDefinition(name), true);
+        }
+        for (FieldDefinition queryDefinition : supergraphIndex.getQueryFields()) {
+            emitter.emitDeclaration(getQueryResponseTypeDefinition(queryDefinition), true);
+        }
+        for (FieldDefinition queryDefinition : supergraphIndex.getMutationFields()) {
+            emitter.emitDeclaration(getQueryResponseTypeDefinition(queryDefinition), true);
+        }
+    }
+
+    SyntaxTree generateSyntaxTree() throws GatewayGenerationException {
         List<TypeDefinitionNode> typeDefinitionNodeList = new LinkedList<>();
         NodeList<ImportDeclarationNode> importsList = createNodeList(
                 NodeParser.parseImportDeclaration(BALLERINA_GRAPHQL_IMPORT_STATEMENT)
@@ -109,106 +144,108 @@ public class GatewayTypeGenerator {
 
     }
 
-    private void addCustomDefinedTypes(List<TypeDefinitionNode> typeDefinitionNodeList) {
-        List<String> names = CommonUtils.getCustomDefinedObjectTypeNames(graphQLSchema);
+    private void addCustomDefinedTypes(List<TypeDefinitionNode> typeDefinitionNodeList)
+            throws GatewayGenerationException {
+        typeDefinitionNodeList.addAll(ParallelUtils.map(supergraphIndex.getCustomDefinedObjectTypeNames(), parallel,
+                this::getCustomDefinedTypeDefinition));
+    }
+
+    private TypeDefinitionNode getCustomDefinedTypeDefinition(String name) {
+        List<Node> fieldNodes = new ArrayList<>();
+        Map<String, FieldType> fields = supergraphIndex.getObjectTypeFieldsMap(name);
 
-        for (String name : names) {
-            List<Node> fieldNodes = new ArrayList<>();
-            Map<String, FieldType> fields = SchemaTypes.getObjectTypeFieldsMap(graphQLSchema, name);
+        for (Map.Entry<String, FieldType> field : fields.entrySet()) {
+            fieldNodes.add(createRecordFieldNode(
+                    null,
+                    null,
+                    createIdentifierToken(field.getValue().getName() + field.getValue().getTokens()),
+                    createIdentifierToken(field.getKey()),
+                    createToken(QUESTION_MARK_TOKEN),
+                    createToken(SEMICOLON_TOKEN)));
+        }
 
-            for (Map.Entry<String, FieldType> field : fields.entrySet()) {
-                fieldNodes.add(createRecordFieldNode(
+        RecordTypeDescriptorNode recordTypeDescriptorNode =
+                createRecordTypeDescriptorNode(
+                        createToken(RECORD_KEYWORD),
+                        createToken(OPEN_BRACE_PIPE_TOKEN),
+                        createNodeList(fieldNodes),
                         null,
-                        null,
-                        createIdentifierToken(field.getValue().getName() + field.getValue().getTokens()),
-                        createIdentifierToken(field.getKey()),
-                        createToken(QUESTION_MARK_TOKEN),
-                        createToken(SEMICOLON_TOKEN)));
-            }
-
-            RecordTypeDescriptorNode recordTypeDescriptorNode =
-                    createRecordTypeDescriptorNode(
-                            createToken(RECORD_KEYWORD),
-                            createToken(OPEN_BRACE_PIPE_TOKEN),
-                            createNodeList(fieldNodes),
-                            null,
-                            createToken(CLOSE_BRACE_PIPE_TOKEN));
-
-
-            typeDefinitionNodeList.add(
-                    createTypeDefinitionNode(
-                            createMetadataNode(null, createEmptyNodeList()),
-                            createToken(PUBLIC_KEYWORD),
-                            createToken(TYPE_KEYWORD),
-                            createIdentifierToken(name),
-                            recordTypeDescriptorNode,
-                            createToken(SEMICOLON_TOKEN)));
-        }
+                        createToken(CLOSE_BRACE_PIPE_TOKEN));
+
+
+        return createTypeDefinitionNode(
+                createMetadataNode(null, createEmptyNodeList()),
+                createToken(PUBLIC_KEYWORD),
+                createToken(TYPE_KEYWORD),
+                createIdentifierToken(name),
+                recordTypeDescriptorNode,
+                createToken(SEMICOLON_TOKEN));
     }
 
-    private void addInputTypes(List<TypeDefinitionNode> typeDefinitionNodeList) throws ValidationException {
-        List<String> names = SpecReader.getInputObjectTypeNames(graphQLSchema);
-        for (String name : names) {
-            List<Node> fieldNodes = new ArrayList<>();
-            Map<String, FieldType> fields = SpecReader.getInputTypeFieldsMap(graphQLSchema, name);
+    private void addInputTypes(List<TypeDefinitionNode> typeDefinitionNodeList) throws GatewayGenerationException {
+        typeDefinitionNodeList.addAll(ParallelUtils.map(supergraphIndex.getInputObjectTypeNames(), parallel,
+                this::getInputTypeDefinition));
+    }
 
-            for (Map.Entry<String, FieldType> field : fields.entrySet()) {
-                fieldNodes.add(createRecordFieldNode(
-                        null,
-                        null,
-                        createIdentifierToken(field.getValue().getName() + field.getValue().getTokens()),
-                        createIdentifierToken(field.getKey()),
-                        null,
-                        createToken(SEMICOLON_TOKEN)));
-            }
-
-            RecordTypeDescriptorNode recordTypeDescriptorNode =
-                    createRecordTypeDescriptorNode(
-                            createToken(RECORD_KEYWORD),
-                            createToken(OPEN_BRACE_PIPE_TOKEN),
-                            createNodeList(fieldNodes),
-                            null,
-                            createToken(CLOSE_BRACE_PIPE_TOKEN));
-
-
-            typeDefinitionNodeList.add(
-                    createTypeDefinitionNode(
-                            createMetadataNode(null, createEmptyNodeList()),
-                            createToken(PUBLIC_KEYWORD),
-                            createToken(TYPE_KEYWORD),
-                            createIdentifierToken(name),
-                            recordTypeDescriptorNode,
-                            createToken(SEMICOLON_TOKEN)));
+    private TypeDefinitionNode getInputTypeDefinition(String name) {
+        List<Node> fieldNodes = new ArrayList<>();
+        Map<String, FieldType> fields = supergraphIndex.getInputTypeFieldsMap(name);
+
+        for (Map.Entry<String, FieldType> field : fields.entrySet()) {
+            fieldNodes.add(createRecordFieldNode(
+                    null,
+                    null,
+                    createIdentifierToken(field.getValue().getName() + field.getValue().getTokens()),
+                    createIdentifierToken(field.getKey()),
+                    null,
+                    createToken(SEMICOLON_TOKEN)));
         }
+
+        RecordTypeDescriptorNode recordTypeDescriptorNode =
+                createRecordTypeDescriptorNode(
+                        createToken(RECORD_KEYWORD),
+                        createToken(OPEN_BRACE_PIPE_TOKEN),
+                        createNodeList(fieldNodes),
+                        null,
+                        createToken(CLOSE_BRACE_PIPE_TOKEN));
+
+
+        return createTypeDefinitionNode(
+                createMetadataNode(null, createEmptyNodeList()),
+                createToken(PUBLIC_KEYWORD),
+                createToken(TYPE_KEYWORD),
+                createIdentifierToken(name),
+                recordTypeDescriptorNode,
+                createToken(SEMICOLON_TOKEN));
     }
 
     private void addQueryResponseTypes(List<TypeDefinitionNode> typeDefinitionNodeList) throws
                                                                                         GatewayGenerationException {
-        List<GraphQLSchemaElement> queryTypes = new ArrayList<>();
-        queryTypes.addAll(CommonUtils.getQueryTypes(graphQLSchema));
-        queryTypes.addAll(CommonUtils.getMutationTypes(graphQLSchema));
-
-        for (GraphQLSchemaElement queryType : queryTypes) {
-            GraphQLFieldDefinition queryDefinition = (GraphQLFieldDefinition) queryType;
-            RecordTypeDescriptorNode recordTypeDescriptorNode = getRecordTypeDescriptorNode(queryDefinition);
-
-
-            typeDefinitionNodeList.add(
-                    createTypeDefinitionNode(
-                            createMetadataNode(null, createEmptyNodeList()),
-                            createToken(PUBLIC_KEYWORD),
-                            createToken(TYPE_KEYWORD),
-                            createIdentifierToken(queryDefinition.getName() + "Response"),
-                            recordTypeDescriptorNode,
-                            createToken(SEMICOLON_TOKEN)
-                    )
-            );
+        List<FieldDefinition> queryTypes = new ArrayList<>();
+        queryTypes.addAll(supergraphIndex.getQueryFields());
+        queryTypes.addAll(supergraphIndex.getMutationFields());
+
+        for (FieldDefinition queryDefinition : queryTypes) {
+            typeDefinitionNodeList.add(getQueryResponseTypeDefinition(queryDefinition));
         }
     }
 
-    private RecordTypeDescriptorNode getRecordTypeDescriptorNode(GraphQLFieldDefinition queryDefinition)
+    private TypeDefinitionNode getQueryResponseTypeDefinition(FieldDefinition queryDefinition)
+            throws GatewayGenerationException {
+        RecordTypeDescriptorNode recordTypeDescriptorNode = getRecordTypeDescriptorNode(queryDefinition);
+        return createTypeDefinitionNode(
+                createMetadataNode(null, createEmptyNodeList()),
+                createToken(PUBLIC_KEYWORD),
+                createToken(TYPE_KEYWORD),
+                createIdentifierToken(queryDefinition.getName() + "Response"),
+                recordTypeDescriptorNode,
+                createToken(SEMICOLON_TOKEN)
+        );
+    }
+
+    private RecordTypeDescriptorNode getRecordTypeDescriptorNode(FieldDefinition queryDefinition)
             throws GatewayGenerationException {
-        String typename = CommonUtils.getNonNullTypeFromGraphQLType(queryDefinition.getType());
+        String typename = CommonUtils.getNonNullTypeFromGraphQLType(queryDefinition.getType(), supergraphIndex);
         return createRecordTypeDescriptorNode(
                 createToken(RECORD_KEYWORD),
                 createToken(OPEN_BRACE_TOKEN),
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import graphql.language.AstPrinter;
+import graphql.language.Directive;
+import graphql.language.FieldDefinition;
+import graphql.language.Node;
+import graphql.language.ObjectTypeDefinition;
+import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import io.xlibb.gateway.graphql.SupergraphIndex;
+import io.xlibb.gateway.graphql.components.JoinGraph;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_MUTATION;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_QUERY;
+import static io.xlibb.gateway.generator.GatewayCodeGenerator.QUERY_PLAN_FILE_NAME;
+import static io.xlibb.gateway.generator.GatewayCodeGenerator.SERVICE_FILE_NAME;
+import static io.xlibb.gateway.generator.GatewayCodeGenerator.TYPES_FILE_NAME;
+
+/**
+ * Content hashes of the inputs of a gateway generation, used to find the generated files affected by a change.
+ * <p>
+ * Each entry is keyed by the kind and the name of the input, such as {@code object:Product} or
+ * {@code field:Query.product}, and holds the SHA-256 hash of its definition. Comparing the manifest of the current
+ * supergraph with the one stored in the output directory by the previous run gives the set of generated files that
+ * have to be regenerated. The generated files are still produced as a whole, so a change to a single type
+ * regenerates every file that contains a declaration for that type.
+ */
+public class GenerationManifest {
+    public static final String MANIFEST_FILE_NAME = ".gateway_manifest";
+    private static final String MANIFEST_HEADER = "# Generated by the GraphQL federation gateway tool. Do not edit.";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String KEY_SEPARATOR = "=";
+
+    private static final String OBJECT_TYPE = "object:";
+    private static final String INPUT_TYPE = "input:";
+    private static final String ROOT_FIELD = "field:";
+    private static final String JOIN_GRAPH = "graph:";
+    private static final String TEMPLATE = "template:";
+    private static final String OTHER_TYPE = "type:";
+    private static final String PORT = "option:port";
+    private static final String SUBGRAPH_CLIENT_DEFAULTS = "option:subgraphClientDefaults";
+
+    private static final Set<String> ALL_FILES = Set.of(TYPES_FILE_NAME, QUERY_PLAN_FILE_NAME, SERVICE_FILE_NAME);
+    private static final Map<String, Set<String>> AFFECTED_FILES = Map.of(
+            OBJECT_TYPE, Set.of(TYPES_FILE_NAME, QUERY_PLAN_FILE_NAME),
+            INPUT_TYPE, Set.of(TYPES_FILE_NAME),
+            ROOT_FIELD, Set.of(TYPES_FILE_NAME, SERVICE_FILE_NAME),
+            JOIN_GRAPH, Set.of(QUERY_PLAN_FILE_NAME, SERVICE_FILE_NAME),
+            TEMPLATE, Set.of(SERVICE_FILE_NAME),
+            OTHER_TYPE, ALL_FILES,
+            PORT, Set.of(SERVICE_FILE_NAME),
+            SUBGRAPH_CLIENT_DEFAULTS, Set.of(SERVICE_FILE_NAME)
+    );
+
+    private final Map<String, String> hashes;
+
+    private GenerationManifest(Map<String, String> hashes) {
+        this.hashes = Collections.unmodifiableMap(hashes);
+    }
+
+    /**
+     * Computes the manifest of the given gateway project.
+     *
+     * @param project the gateway project
+     * @return the manifest of the project
+     * @throws GatewayGenerationException if the templates cannot be read
+     */
+    public static GenerationManifest of(GatewayProject project) throws GatewayGenerationException {
+        MessageDigest digest = getMessageDigest();
+        SupergraphIndex supergraphIndex = project.getSupergraphIndex();
+        Set<String> objectTypeNames = new HashSet<>(supergraphIndex.getCustomDefinedObjectTypeNames());
+        Set<String> inputTypeNames = new HashSet<>(supergraphIndex.getInputObjectTypeNames());
+        Map<String, String> hashes = new TreeMap<>();
+
+        for (Map.Entry<String, Node<?>> entry : supergraphIndex.getTypeDefinitions().entrySet()) {
+            String name = entry.getKey();
+            Node<?> definition = entry.getValue();
+            if (objectTypeNames.contains(name)) {
+                hashes.put(OBJECT_TYPE + name, hash(digest, printDefinition(definition, name)));
+            } else if (inputTypeNames.contains(name)) {
+                hashes.put(INPUT_TYPE + name, hash(digest, printDefinition(definition, name)));
+            } else if (supergraphIndex.isRootType(name)) {
+                hashes.put(OTHER_TYPE + name, hash(digest, printDirectives(definition, name)));
+            } else {
+                hashes.put(OTHER_TYPE + name, hash(digest, printDefinition(definition, name)));
+            }
+        }
+        addRootFields(hashes, digest, TYPE_QUERY, supergraphIndex.getQueryFields());
+        addRootFields(hashes, digest, TYPE_MUTATION, supergraphIndex.getMutationFields());
+        for (Map.Entry<String, JoinGraph> entry : supergraphIndex.getJoinGraphs().entrySet()) {
+            hashes.put(JOIN_GRAPH + entry.getKey(),
+                    hash(digest, entry.getValue().getName() + " " + entry.getValue().getUrl()));
+        }
+        for (String fileName : TemplateRegistry.getTemplateFileNames()) {
+            hashes.put(TEMPLATE + fileName, hash(digest, TemplateRegistry.getTemplate(fileName)));
+        }
+        hashes.put(PORT, hash(digest, String.valueOf(project.getPort())));
+        hashes.put(SUBGRAPH_CLIENT_DEFAULTS, hash(digest,
+                GatewayServiceGenerator.getSubgraphClientDefaultsDeclaration(project.getSubgraphClientDefaults())));
+        return new GenerationManifest(hashes);
+    }
+
+    /**
+     * Reads the manifest stored in the given output directory. An empty manifest is returned if there is no
+     * manifest or it cannot be read, which makes every generated file count as affected.
+     *
+     * @param outputPath the output directory of the gateway
+     * @return the stored manifest
+     */
+    public static GenerationManifest read(Path outputPath) {
+        Map<String, String> hashes = new TreeMap<>();
+        Path manifestPath = outputPath.resolve(MANIFEST_FILE_NAME);
+        if (!Files.isRegularFile(manifestPath)) {
+            return new GenerationManifest(hashes);
+        }
+        try {
+            for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+                int separatorIndex = line.lastIndexOf(KEY_SEPARATOR);
+                if (line.startsWith("#") || separatorIndex < 0) {
+                    continue;
+                }
+                hashes.put(line.substring(0, separatorIndex), line.substring(separatorIndex + 1));
+            }
+        } catch (IOException e) {
+            hashes.clear();
+        }
+        return new GenerationManifest(hashes);
+    }
+
+    /**
+     * Returns the names of the generated files whose inputs differ between this manifest and the given one.
+     *
+     * @param previous the manifest of the previous generation
+     * @return the names of the affected generated files
+     */
+    public Set<String> getAffectedFiles(GenerationManifest previous) {
+        if (previous.hashes.isEmpty()) {
+            return ALL_FILES;
+        }
+        Set<String> keys = new TreeSet<>(hashes.keySet());
+        keys.addAll(previous.hashes.keySet());
+        Set<String> affectedFiles = new TreeSet<>();
+        for (String key : keys) {
+            if (!Objects.equals(hashes.get(key), previous.hashes.get(key))) {
+                affectedFiles.addAll(getAffectedFiles(key));
+            }
+        }
+        return affectedFiles;
+    }
+
+    /**
+     * Returns the content of the manifest file.
+     *
+     * @return the manifest file content
+     */
+    public String toFileContent() {
+        StringBuilder content = new StringBuilder(MANIFEST_HEADER).append("\n");
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            content.append(entry.getKey()).append(KEY_SEPARATOR).append(entry.getValue()).append("\n");
+        }
+        return content.toString();
+    }
+
+    private static Set<String> getAffectedFiles(String key) {
+        for (Map.Entry<String, Set<String>> entry : AFFECTED_FILES.entrySet()) {
+            if (key.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return ALL_FILES;
+    }
+
+    private static void addRootFields(Map<String, String> hashes, MessageDigest digest, String rootTypeName,
+                                      List<FieldDefinition> fields) {
+        for (FieldDefinition field : fields) {
+            hashes.put(ROOT_FIELD + rootTypeName + "." + field.getName(),
+                    hash(digest, printDefinition(field, field.getName())));
+        }
+    }
+
+    private static String printDefinition(Node<?> definition, String name) {
+        return definition == null ? name : AstPrinter.printAst(definition);
+    }
+
+    private static String printDirectives(Node<?> rootTypeDefinition, String name) {
+        StringBuilder directives = new StringBuilder(name);
+        if (rootTypeDefinition instanceof ObjectTypeDefinition) {
+            for (Directive directive : ((ObjectTypeDefinition) rootTypeDefinition).getDirectives()) {
+                directives.append(" ").append(AstPrinter.printAst(directive));
+            }
+        }
+        return directives.toString();
+    }
+
+    private static String hash(MessageDigest digest, String content) {
+        return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest getMessageDigest() throws GatewayGenerationException {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new GatewayGenerationException("Hash algorithm not available: " + HASH_ALGORITHM);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import io.xlibb.gateway.exception.GatewayGenerationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Utilities to split the per element work of the generators across the common fork-join pool.
+ */
+final class ParallelUtils {
+
+    private ParallelUtils() {
+    }
+
+    /**
+     * Function applied to each element, which may fail with a generation error.
+     *
+     * @param <T> type of the input element
+     * @param <R> type of the result
+     */
+    @FunctionalInterface
+    interface GenerationFunction<T, R> {
+        R apply(T element) throws GatewayGenerationException;
+    }
+
+    /**
+     * Applies the function to every element and returns the results in the order of the elements. When parallel is
+     * set, the elements are processed concurrently on the common fork-join pool.
+     *
+     * @param elements the elements to process
+     * @param parallel whether to process the elements concurrently
+     * @param function the function to apply
+     * @return the results, in the same order as the elements
+     * @throws GatewayGenerationException if the function fails for any of the elements
+     */
+    static <T, R> List<R> map(List<T> elements, boolean parallel, GenerationFunction<T, R> function)
+            throws GatewayGenerationException {
+        if (!parallel || elements.size() < 2) {
+            List<R> results = new ArrayList<>(elements.size());
+            for (T element : elements) {
+                results.add(function.apply(element));
+            }
+            return results;
+        }
+        try {
+            return elements.parallelStream().map(element -> {
+                try {
+                    return function.apply(element);
+                } catch (GatewayGenerationException e) {
+                    throw new GenerationFailure(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (GenerationFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class GenerationFailure extends RuntimeException {
+
+        GenerationFailure(GatewayGenerationException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized GatewayGenerationException getCause() {
+            return (GatewayGenerationException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.tools.text.TextDocuments;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import org.ballerinalang.formatter.core.Formatter;
+import org.ballerinalang.formatter.core.FormatterException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Function;
+
+import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createEmptyNodeList;
+import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createNodeList;
+import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createToken;
+import static io.ballerina.compiler.syntax.tree.NodeFactory.createModulePartNode;
+import static io.ballerina.compiler.syntax.tree.SyntaxKind.EOF_TOKEN;
+
+/**
+ * Writes a generated Ballerina source file one top-level declaration at a time.
+ * <p>
+ * Each declaration is formatted on its own and written out as soon as it is produced, so only the declaration being
+ * emitted is held in memory instead of the syntax tree and the text of the whole file. A declaration enclosing a
+ * list of members, such as the query plan table or the gateway service, is emitted member by member: the opening
+ * and the closing of the declaration are taken from formatting it without members, and each member is formatted
+ * once inside a declaration holding only that member. The text of the formatted member node is written at the
+ * indentation of a member, so the emitted source is the same as formatting the whole file.
+ */
+final class SourceEmitter {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String MEMBER_INDENTATION = "    ";
+
+    private final Writer writer;
+    private int declarationCount = 0;
+    private String closing = "";
+
+    SourceEmitter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void emitImports(List<String> importStatements) throws IOException {
+        for (String importStatement : importStatements) {
+            writeLine(importStatement);
+        }
+        emitBlankLine();
+    }
+
+    /**
+     * Emits a top-level declaration.
+     *
+     * @param declaration        the declaration
+     * @param blankLineSeparated whether to separate the declaration from the previous one with a blank line
+     * @throws GatewayGenerationException if the declaration cannot be formatted
+     * @throws IOException                if the source cannot be written
+     */
+    void emitDeclaration(ModuleMemberDeclarationNode declaration, boolean blankLineSeparated)
+            throws GatewayGenerationException, IOException {
+        String source = format(declaration).toSourceCode();
+        if (blankLineSeparated && declarationCount > 0) {
+            emitBlankLine();
+        }
+        writeLines(source.strip());
+        declarationCount++;
+    }
+
+    /**
+     * Emits the text of a declaration enclosing a list of members up to its closing token, and keeps the text from
+     * the closing token on to be emitted by {@link #emitClosing()} after the members.
+     *
+     * @param emptyDeclaration the enclosing declaration without members
+     * @param closingTokenOf   returns the closing token of the formatted declaration
+     * @throws GatewayGenerationException if the declaration cannot be formatted
+     * @throws IOException                if the source cannot be written
+     */
+    void emitOpening(ModuleMemberDeclarationNode emptyDeclaration,
+                     Function<ModuleMemberDeclarationNode, Node> closingTokenOf)
+            throws GatewayGenerationException, IOException {
+        ModuleMemberDeclarationNode formatted = format(emptyDeclaration);
+        String source = formatted.toSourceCode();
+        int closingOffset = closingTokenOf.apply(formatted).textRange().startOffset()
+                - formatted.textRangeWithMinutiae().startOffset();
+        writeLines(source.substring(0, closingOffset).strip());
+        closing = source.substring(closingOffset).strip();
+        declarationCount++;
+    }
+
+    /**
+     * Emits a member of the declaration opened by {@link #emitOpening}.
+     *
+     * @param declaration the enclosing declaration holding only the member to emit
+     * @param memberOf    returns the member of the formatted declaration
+     * @param separator   the text following the member, such as the comma separating the rows of a table
+     * @throws GatewayGenerationException if the declaration cannot be formatted
+     * @throws IOException                if the source cannot be written
+     */
+    void emitMember(ModuleMemberDeclarationNode declaration, Function<ModuleMemberDeclarationNode, Node> memberOf,
+                    String separator) throws GatewayGenerationException, IOException {
+        writeLines(MEMBER_INDENTATION + memberOf.apply(format(declaration)).toSourceCode().strip() + separator);
+    }
+
+    /**
+     * Emits the closing text of the declaration opened by {@link #emitOpening}.
+     *
+     * @throws IOException if the source cannot be written
+     */
+    void emitClosing() throws IOException {
+        writeLines(closing);
+        closing = "";
+    }
+
+    void emitBlankLine() throws IOException {
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private void writeLines(String text) throws IOException {
+        for (String line : text.split("\\R")) {
+            writeLine(line);
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private static ModuleMemberDeclarationNode format(ModuleMemberDeclarationNode declaration)
+            throws GatewayGenerationException {
+        ModulePartNode modulePartNode = createModulePartNode(createEmptyNodeList(), createNodeList(declaration),
+                createToken(EOF_TOKEN));
+        SyntaxTree syntaxTree = SyntaxTree.from(TextDocuments.from("")).modifyWith(modulePartNode);
+        try {
+            return ((ModulePartNode) Formatter.format(syntaxTree).rootNode()).members().get(0);
+        } catch (FormatterException e) {
+            throw new GatewayGenerationException("Error while formatting the generated source");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Placeholders that can be used in the gateway template files as {@code @{name}}.
+ */
+public enum TemplatePlaceholder {
+    DEPRECATED_DIRECTIVE("deprecatedDirective"),
+    QUERY("query"),
+    PARAMS("params"),
+    RESPONSE_TYPE("responseType"),
+    CLIENT_NAME("clientName"),
+    QUERY_ARGS("queryArgs"),
+    QUERY_VARIABLES("queryVariables"),
+    INITIAL_RESULT("initialResult"),
+    INITIAL_RESULT_ASSIGNMENT("initialResultAssignment"),
+    RESOURCE_FUNCTIONS("resourceFunctions"),
+    MATCH_CLIENT_STATEMENTS("matchClientStatements");
+
+    private static final Map<String, TemplatePlaceholder> PLACEHOLDERS = new HashMap<>();
+
+    static {
+        for (TemplatePlaceholder placeholder : values()) {
+            PLACEHOLDERS.put(placeholder.name, placeholder);
+        }
+    }
+
+    private final String name;
+
+    TemplatePlaceholder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name used for the placeholder inside {@code @{}} in the template files.
+     *
+     * @return the placeholder name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the placeholder with the given name.
+     *
+     * @param name the placeholder name
+     * @return the placeholder, or {@code null} if there is no placeholder with the given name
+     */
+    public static TemplatePlaceholder fromName(String name) {
+        return PLACEHOLDERS.get(name);
+    }
+}
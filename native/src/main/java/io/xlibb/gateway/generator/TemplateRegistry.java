@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.xlibb.gateway.generator.CommonUtils.GATEWAY_TEMPLATE_FILES_DIRECTORY;
+import static io.xlibb.gateway.generator.GatewayServiceGenerator.GET_CLIENT_FUNCTION_TEMPLATE_FILE;
+import static io.xlibb.gateway.generator.GatewayServiceGenerator.REMOTE_FUNCTION_TEMPLATE_FILE;
+import static io.xlibb.gateway.generator.GatewayServiceGenerator.RESOURCE_FUNCTION_TEMPLATE_FILE;
+import static io.xlibb.gateway.generator.GatewayServiceGenerator.SCALAR_RETURN_TYPE_REMOTE_FUNCTION_TEMPLATE_FILE;
+import static io.xlibb.gateway.generator.GatewayServiceGenerator.SCALAR_RETURN_TYPE_RESOURCE_FUNCTION_TEMPLATE_FILE;
+import static io.xlibb.gateway.generator.GatewayServiceGenerator.SERVICE_DECLARATION_TEMPLATE_FILE;
+
+/**
+ * Holds the contents of the gateway template files in memory.
+ * <p>
+ * The templates are read from the classpath and compiled the first time one of them is requested, and are reused
+ * by every generation in the JVM afterwards.
+ */
+public class TemplateRegistry {
+    private static final String[] TEMPLATE_FILES = {
+            RESOURCE_FUNCTION_TEMPLATE_FILE,
+            SCALAR_RETURN_TYPE_RESOURCE_FUNCTION_TEMPLATE_FILE,
+            REMOTE_FUNCTION_TEMPLATE_FILE,
+            SCALAR_RETURN_TYPE_REMOTE_FUNCTION_TEMPLATE_FILE,
+            GET_CLIENT_FUNCTION_TEMPLATE_FILE,
+            SERVICE_DECLARATION_TEMPLATE_FILE
+    };
+
+    private static volatile Map<String, CompiledTemplate> templates;
+
+    private TemplateRegistry() {
+    }
+
+    /**
+     * Returns the names of the template files.
+     *
+     * @return names of the template files inside the gateway_templates directory
+     */
+    public static List<String> getTemplateFileNames() {
+        return List.of(TEMPLATE_FILES);
+    }
+
+    /**
+     * Returns the content of the given template file.
+     *
+     * @param fileName name of the template file inside the gateway_templates directory
+     * @return content of the template file
+     * @throws GatewayGenerationException if the template files cannot be read or the template does not exist
+     */
+    public static String getTemplate(String fileName) throws GatewayGenerationException {
+        return getCompiledTemplate(fileName).getSource();
+    }
+
+    /**
+     * Returns the compiled form of the given template file.
+     *
+     * @param fileName name of the template file inside the gateway_templates directory
+     * @return compiled template
+     * @throws GatewayGenerationException if the template files cannot be read or the template does not exist
+     */
+    public static CompiledTemplate getCompiledTemplate(String fileName) throws GatewayGenerationException {
+        CompiledTemplate template = getTemplates().get(fileName);
+        if (template == null) {
+            throw new GatewayGenerationException("Template file not found: " + fileName);
+        }
+        return template;
+    }
+
+    private static Map<String, CompiledTemplate> getTemplates() throws GatewayGenerationException {
+        Map<String, CompiledTemplate> loadedTemplates = templates;
+        if (loadedTemplates == null) {
+            synchronized (TemplateRegistry.class) {
+                loadedTemplates = templates;
+                if (loadedTemplates == null) {
+                    loadedTemplates = loadTemplates();
+                    templates = loadedTemplates;
+                }
+            }
+        }
+        return loadedTemplates;
+    }
+
+    private static Map<String, CompiledTemplate> loadTemplates() throws GatewayGenerationException {
+        Map<String, CompiledTemplate> loadedTemplates = new HashMap<>();
+        ClassLoader classLoader = TemplateRegistry.class.getClassLoader();
+        for (String fileName : TEMPLATE_FILES) {
+            try (InputStream inputStream = classLoader.getResourceAsStream(
+                    GATEWAY_TEMPLATE_FILES_DIRECTORY + "/" + fileName)) {
+                if (inputStream == null) {
+                    throw new GatewayGenerationException("Template file not found: " + fileName);
+                }
+                loadedTemplates.put(fileName,
+                        CompiledTemplate.compile(IOUtils.toString(inputStream, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new GatewayGenerationException("Error while reading the template file: " + fileName);
+            }
+        }
+        return Collections.unmodifiableMap(loadedTemplates);
+    }
+}
@@ -39,6 +39,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static io.xlibb.gateway.graphql.Utils.getBallerinaTypeName;
 
@@ -90,27 +91,38 @@ public class SpecReader {
      * @return the string representation of Ballerina type for a given GraphQL field type
      */
     public static FieldType getFieldType(GraphQLSchema graphQLSchema, Type<?> type) {
+        return getFieldType(type, typeName -> getBallerinaTypeName(graphQLSchema, typeName));
+    }
+
+    /**
+     * Gets the representation of Ballerina field type for a given GraphQL field type.
+     *
+     * @param type             the field type
+     * @param typeNameResolver the function mapping GraphQL type names to Ballerina type names
+     * @return the string representation of Ballerina type for a given GraphQL field type
+     */
+    public static FieldType getFieldType(Type<?> type, Function<String, String> typeNameResolver) {
         FieldType fieldType = new FieldType();
         if (type instanceof TypeName) {
-            fieldType.setName(getBallerinaTypeName(graphQLSchema, ((TypeName) type).getName()));
+            fieldType.setName(typeNameResolver.apply(((TypeName) type).getName()));
             fieldType.setTokens("?");
         }
         if (type instanceof NonNullType) {
             if (((NonNullType) type).getType() instanceof TypeName) {
-                fieldType.setName(getBallerinaTypeName(graphQLSchema,
+                fieldType.setName(typeNameResolver.apply(
                         ((TypeName) ((NonNullType) type).getType()).getName()));
                 fieldType.setTokens("");
             }
             if (((NonNullType) type).getType() instanceof ListType) {
                 if (((ListType) ((NonNullType) type).getType()).getType() instanceof TypeName) {
-                    fieldType.setName(getBallerinaTypeName(graphQLSchema,
+                    fieldType.setName(typeNameResolver.apply(
                             ((TypeName) ((ListType) ((NonNullType) type).getType()).getType()).getName()));
                     fieldType.setTokens("?[]");
                 }
                 if (((ListType) ((NonNullType) type).getType()).getType() instanceof NonNullType) {
                     if (((NonNullType) ((ListType) ((NonNullType) type).getType()).getType())
                             .getType() instanceof TypeName) {
-                        fieldType.setName(getBallerinaTypeName(graphQLSchema,
+                        fieldType.setName(typeNameResolver.apply(
                                 ((TypeName) ((NonNullType) ((ListType) ((NonNullType) type).getType()).getType())
                                         .getType()).getName()));
                         fieldType.setTokens("[]");
@@ -120,13 +132,13 @@ public class SpecReader {
         }
         if (type instanceof ListType) {
             if (((ListType) type).getType() instanceof TypeName) {
-                fieldType.setName(getBallerinaTypeName(graphQLSchema,
+                fieldType.setName(typeNameResolver.apply(
                         ((TypeName) ((ListType) type).getType()).getName()));
                 fieldType.setTokens("?[]?");
             }
             if (((ListType) type).getType() instanceof NonNullType) {
                 if (((NonNullType) ((ListType) type).getType()).getType() instanceof TypeName) {
-                    fieldType.setName(getBallerinaTypeName(graphQLSchema,
+                    fieldType.setName(typeNameResolver.apply(
                             ((TypeName) ((NonNullType) ((ListType) type).getType()).getType()).getName()));
                     fieldType.setTokens("[]?");
                 }
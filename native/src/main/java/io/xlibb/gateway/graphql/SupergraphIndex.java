@@ -0,0 +1,536 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.graphql;
+
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.EnumTypeDefinition;
+import graphql.language.EnumValue;
+import graphql.language.EnumValueDefinition;
+import graphql.language.FieldDefinition;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.InputValueDefinition;
+import graphql.language.Node;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.OperationTypeDefinition;
+import graphql.language.ScalarTypeDefinition;
+import graphql.language.StringValue;
+import graphql.language.Type;
+import graphql.language.TypeDefinition;
+import graphql.language.Value;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import io.xlibb.gateway.exception.ValidationException;
+import io.xlibb.gateway.generator.CommonUtils;
+import io.xlibb.gateway.graphql.components.FieldData;
+import io.xlibb.gateway.graphql.components.FieldType;
+import io.xlibb.gateway.graphql.components.JoinGraph;
+import io.xlibb.gateway.graphql.components.SchemaTypes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static io.xlibb.gateway.generator.CommonUtils.ARGUMENT_GRAPH;
+import static io.xlibb.gateway.generator.CommonUtils.ARGUMENT_KEY;
+import static io.xlibb.gateway.generator.CommonUtils.DIRECTIVE_JOIN_TYPE;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_JOIN_GRAPH;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_MUTATION;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_QUERY;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_SUBSCRIPTION;
+
+/**
+ * Immutable index of the information the generators read from a supergraph schema.
+ * <p>
+ * The schema is walked once when the index is created. Type names by kind, join graphs, the {@code @join__type}
+ * directives and keys of each object type, the Ballerina field types of object and input types, and the Ballerina
+ * type name of every named type are kept in hash maps, so the generators do not rescan the schema per field.
+ * <p>
+ * The index is built from the type definitions of the supergraph. It can be created from an executable schema, or
+ * directly from the type definition registry of a validated supergraph, in which case no executable schema is built
+ * and {@link #getSchema()} returns {@code null}.
+ */
+public class SupergraphIndex {
+    private final GraphQLSchema schema;
+    private final List<String> customDefinedObjectTypeNames;
+    private final List<String> inputObjectTypeNames;
+    private final Set<String> objectTypeNames;
+    private final Set<String> customScalarTypeNames;
+    private final Set<String> enumTypeNames;
+    private final Set<String> rootTypeNames;
+    private final Map<String, Node<?>> typeDefinitions;
+    private final List<FieldDefinition> queryFields;
+    private final List<FieldDefinition> mutationFields;
+    private final Map<String, String> ballerinaTypeNames;
+    private final Map<String, String> escapedIdentifiers;
+    private final Map<String, JoinGraph> joinGraphs;
+    private final Map<String, List<Directive>> joinTypeDirectives;
+    private final Map<String, Map<String, FieldType>> objectTypeFields;
+    private final Map<String, Map<String, FieldType>> inputTypeFields;
+    private final Map<String, Map<String, String>> keys;
+    private final SchemaTypes schemaTypes;
+
+    public SupergraphIndex(GraphQLSchema schema) throws ValidationException {
+        this(schema, new Definitions(schema));
+    }
+
+    /**
+     * Creates the index from the type definitions of a supergraph without building an executable schema. The
+     * registry is expected to be validated with {@link SupergraphValidator} beforehand.
+     *
+     * @param typeDefinitionRegistry the type definitions of the supergraph
+     * @throws ValidationException if the supergraph cannot be indexed
+     */
+    public SupergraphIndex(TypeDefinitionRegistry typeDefinitionRegistry) throws ValidationException {
+        this(null, new Definitions(typeDefinitionRegistry));
+    }
+
+    private SupergraphIndex(GraphQLSchema schema, Definitions definitions) throws ValidationException {
+        this.schema = schema;
+        this.customDefinedObjectTypeNames = Collections.unmodifiableList(
+                definitions.objectTypeFields.keySet().stream()
+                        .filter(name -> !name.isEmpty() && !name.equals(TYPE_QUERY) && !name.equals(TYPE_MUTATION)
+                                && !name.equals(TYPE_SUBSCRIPTION)).collect(Collectors.toList()));
+        this.inputObjectTypeNames = List.copyOf(definitions.inputTypeFields.keySet());
+        this.objectTypeNames = Collections.unmodifiableSet(definitions.objectTypeFields.keySet());
+        this.customScalarTypeNames = Collections.unmodifiableSet(definitions.customScalarTypeNames);
+        this.enumTypeNames = Collections.unmodifiableSet(definitions.enumTypeNames);
+        this.rootTypeNames = Collections.unmodifiableSet(definitions.rootTypeNames);
+        this.typeDefinitions = Collections.unmodifiableMap(definitions.typeDefinitions);
+        this.queryFields = Collections.unmodifiableList(definitions.queryFields);
+        this.mutationFields = Collections.unmodifiableList(definitions.mutationFields);
+
+        Map<String, String> typeNames = new HashMap<>();
+        for (String name : definitions.typeDefinitions.keySet()) {
+            typeNames.put(name, resolveBallerinaTypeName(name));
+        }
+        this.ballerinaTypeNames = Collections.unmodifiableMap(typeNames);
+
+        this.joinGraphs = Collections.unmodifiableMap(definitions.joinGraphs);
+
+        Map<String, List<Directive>> directives = new HashMap<>();
+        for (Map.Entry<String, List<Directive>> entry : definitions.joinTypeDirectives.entrySet()) {
+            directives.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        this.joinTypeDirectives = Collections.unmodifiableMap(directives);
+
+        Map<String, String> identifiers = new HashMap<>();
+        Map<String, Map<String, FieldType>> objectFields = new HashMap<>();
+        Map<String, List<FieldDefinition>> customDefinedObjectTypeFields = new LinkedHashMap<>();
+        for (String name : customDefinedObjectTypeNames) {
+            Map<String, FieldType> fields = new HashMap<>();
+            for (FieldDefinition fieldDefinition : definitions.objectTypeFields.get(name)) {
+                fields.put(identifiers.computeIfAbsent(fieldDefinition.getName(), Utils::escapeIdentifier),
+                        getFieldType(fieldDefinition.getType()));
+            }
+            objectFields.put(name, Collections.unmodifiableMap(fields));
+            customDefinedObjectTypeFields.put(name, definitions.objectTypeFields.get(name));
+        }
+        this.objectTypeFields = Collections.unmodifiableMap(objectFields);
+
+        Map<String, Map<String, FieldType>> inputFields = new HashMap<>();
+        for (String name : inputObjectTypeNames) {
+            Map<String, FieldType> fields = new HashMap<>();
+            for (InputValueDefinition inputValueDefinition : definitions.inputTypeFields.get(name)) {
+                fields.put(identifiers.computeIfAbsent(inputValueDefinition.getName(), Utils::escapeIdentifier),
+                        getFieldType(inputValueDefinition.getType()));
+            }
+            inputFields.put(name, Collections.unmodifiableMap(fields));
+        }
+        this.inputTypeFields = Collections.unmodifiableMap(inputFields);
+        this.escapedIdentifiers = Collections.unmodifiableMap(identifiers);
+
+        try {
+            this.schemaTypes = new SchemaTypes(customDefinedObjectTypeFields, joinTypeDirectives);
+        } catch (GatewayGenerationException e) {
+            throw new ValidationException(e.getMessage());
+        }
+
+        Map<String, Map<String, String>> typeKeys = new HashMap<>();
+        for (String name : customDefinedObjectTypeNames) {
+            typeKeys.put(name, Collections.unmodifiableMap(computeKeys(name)));
+        }
+        this.keys = Collections.unmodifiableMap(typeKeys);
+    }
+
+    /**
+     * Returns the executable schema the index was created from.
+     *
+     * @return the executable schema, or {@code null} if the index was created from the type definitions
+     */
+    public GraphQLSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the custom defined object type names, i.e. object types other than the root operation types, sorted
+     * by name in the same order as {@link GraphQLSchema#getAllTypesAsList()}.
+     *
+     * @return the custom defined object type names
+     */
+    public List<String> getCustomDefinedObjectTypeNames() {
+        return customDefinedObjectTypeNames;
+    }
+
+    public List<String> getInputObjectTypeNames() {
+        return inputObjectTypeNames;
+    }
+
+    public boolean isObjectType(String graphqlTypeName) {
+        return objectTypeNames.contains(graphqlTypeName);
+    }
+
+    public boolean isScalarType(String graphqlTypeName) {
+        return Utils.isPrimitiveScalarType(graphqlTypeName) || customScalarTypeNames.contains(graphqlTypeName);
+    }
+
+    public boolean isCustomScalarType(String graphqlTypeName) {
+        return customScalarTypeNames.contains(graphqlTypeName);
+    }
+
+    public boolean isEnumType(String graphqlTypeName) {
+        return enumTypeNames.contains(graphqlTypeName);
+    }
+
+    public boolean isRootType(String graphqlTypeName) {
+        return rootTypeNames.contains(graphqlTypeName);
+    }
+
+    /**
+     * Returns the definitions of the named types of the supergraph, other than the introspection types, sorted by
+     * name. The definition of a built-in scalar type which is not declared in the supergraph is {@code null}.
+     *
+     * @return the type definitions by type name
+     */
+    public Map<String, Node<?>> getTypeDefinitions() {
+        return typeDefinitions;
+    }
+
+    /**
+     * Returns the fields of the query type in declaration order.
+     *
+     * @return the query fields
+     */
+    public List<FieldDefinition> getQueryFields() {
+        return queryFields;
+    }
+
+    /**
+     * Returns the fields of the mutation type in declaration order.
+     *
+     * @return the mutation fields, or an empty list if the supergraph has no mutation type
+     */
+    public List<FieldDefinition> getMutationFields() {
+        return mutationFields;
+    }
+
+    /**
+     * Gets the Ballerina type name for a given GraphQL type name.
+     *
+     * @param graphqlTypeName the GraphQL type name
+     * @return the Ballerina type name
+     */
+    public String getBallerinaTypeName(String graphqlTypeName) {
+        String ballerinaTypeName = ballerinaTypeNames.get(graphqlTypeName);
+        return ballerinaTypeName != null ? ballerinaTypeName : resolveBallerinaTypeName(graphqlTypeName);
+    }
+
+    /**
+     * Escapes the given identifier, reusing the result computed while indexing the schema if there is one.
+     *
+     * @param identifier identifier or field name
+     * @return escaped identifier
+     */
+    public String escapeIdentifier(String identifier) {
+        String escapedIdentifier = escapedIdentifiers.get(identifier);
+        return escapedIdentifier != null ? escapedIdentifier : Utils.escapeIdentifier(identifier);
+    }
+
+    /**
+     * Gets the representation of Ballerina field type for a given GraphQL field type.
+     *
+     * @param type the field type
+     * @return the Ballerina field type
+     */
+    public FieldType getFieldType(Type<?> type) {
+        return SpecReader.getFieldType(type, this::getBallerinaTypeName);
+    }
+
+    public Map<String, JoinGraph> getJoinGraphs() {
+        return joinGraphs;
+    }
+
+    /**
+     * Returns the {@code @join__type} directives applied on the given object type.
+     *
+     * @param objectTypeName the object type name
+     * @return the {@code @join__type} directives, or an empty list if the type is not an object type
+     */
+    public List<Directive> getJoinTypeDirectives(String objectTypeName) {
+        return joinTypeDirectives.getOrDefault(objectTypeName, Collections.emptyList());
+    }
+
+    /**
+     * Returns the fields of the given custom defined object type as a map of escaped field names to field types.
+     *
+     * @param objectTypeName the object type name
+     * @return the object type fields map
+     */
+    public Map<String, FieldType> getObjectTypeFieldsMap(String objectTypeName) {
+        return objectTypeFields.getOrDefault(objectTypeName, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the fields of the given input object type as a map of escaped field names to field types.
+     *
+     * @param inputObjectTypeName the input object type name
+     * @return the input object type fields map
+     */
+    public Map<String, FieldType> getInputTypeFieldsMap(String inputObjectTypeName) {
+        return inputTypeFields.getOrDefault(inputObjectTypeName, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the keys of the given entity as a map of join graph names to the key field sets.
+     *
+     * @param objectTypeName the object type name
+     * @return the keys of the entity
+     */
+    public Map<String, String> getKeys(String objectTypeName) {
+        return keys.getOrDefault(objectTypeName, Collections.emptyMap());
+    }
+
+    public SchemaTypes getSchemaTypes() {
+        return schemaTypes;
+    }
+
+    private String resolveBallerinaTypeName(String graphqlTypeName) {
+        if (customScalarTypeNames.contains(graphqlTypeName)) {
+            return Utils.BALLERINA_ANYDATA_TYPE;
+        } else if (enumTypeNames.contains(graphqlTypeName)) {
+            return Utils.BALLERINA_STRING_TYPE;
+        }
+        return Utils.getPrimitiveBallerinaTypeName(graphqlTypeName);
+    }
+
+    private Map<String, String> computeKeys(String name) {
+        Map<String, String> typeKeys = new HashMap<>();
+        for (Directive directive : getJoinTypeDirectives(name)) {
+            try {
+                String graph = getGraphOfJoinTypeArgument(directive);
+                String key = getKeyOfJoinTypeArgument(name, directive);
+                typeKeys.put(graph, key);
+            } catch (GatewayGenerationException | ValidationException ignored) {
+
+            }
+        }
+        return typeKeys;
+    }
+
+    private String getGraphOfJoinTypeArgument(Directive directive)
+            throws GatewayGenerationException, ValidationException {
+        for (Argument argument : directive.getArguments()) {
+            if (argument.getName().equals(ARGUMENT_GRAPH)) {
+                Value<?> value = argument.getValue();
+                if (value == null) {
+                    throw new ValidationException("graph argument value is null");
+                }
+                String graphEnumName = ((EnumValue) value).getName();
+                return this.joinGraphs.get(graphEnumName).getName();
+            }
+        }
+        throw new GatewayGenerationException("No graph argument found in @join__type directive");
+    }
+
+    private String getKeyOfJoinTypeArgument(String name, Directive directive)
+            throws GatewayGenerationException {
+        for (Argument argument : directive.getArguments()) {
+            if (argument.getName().equals(ARGUMENT_KEY)) {
+                Value<?> argumentValue = argument.getValue();
+                if (!(argumentValue instanceof StringValue)) {
+                    break;
+                }
+                return ((StringValue) argumentValue).getValue();
+            }
+        }
+
+        for (FieldData field : schemaTypes.getFieldsOfType(name)) {
+            if (field.isID()) {
+                return field.getFieldName();
+            }
+        }
+
+        throw new GatewayGenerationException("No key argument found in @join__type directive");
+    }
+
+    /**
+     * Type definitions of a supergraph collected either from an executable schema or from a type definition
+     * registry. Types are kept sorted by name, and fields in declaration order.
+     */
+    private static class Definitions {
+        private final Map<String, Node<?>> typeDefinitions = new TreeMap<>();
+        private final Map<String, List<FieldDefinition>> objectTypeFields = new TreeMap<>();
+        private final Map<String, List<Directive>> joinTypeDirectives = new HashMap<>();
+        private final Map<String, List<InputValueDefinition>> inputTypeFields = new TreeMap<>();
+        private final Set<String> customScalarTypeNames = new HashSet<>();
+        private final Set<String> enumTypeNames = new HashSet<>();
+        private final Set<String> rootTypeNames = new HashSet<>();
+        private final Map<String, JoinGraph> joinGraphs;
+        private final List<FieldDefinition> queryFields;
+        private final List<FieldDefinition> mutationFields;
+
+        private Definitions(GraphQLSchema schema) throws ValidationException {
+            for (GraphQLNamedType graphQLNamedType : schema.getAllTypesAsList()) {
+                String name = graphQLNamedType.getName();
+                if (name.startsWith("__")) {
+                    continue;
+                }
+                typeDefinitions.put(name, graphQLNamedType.getDefinition());
+                if (graphQLNamedType instanceof GraphQLObjectType) {
+                    List<FieldDefinition> fields = new ArrayList<>();
+                    for (GraphQLFieldDefinition field : ((GraphQLObjectType) graphQLNamedType).getFields()) {
+                        if (field.getDefinition() != null) {
+                            fields.add(field.getDefinition());
+                        }
+                    }
+                    objectTypeFields.put(name, fields);
+                    joinTypeDirectives.put(name, ((GraphQLObjectType) graphQLNamedType).getAppliedDirectives()
+                            .stream().filter(directive -> directive.getName().equals(DIRECTIVE_JOIN_TYPE))
+                            .map(GraphQLAppliedDirective::getDefinition).collect(Collectors.toList()));
+                } else if (graphQLNamedType instanceof GraphQLInputObjectType) {
+                    List<InputValueDefinition> fields = new ArrayList<>();
+                    for (GraphQLInputObjectField field : ((GraphQLInputObjectType) graphQLNamedType).getFields()) {
+                        if (field.getDefinition() == null) {
+                            throw new ValidationException("Field definition cannot be null");
+                        }
+                        fields.add(field.getDefinition());
+                    }
+                    inputTypeFields.put(name, fields);
+                } else if (graphQLNamedType instanceof GraphQLScalarType && !Utils.isPrimitiveScalarType(name)) {
+                    customScalarTypeNames.add(name);
+                } else if (graphQLNamedType instanceof GraphQLEnumType) {
+                    enumTypeNames.add(name);
+                }
+            }
+            for (GraphQLObjectType rootType : new GraphQLObjectType[]{schema.getQueryType(),
+                    schema.getMutationType(), schema.getSubscriptionType()}) {
+                if (rootType != null) {
+                    rootTypeNames.add(rootType.getName());
+                }
+            }
+            this.joinGraphs = CommonUtils.getJoinGraphs(schema);
+            this.queryFields = getFieldDefinitions(schema.getQueryType());
+            this.mutationFields = getFieldDefinitions(schema.getMutationType());
+        }
+
+        private Definitions(TypeDefinitionRegistry typeDefinitionRegistry) {
+            for (ScalarTypeDefinition scalarTypeDefinition : typeDefinitionRegistry.scalars().values()) {
+                String name = scalarTypeDefinition.getName();
+                typeDefinitions.put(name, scalarTypeDefinition);
+                if (!Utils.isPrimitiveScalarType(name)) {
+                    customScalarTypeNames.add(name);
+                }
+            }
+            EnumTypeDefinition joinGraphDefinition = null;
+            for (TypeDefinition<?> typeDefinition : typeDefinitionRegistry.types().values()) {
+                String name = typeDefinition.getName();
+                if (name.startsWith("__")) {
+                    continue;
+                }
+                typeDefinitions.put(name, typeDefinition);
+                if (typeDefinition instanceof ObjectTypeDefinition) {
+                    ObjectTypeDefinition objectTypeDefinition = (ObjectTypeDefinition) typeDefinition;
+                    objectTypeFields.put(name, objectTypeDefinition.getFieldDefinitions());
+                    joinTypeDirectives.put(name, objectTypeDefinition.getDirectives(DIRECTIVE_JOIN_TYPE));
+                } else if (typeDefinition instanceof InputObjectTypeDefinition) {
+                    inputTypeFields.put(name, ((InputObjectTypeDefinition) typeDefinition).getInputValueDefinitions());
+                } else if (typeDefinition instanceof EnumTypeDefinition) {
+                    enumTypeNames.add(name);
+                    if (name.equals(TYPE_JOIN_GRAPH)) {
+                        joinGraphDefinition = (EnumTypeDefinition) typeDefinition;
+                    }
+                }
+            }
+
+            Map<String, String> operationTypeNames = new HashMap<>();
+            typeDefinitionRegistry.schemaDefinition().ifPresent(schemaDefinition -> {
+                for (OperationTypeDefinition operation : schemaDefinition.getOperationTypeDefinitions()) {
+                    operationTypeNames.put(operation.getName(), operation.getTypeName().getName());
+                }
+            });
+            String queryTypeName = getRootTypeName(operationTypeNames, "query", TYPE_QUERY);
+            String mutationTypeName = getRootTypeName(operationTypeNames, "mutation", TYPE_MUTATION);
+            String subscriptionTypeName = getRootTypeName(operationTypeNames, "subscription", TYPE_SUBSCRIPTION);
+            for (String rootTypeName : new String[]{queryTypeName, mutationTypeName, subscriptionTypeName}) {
+                if (rootTypeName != null && objectTypeFields.containsKey(rootTypeName)) {
+                    rootTypeNames.add(rootTypeName);
+                }
+            }
+
+            this.joinGraphs = new HashMap<>();
+            if (joinGraphDefinition != null) {
+                for (EnumValueDefinition value : joinGraphDefinition.getEnumValueDefinitions()) {
+                    joinGraphs.put(value.getName(), new JoinGraph(value));
+                }
+            }
+            this.queryFields = getFieldDefinitions(queryTypeName);
+            this.mutationFields = getFieldDefinitions(mutationTypeName);
+        }
+
+        private List<FieldDefinition> getFieldDefinitions(String rootTypeName) {
+            if (rootTypeName == null || !objectTypeFields.containsKey(rootTypeName)) {
+                return Collections.emptyList();
+            }
+            return objectTypeFields.get(rootTypeName);
+        }
+
+        private static String getRootTypeName(Map<String, String> operationTypeNames, String operation,
+                                              String defaultTypeName) {
+            return operationTypeNames.isEmpty() ? defaultTypeName : operationTypeNames.get(operation);
+        }
+
+        private static List<FieldDefinition> getFieldDefinitions(GraphQLObjectType rootType) {
+            List<FieldDefinition> fields = new ArrayList<>();
+            if (rootType != null) {
+                for (GraphQLFieldDefinition field : rootType.getFieldDefinitions()) {
+                    if (field.getDefinition() != null) {
+                        fields.add(field.getDefinition());
+                    }
+                }
+            }
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.graphql;
+
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.DirectiveDefinition;
+import graphql.language.DirectivesContainer;
+import graphql.language.EnumTypeDefinition;
+import graphql.language.EnumValue;
+import graphql.language.EnumValueDefinition;
+import graphql.language.FieldDefinition;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.InputValueDefinition;
+import graphql.language.ListType;
+import graphql.language.NonNullType;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.OperationTypeDefinition;
+import graphql.language.StringValue;
+import graphql.language.Type;
+import graphql.language.TypeDefinition;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import io.xlibb.gateway.exception.ValidationException;
+import io.xlibb.gateway.generator.GatewayCodeGenerator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.xlibb.gateway.generator.CommonUtils.ARGUMENT_GRAPH;
+import static io.xlibb.gateway.generator.CommonUtils.DIRECTIVE_JOIN_FIELD;
+import static io.xlibb.gateway.generator.CommonUtils.DIRECTIVE_JOIN_TYPE;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_JOIN_GRAPH;
+import static io.xlibb.gateway.generator.CommonUtils.TYPE_QUERY;
+
+/**
+ * Validates the type definitions of a supergraph which is loaded without building an executable schema.
+ * <p>
+ * Only the rules the generators depend on are checked: the query type exists, every applied directive and referenced
+ * type is defined, the {@code join__Graph} values carry their names and URLs, and the {@code graph} arguments of the
+ * {@code @join__type} and {@code @join__field} directives refer to those values. Type extensions are not supported.
+ */
+public class SupergraphValidator {
+    private static final String DIRECTIVE_JOIN_GRAPH = "join__graph";
+    private static final Set<String> BUILT_IN_DIRECTIVES = Set.of("skip", "include", "deprecated", "specifiedBy",
+            "oneOf", "defer");
+
+    private SupergraphValidator() {
+    }
+
+    /**
+     * Validates the given supergraph type definitions.
+     *
+     * @param typeDefinitionRegistry the type definitions of the supergraph
+     * @throws ValidationException if the supergraph is not valid
+     */
+    public static void validate(TypeDefinitionRegistry typeDefinitionRegistry) throws ValidationException {
+        validateNoExtensions(typeDefinitionRegistry);
+        validateRootTypes(typeDefinitionRegistry);
+
+        Set<String> joinGraphNames = getJoinGraphNames(typeDefinitionRegistry);
+        if (typeDefinitionRegistry.schemaDefinition().isPresent()) {
+            validateDirectives(typeDefinitionRegistry, typeDefinitionRegistry.schemaDefinition().get(),
+                    joinGraphNames);
+        }
+        for (DirectiveDefinition directiveDefinition : typeDefinitionRegistry.getDirectiveDefinitions().values()) {
+            for (InputValueDefinition argument : directiveDefinition.getInputValueDefinitions()) {
+                validateType(typeDefinitionRegistry, argument.getType());
+            }
+        }
+        for (TypeDefinition<?> typeDefinition : typeDefinitionRegistry.types().values()) {
+            validateDirectives(typeDefinitionRegistry, typeDefinition, joinGraphNames);
+            if (typeDefinition instanceof ObjectTypeDefinition) {
+                for (FieldDefinition field : ((ObjectTypeDefinition) typeDefinition).getFieldDefinitions()) {
+                    validateDirectives(typeDefinitionRegistry, field, joinGraphNames);
+                    validateType(typeDefinitionRegistry, field.getType());
+                    validateInputValues(typeDefinitionRegistry, field.getInputValueDefinitions(), joinGraphNames);
+                }
+            } else if (typeDefinition instanceof InputObjectTypeDefinition) {
+                validateInputValues(typeDefinitionRegistry,
+                        ((InputObjectTypeDefinition) typeDefinition).getInputValueDefinitions(), joinGraphNames);
+            } else if (typeDefinition instanceof EnumTypeDefinition) {
+                for (EnumValueDefinition value : ((EnumTypeDefinition) typeDefinition).getEnumValueDefinitions()) {
+                    validateDirectives(typeDefinitionRegistry, value, joinGraphNames);
+                }
+            }
+        }
+    }
+
+    private static void validateNoExtensions(TypeDefinitionRegistry typeDefinitionRegistry)
+            throws ValidationException {
+        if (!typeDefinitionRegistry.objectTypeExtensions().isEmpty()
+                || !typeDefinitionRegistry.interfaceTypeExtensions().isEmpty()
+                || !typeDefinitionRegistry.unionTypeExtensions().isEmpty()
+                || !typeDefinitionRegistry.enumTypeExtensions().isEmpty()
+                || !typeDefinitionRegistry.scalarTypeExtensions().isEmpty()
+                || !typeDefinitionRegistry.inputObjectTypeExtensions().isEmpty()
+                || !typeDefinitionRegistry.getSchemaExtensionDefinitions().isEmpty()) {
+            throw getValidationException();
+        }
+    }
+
+    private static void validateRootTypes(TypeDefinitionRegistry typeDefinitionRegistry)
+            throws ValidationException {
+        String queryTypeName = TYPE_QUERY;
+        if (typeDefinitionRegistry.schemaDefinition().isPresent()) {
+            queryTypeName = null;
+            for (OperationTypeDefinition operation :
+                    typeDefinitionRegistry.schemaDefinition().get().getOperationTypeDefinitions()) {
+                if (!isObjectType(typeDefinitionRegistry, operation.getTypeName().getName())) {
+                    throw getValidationException();
+                }
+                if (operation.getName().equals("query")) {
+                    queryTypeName = operation.getTypeName().getName();
+                }
+            }
+        }
+        if (queryTypeName == null || !isObjectType(typeDefinitionRegistry, queryTypeName)) {
+            throw getValidationException();
+        }
+    }
+
+    private static Set<String> getJoinGraphNames(TypeDefinitionRegistry typeDefinitionRegistry)
+            throws ValidationException {
+        Set<String> joinGraphNames = new HashSet<>();
+        TypeDefinition<?> joinGraph = typeDefinitionRegistry.types().get(TYPE_JOIN_GRAPH);
+        if (joinGraph == null) {
+            return joinGraphNames;
+        }
+        if (!(joinGraph instanceof EnumTypeDefinition)) {
+            throw getValidationException();
+        }
+        for (EnumValueDefinition value : ((EnumTypeDefinition) joinGraph).getEnumValueDefinitions()) {
+            // The join graph is read from the first directive of the value, as in the executable schema path.
+            List<Directive> directives = value.getDirectives();
+            if (directives.isEmpty() || !directives.get(0).getName().equals(DIRECTIVE_JOIN_GRAPH)
+                    || !isStringArgument(directives.get(0), "name") || !isStringArgument(directives.get(0), "url")) {
+                throw getValidationException();
+            }
+            joinGraphNames.add(value.getName());
+        }
+        return joinGraphNames;
+    }
+
+    private static boolean isStringArgument(Directive directive, String argumentName) {
+        Argument argument = directive.getArgument(argumentName);
+        return argument != null && argument.getValue() instanceof StringValue;
+    }
+
+    private static void validateInputValues(TypeDefinitionRegistry typeDefinitionRegistry,
+                                            List<InputValueDefinition> inputValues, Set<String> joinGraphNames)
+            throws ValidationException {
+        for (InputValueDefinition inputValue : inputValues) {
+            validateDirectives(typeDefinitionRegistry, inputValue, joinGraphNames);
+            validateType(typeDefinitionRegistry, inputValue.getType());
+        }
+    }
+
+    private static void validateDirectives(TypeDefinitionRegistry typeDefinitionRegistry,
+                                           DirectivesContainer<?> container, Set<String> joinGraphNames)
+            throws ValidationException {
+        for (Directive directive : container.getDirectives()) {
+            String name = directive.getName();
+            if (!BUILT_IN_DIRECTIVES.contains(name) && typeDefinitionRegistry.getDirectiveDefinition(name).isEmpty()) {
+                throw getValidationException();
+            }
+            if (name.equals(DIRECTIVE_JOIN_TYPE) || name.equals(DIRECTIVE_JOIN_FIELD)) {
+                Argument graph = directive.getArgument(ARGUMENT_GRAPH);
+                Value<?> value = graph == null ? null : graph.getValue();
+                if (value != null && !(value instanceof EnumValue
+                        && joinGraphNames.contains(((EnumValue) value).getName()))) {
+                    throw getValidationException();
+                }
+            }
+        }
+    }
+
+    private static void validateType(TypeDefinitionRegistry typeDefinitionRegistry, Type<?> type)
+            throws ValidationException {
+        if (type instanceof NonNullType) {
+            validateType(typeDefinitionRegistry, ((NonNullType) type).getType());
+        } else if (type instanceof ListType) {
+            validateType(typeDefinitionRegistry, ((ListType) type).getType());
+        } else if (!(type instanceof TypeName) || !isDefinedType(typeDefinitionRegistry, ((TypeName) type).getName())) {
+            throw getValidationException();
+        }
+    }
+
+    private static boolean isDefinedType(TypeDefinitionRegistry typeDefinitionRegistry, String name) {
+        return typeDefinitionRegistry.types().containsKey(name) || typeDefinitionRegistry.scalars().containsKey(name);
+    }
+
+    private static boolean isObjectType(TypeDefinitionRegistry typeDefinitionRegistry, String name) {
+        return typeDefinitionRegistry.types().get(name) instanceof ObjectTypeDefinition;
+    }
+
+    private static ValidationException getValidationException() {
+        return new ValidationException(GatewayCodeGenerator.ERROR_INVALID_SCHEMA);
+    }
+}
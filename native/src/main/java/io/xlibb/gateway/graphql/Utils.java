@@ -33,7 +33,8 @@ import io.xlibb.gateway.generator.GatewayCodeGenerator;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Class to hold the utility methods.
@@ -71,25 +72,53 @@ public class Utils {
 
     public static final String ESCAPE_PATTERN = "([\\[\\]\\\\?!<>@#&~`*\\-=^+();:\\/\\_{}\\s|.$])";
 
+    private static final Set<String> BAL_KEYWORD_SET = Set.of(KEYWORDS);
+    private static final Pattern NUMERIC_IDENTIFIER = Pattern.compile("\\b[0-9]*\\b");
+    private static final Pattern VALID_IDENTIFIER = Pattern.compile("\\b[_a-zA-Z][_a-zA-Z0-9]*\\b");
+    private static final Pattern ESCAPE_CHARACTERS = Pattern.compile(ESCAPE_PATTERN);
+
+    // The parser, the generator and the wiring hold no state of a schema, so they are shared between schemas
+    // instead of being rebuilt for every generation in a long running JVM.
+    private static final SchemaParser SCHEMA_PARSER = new SchemaParser();
+    private static final SchemaGenerator SCHEMA_GENERATOR = new SchemaGenerator();
+    private static final RuntimeWiring RUNTIME_WIRING = getRuntimeWiring();
+
     public static GraphQLSchema getGraphqlSchema(String schema) throws ValidationException {
         try {
-            SchemaParser schemaParser = new SchemaParser();
-            TypeDefinitionRegistry typeRegistry;
-            typeRegistry = schemaParser.parse(schema);
-
-            // TODO: Find an alternative way for define custom scalar types
-            GraphQLScalarType joinFieldSet = ExtendedScalars.newAliasedScalar("join__FieldSet")
-                    .aliasedScalar(Scalars.GraphQLString).build();
-            GraphQLScalarType linkImport = ExtendedScalars.newAliasedScalar("link__Import")
-                    .aliasedScalar(Scalars.GraphQLString).build();
-
-            return new SchemaGenerator().makeExecutableSchema(typeRegistry,
-                    RuntimeWiring.newRuntimeWiring().scalar(joinFieldSet).scalar(linkImport).build());
+            TypeDefinitionRegistry typeRegistry = SCHEMA_PARSER.parse(schema);
+            return SCHEMA_GENERATOR.makeExecutableSchema(typeRegistry, RUNTIME_WIRING);
         } catch (SchemaProblem e) {
             throw new ValidationException(GatewayCodeGenerator.ERROR_INVALID_SCHEMA);
         }
     }
 
+    /**
+     * Parses the given supergraph into type definitions and validates them, without building an executable schema.
+     *
+     * @param schema the supergraph SDL
+     * @return the validated type definitions of the supergraph
+     * @throws ValidationException if the supergraph cannot be parsed or is not valid
+     */
+    public static TypeDefinitionRegistry getTypeDefinitionRegistry(String schema) throws ValidationException {
+        TypeDefinitionRegistry typeRegistry;
+        try {
+            typeRegistry = SCHEMA_PARSER.parse(schema);
+        } catch (SchemaProblem e) {
+            throw new ValidationException(GatewayCodeGenerator.ERROR_INVALID_SCHEMA);
+        }
+        SupergraphValidator.validate(typeRegistry);
+        return typeRegistry;
+    }
+
+    private static RuntimeWiring getRuntimeWiring() {
+        // TODO: Find an alternative way for define custom scalar types
+        GraphQLScalarType joinFieldSet = ExtendedScalars.newAliasedScalar("join__FieldSet")
+                .aliasedScalar(Scalars.GraphQLString).build();
+        GraphQLScalarType linkImport = ExtendedScalars.newAliasedScalar("link__Import")
+                .aliasedScalar(Scalars.GraphQLString).build();
+        return RuntimeWiring.newRuntimeWiring().scalar(joinFieldSet).scalar(linkImport).build();
+    }
+
     /**
      * This method will escape special characters used in method names and identifiers.
      *
@@ -98,25 +127,22 @@ public class Utils {
      */
     public static String escapeIdentifier(String identifier) {
 
-        if (identifier.matches("\\b[0-9]*\\b")) {
+        if (NUMERIC_IDENTIFIER.matcher(identifier).matches()) {
             return "'" + identifier;
-        } else if (!identifier.matches("\\b[_a-zA-Z][_a-zA-Z0-9]*\\b") ||
-                BAL_KEYWORDS.stream().anyMatch(identifier::equals)) {
+        } else if (!VALID_IDENTIFIER.matcher(identifier).matches() || BAL_KEYWORD_SET.contains(identifier)) {
 
             // TODO: Remove this `if`. Refer - https://github.com/ballerina-platform/ballerina-lang/issues/23045
             if (identifier.equals("error")) {
                 identifier = "_error";
             } else {
-                identifier = identifier.replaceAll(ESCAPE_PATTERN, "\\\\$1");
+                identifier = ESCAPE_CHARACTERS.matcher(identifier).replaceAll("\\\\$1");
                 if (identifier.endsWith("?")) {
                     if (identifier.charAt(identifier.length() - 2) == '\\') {
                         StringBuilder stringBuilder = new StringBuilder(identifier);
                         stringBuilder.deleteCharAt(identifier.length() - 2);
                         identifier = stringBuilder.toString();
                     }
-                    if (BAL_KEYWORDS.stream().anyMatch(
-                            Optional.ofNullable(identifier).filter(sStr -> sStr.length() != 0)
-                                    .map(sStr -> sStr.substring(0, sStr.length() - 1)).orElse(identifier)::equals)) {
+                    if (BAL_KEYWORD_SET.contains(identifier.substring(0, identifier.length() - 1))) {
                         identifier = "'" + identifier;
                     } else {
                         return identifier;
@@ -176,23 +202,35 @@ public class Utils {
         } else if (isEnumType(graphQLSchema, graphqlTypeName)) {
             ballerinaTypeName = BALLERINA_STRING_TYPE;
         } else {
-            switch (graphqlTypeName) {
-                case GRAPHQL_ID_TYPE:
-                case GRAPHQL_STRING_TYPE:
-                    ballerinaTypeName = BALLERINA_STRING_TYPE;
-                    break;
-                case GRAPHQL_INT_TYPE:
-                    ballerinaTypeName = BALLERINA_INT_TYPE;
-                    break;
-                case GRAPHQL_FLOAT_TYPE:
-                    ballerinaTypeName = BALLERINA_FLOAT_TYPE;
-                    break;
-                case GRAPHQL_BOOLEAN_TYPE:
-                    ballerinaTypeName = BALLERINA_BOOLEAN_TYPE;
-                    break;
-                default:
-                    ballerinaTypeName = graphqlTypeName;
-            }
+            ballerinaTypeName = getPrimitiveBallerinaTypeName(graphqlTypeName);
+        }
+        return ballerinaTypeName;
+    }
+
+    /**
+     * Gets the Ballerina type name for a given GraphQL type name which is not a custom scalar or an enum type.
+     *
+     * @param graphqlTypeName the GraphQL type name
+     * @return the Ballerina type name of a primitive scalar type, otherwise the GraphQL type name
+     */
+    public static String getPrimitiveBallerinaTypeName(String graphqlTypeName) {
+        String ballerinaTypeName;
+        switch (graphqlTypeName) {
+            case GRAPHQL_ID_TYPE:
+            case GRAPHQL_STRING_TYPE:
+                ballerinaTypeName = BALLERINA_STRING_TYPE;
+                break;
+            case GRAPHQL_INT_TYPE:
+                ballerinaTypeName = BALLERINA_INT_TYPE;
+                break;
+            case GRAPHQL_FLOAT_TYPE:
+                ballerinaTypeName = BALLERINA_FLOAT_TYPE;
+                break;
+            case GRAPHQL_BOOLEAN_TYPE:
+                ballerinaTypeName = BALLERINA_BOOLEAN_TYPE;
+                break;
+            default:
+                ballerinaTypeName = graphqlTypeName;
         }
         return ballerinaTypeName;
     }
@@ -18,8 +18,8 @@
 
 package io.xlibb.gateway.graphql.components;
 
+import graphql.language.Directive;
 import graphql.language.FieldDefinition;
-import graphql.schema.GraphQLAppliedDirective;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 
 import java.util.List;
@@ -37,7 +37,7 @@ public class FieldData {
 
 
     FieldData(String fieldName, FieldDefinition fieldDefinition,
-              List<GraphQLAppliedDirective> joinTypeDirectivesOnParent)
+              List<Directive> joinTypeDirectivesOnParent)
             throws GatewayGenerationException {
         this.fieldName = fieldName;
         this.type = getTypeFromFieldDefinition(fieldDefinition);
@@ -32,10 +32,10 @@ public class JoinGraph {
     private final String url;
 
     public JoinGraph(GraphQLEnumValueDefinition element) throws ValidationException {
-        EnumValueDefinition definition = element.getDefinition();
-        if (definition == null) {
-            throw new ValidationException("Enum value definition cannot be null");
-        }
+        this(getEnumValueDefinition(element));
+    }
+
+    public JoinGraph(EnumValueDefinition definition) {
         var node = definition.getChildren().get(0);
         this.name = ((StringValue) ((Directive) node).getArgument("name").getValue()).getValue();
         this.url = ((StringValue) ((Directive) node).getArgument("url").getValue()).getValue();
@@ -48,4 +48,13 @@ public class JoinGraph {
     public String getUrl() {
         return url;
     }
+
+    private static EnumValueDefinition getEnumValueDefinition(GraphQLEnumValueDefinition element)
+            throws ValidationException {
+        EnumValueDefinition definition = element.getDefinition();
+        if (definition == null) {
+            throw new ValidationException("Enum value definition cannot be null");
+        }
+        return definition;
+    }
 }
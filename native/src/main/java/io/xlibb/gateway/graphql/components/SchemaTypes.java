@@ -18,6 +18,7 @@
 
 package io.xlibb.gateway.graphql.components;
 
+import graphql.language.Directive;
 import graphql.language.FieldDefinition;
 import graphql.schema.GraphQLAppliedDirective;
 import graphql.schema.GraphQLFieldDefinition;
@@ -29,9 +30,11 @@ import io.xlibb.gateway.graphql.SpecReader;
 import io.xlibb.gateway.graphql.Utils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -45,7 +48,33 @@ public class SchemaTypes {
 
         this.fieldDataMap = new HashMap<>();
         for (String name : names) {
-            fieldDataMap.put(name, getFieldsOfType(name, graphQLSchema));
+            List<Directive> joinTypeDirectives = SpecReader.getObjectTypeDirectives(graphQLSchema, name).stream()
+                    .filter(directive -> directive.getName().equals(CommonUtils.DIRECTIVE_JOIN_TYPE))
+                    .map(GraphQLAppliedDirective::getDefinition)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            fieldDataMap.put(name, getFieldsOfType(
+                    SpecReader.getObjectTypeFieldDefinitionMap(graphQLSchema, name), joinTypeDirectives));
+        }
+    }
+
+    /**
+     * Creates the field data of the given object types from their definitions.
+     *
+     * @param fieldDefinitions   field definitions of each custom defined object type, in declaration order
+     * @param joinTypeDirectives {@code @join__type} directives applied on each custom defined object type
+     * @throws GatewayGenerationException if a field type is not supported
+     */
+    public SchemaTypes(Map<String, List<FieldDefinition>> fieldDefinitions,
+                       Map<String, List<Directive>> joinTypeDirectives) throws GatewayGenerationException {
+        this.fieldDataMap = new HashMap<>();
+        for (Map.Entry<String, List<FieldDefinition>> entry : fieldDefinitions.entrySet()) {
+            Map<String, FieldDefinition> fieldDefinitionMap = new HashMap<>();
+            for (FieldDefinition fieldDefinition : entry.getValue()) {
+                fieldDefinitionMap.put(Utils.escapeIdentifier(fieldDefinition.getName()), fieldDefinition);
+            }
+            fieldDataMap.put(entry.getKey(), getFieldsOfType(fieldDefinitionMap,
+                    joinTypeDirectives.getOrDefault(entry.getKey(), Collections.emptyList())));
         }
     }
 
@@ -60,22 +89,17 @@ public class SchemaTypes {
     }
 
     /**
-     * Return the list of fields of the given type.
+     * Return the list of fields of a type which are resolved by a client.
      *
-     * @param typeName      Type name
-     * @param graphQLSchema GraphQL schema
+     * @param fieldDefinitions   map of escaped field names to field definitions of the type
+     * @param joinTypeDirectives {@code @join__type} directives applied on the type
      * @return List of fields
      */
-    private List<FieldData> getFieldsOfType(String typeName, GraphQLSchema graphQLSchema)
+    private static List<FieldData> getFieldsOfType(Map<String, FieldDefinition> fieldDefinitions,
+                                                   List<Directive> joinTypeDirectives)
             throws GatewayGenerationException {
         List<FieldData> fields = new ArrayList<>();
-
-        List<GraphQLAppliedDirective> joinTypeDirectives =
-                SpecReader.getObjectTypeDirectives(graphQLSchema, typeName).stream().filter(
-                        directive -> directive.getName().equals(CommonUtils.DIRECTIVE_JOIN_TYPE)
-                ).collect(Collectors.toList());
-        for (Map.Entry<String, FieldDefinition> entry :
-                SpecReader.getObjectTypeFieldDefinitionMap(graphQLSchema, typeName).entrySet()) {
+        for (Map.Entry<String, FieldDefinition> entry : fieldDefinitions.entrySet()) {
             FieldData field = new FieldData(entry.getKey(), entry.getValue(), joinTypeDirectives);
             if (field.getClient() != null) {
                 fields.add(field);
@@ -0,0 +1,114 @@
+import ballerina/time;
+
+// Time to live in seconds of the cached fields of entities, by typename. Entities of types not listed here are
+// always fetched from the subgraphs, so the cache is disabled by default.
+configurable map<decimal> ENTITY_CACHE_TTLS = {};
+
+// Maximum number of entity fields cached. The least recently used fields are evicted first.
+configurable int ENTITY_CACHE_SIZE = 10000;
+
+final EntityCache entityCache = new (ENTITY_CACHE_SIZE);
+
+type CachedField record {|
+    string key;
+    json value;
+    decimal expiresAt;
+    // Generation of the type when the field was cached.
+    int generation;
+|};
+
+type CachedValue record {|
+    json value;
+|};
+
+// Fields of entities fetched with `_entities` requests, shared across requests.
+// A field is cached by the type, key value, subgraph and selection of the field. Fields expire after the TTL of
+// their type. Invalidating a type increments its generation, so the fields cached before are dropped when read.
+// The entries are kept in the order they were used, as maps preserve the insertion order.
+isolated class EntityCache {
+
+    private final map<CachedField> fields = {};
+    private final map<int> generations = {};
+    private final int capacity;
+
+    isolated function init(int capacity) {
+        self.capacity = int:max(capacity, 0);
+    }
+
+    isolated function get(string typename, string key) returns CachedValue? {
+        lock {
+            CachedField? cached = self.fields[key];
+            if cached is () {
+                return ();
+            }
+            _ = self.fields.remove(key);
+            if cached.expiresAt < time:monotonicNow() || cached.generation != (self.generations[typename] ?: 0) {
+                return ();
+            }
+            self.fields[key] = cached;
+            return {value: cached.value.clone()};
+        }
+    }
+
+    isolated function put(string typename, string key, json value, decimal ttl) {
+        lock {
+            if self.capacity == 0 {
+                return;
+            }
+            _ = self.fields.removeIfHasKey(key);
+            if self.fields.length() >= self.capacity {
+                record {|CachedField value;|}? leastRecentlyUsed = self.fields.iterator().next();
+                if leastRecentlyUsed !is () {
+                    _ = self.fields.remove(leastRecentlyUsed.value.key);
+                }
+            }
+            self.fields[key] = {
+                key,
+                value: value.clone(),
+                expiresAt: time:monotonicNow() + ttl,
+                generation: self.generations[typename] ?: 0
+            };
+        }
+    }
+
+    isolated function invalidate(string typename) {
+        lock {
+            self.generations[typename] = (self.generations[typename] ?: 0) + 1;
+        }
+    }
+}
+
+// Returns the TTL of the cached fields of the given type, or nil if the type is not cached.
+isolated function getEntityCacheTtl(string typename) returns decimal? {
+    return ENTITY_CACHE_TTLS[typename];
+}
+
+isolated function getEntityCacheKey(string typename, string keyValue, string clientName, string selection)
+        returns string {
+    return string `${typename}:${keyValue}:${clientName}:${selection}`;
+}
+
+// Returns the fields of an entity fetched by the given fetch from the entity cache, or nil if any field is missed.
+isolated function getCachedEntity(FetchNode node, string keyValue) returns map<json>? {
+    map<json> entity = {};
+    foreach int i in 0 ..< node.fieldNames.length() {
+        string key = getEntityCacheKey(node.typename, keyValue, node.'client, node.fieldSelections[i]);
+        CachedValue? cached = entityCache.get(node.typename, key);
+        if cached is () {
+            return ();
+        }
+        entity[node.fieldNames[i]] = cached.value;
+    }
+    return entity;
+}
+
+// Cache the fields of an entity fetched by the given fetch.
+isolated function cacheEntity(FetchNode node, string keyValue, map<json> entity, decimal ttl) {
+    foreach int i in 0 ..< node.fieldNames.length() {
+        string fieldName = node.fieldNames[i];
+        if entity.hasKey(fieldName) {
+            string key = getEntityCacheKey(node.typename, keyValue, node.'client, node.fieldSelections[i]);
+            entityCache.put(node.typename, key, entity.get(fieldName), ttl);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import ballerina/graphql;
+
+// Key of the entity loader of an operation in the context of the request.
+const ENTITY_LOADER = "entityLoader";
+
+// Fields of entities fetched with `_entities` requests while resolving an operation, shared by the resolvers of
+// every root field of the operation. A field is loaded by the type, key value, subgraph and selection of the field,
+// so root fields selected side by side, or aliased, fetch the fields of an entity from a subgraph once.
+// A loader is created for each request and dropped with it, so the fields never expire.
+isolated class EntityLoader {
+
+    private final map<json> fields = {};
+
+    isolated function get(string key) returns CachedValue? {
+        lock {
+            if !self.fields.hasKey(key) {
+                return ();
+            }
+            return {value: self.fields.get(key).clone()};
+        }
+    }
+
+    isolated function put(string key, json value) {
+        lock {
+            self.fields[key] = value.clone();
+        }
+    }
+}
+
+// Returns the entity loader of the operation of a request, or nil if the context has none.
+isolated function getEntityLoader(graphql:Context context) returns EntityLoader? {
+    any|error loader = context.get(ENTITY_LOADER);
+    return loader is EntityLoader ? loader : ();
+}
+
+// Returns the fields of an entity fetched by the given fetch earlier in the operation, or nil if any field is missed.
+isolated function getLoadedEntity(EntityLoader loader, FetchNode node, string keyValue) returns map<json>? {
+    map<json> entity = {};
+    foreach int i in 0 ..< node.fieldNames.length() {
+        string key = getEntityCacheKey(node.typename, keyValue, node.'client, node.fieldSelections[i]);
+        CachedValue? loaded = loader.get(key);
+        if loaded is () {
+            return ();
+        }
+        entity[node.fieldNames[i]] = loaded.value;
+    }
+    return entity;
+}
+
+// Keep the fields of an entity fetched by the given fetch for the rest of the operation.
+isolated function loadEntity(EntityLoader loader, FetchNode node, string keyValue, map<json> entity) {
+    foreach int i in 0 ..< node.fieldNames.length() {
+        string fieldName = node.fieldNames[i];
+        if entity.hasKey(fieldName) {
+            string key = getEntityCacheKey(node.typename, keyValue, node.'client, node.fieldSelections[i]);
+            loader.put(key, entity.get(fieldName));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import ballerina/graphql;
+
+// The fetches needed to resolve a root field, as a DAG.
+// The root fetch queries the root field from its subgraph. Every other fetch is an `_entities` request for the
+// entities found at its flatten path, which depends on the fetch whose result holds those entities.
+// The plan is built in a single pass over the selection of the root field, using the per-subgraph ownership of the
+// types generated in `ownership`, so nothing is classified while resolving.
+public class FetchPlan {
+
+    private final FetchNode[] nodes = [];
+
+    // Ids of the fetches depending on each fetch, indexed by the id of the fetch.
+    private final int[][] dependents = [];
+
+    // Ids of the entity fetches by their parent type, client and flatten path.
+    private final map<int> fetchIds = {};
+
+    // Object types selected by the plan, in the order they are found.
+    private final string[] typenames = [];
+
+    private final readonly & table<QueryPlanEntry> key(typename) queryPlan;
+    private final readonly & table<SubgraphOwnership> key(typename, 'client) ownership;
+
+    public isolated function init(graphql:Field 'field, string clientName,
+            readonly & table<QueryPlanEntry> key(typename) queryPlan,
+            readonly & table<SubgraphOwnership> key(typename, 'client) ownership) {
+        self.queryPlan = queryPlan;
+        self.ownership = ownership;
+
+        string? typename = getOfType('field.getType()).name;
+        // Panic if the unwrapped type has no name.
+        if typename is () {
+            panic error("Error: Invalid field object");
+        }
+        int id = self.addNode({
+            id: 0,
+            'client: clientName,
+            typename,
+            flattenPath: [],
+            fieldNames: [],
+            fieldSelections: [],
+            dependsOn: (),
+            selection: "",
+            fields: ['field]
+        });
+        self.nodes[id].selection = self.getSubfieldSelection('field, typename, clientName, id);
+    }
+
+    // Returns the fetches of the plan, indexed by their ids.
+    public isolated function getNodes() returns FetchNode[] {
+        return self.nodes;
+    }
+
+    // Returns the fetches depending on the given fetch.
+    public isolated function getDependents(int id) returns FetchNode[] {
+        return from int dependent in self.dependents[id]
+            select self.nodes[dependent];
+    }
+
+    // Returns the selection of the root field sent with the root fetch.
+    public isolated function getRootSelection() returns string {
+        return self.nodes[0].selection;
+    }
+
+    // Returns the object types selected by the plan, i.e. the type of the root field and the types of every object
+    // selected under it, whichever subgraph they are fetched from.
+    public isolated function getTypenames() returns string[] {
+        return self.typenames.clone();
+    }
+
+    // Returns the key of the given type in the given subgraph, used as the representation of its entities.
+    public isolated function getKey(string typename, string clientName) returns string? {
+        SubgraphOwnership? owner = self.ownership[typename, clientName];
+        return owner is SubgraphOwnership ? owner.key : ();
+    }
+
+    // Returns the plan as a string with a line per fetch, e.g.
+    // `#1 missions Astronaut at @ after #0: missions { id designation }`.
+    public isolated function toString() returns string {
+        string[] lines = [];
+        foreach FetchNode node in self.nodes {
+            int? dependsOn = node.dependsOn;
+            string dependency = dependsOn is int ? string ` after #${dependsOn}` : "";
+            string path = node.flattenPath.length() > 0 ? ".".'join(...node.flattenPath) : "root";
+            string fetch = string `#${node.id} ${node.'client} ${node.typename} at ${path}${dependency}`;
+            lines.push(string `${fetch}: ${node.selection}`);
+        }
+        return "\n".'join(...lines);
+    }
+
+    private isolated function addNode(FetchNode node) returns int {
+        self.nodes.push(node);
+        self.dependents.push([]);
+        int? dependsOn = node.dependsOn;
+        if dependsOn is int {
+            self.dependents[dependsOn].push(node.id);
+        }
+        return node.id;
+    }
+
+    // Add a field owned by another subgraph than the fetch of its parent to the fetch of the entities of that
+    // subgraph at the path of the field. Sibling fields owned by the same subgraph share a single fetch, whose
+    // selection is the union of their selections.
+    private isolated function addFetch(graphql:Field 'field, string parentType, int parentId) {
+        string clientName = self.queryPlan.get(parentType).fields.get('field.getName()).'client;
+        string[] flattenPath = convertPathToStringArray('field.getPath()).slice(1);
+        string fieldName = flattenPath.pop();
+        string fetchKey = string `${parentType}:${clientName}:${".".'join(...flattenPath)}`;
+
+        int id;
+        int? existingId = self.fetchIds[fetchKey];
+        if existingId is int {
+            id = existingId;
+            self.nodes[id].fieldNames.push(fieldName);
+            self.nodes[id].fields.push('field);
+        } else {
+            id = self.addNode({
+                id: self.nodes.length(),
+                'client: clientName,
+                typename: parentType,
+                flattenPath,
+                fieldNames: [fieldName],
+                fieldSelections: [],
+                dependsOn: parentId,
+                selection: "",
+                fields: ['field]
+            });
+            self.fetchIds[fetchKey] = id;
+        }
+
+        string fieldSelection = 'field.getName();
+        string? typename = getOfType('field.getType()).name;
+        if 'field.getSubfields() !is () && typename is string {
+            string subfieldSelection = self.getSubfieldSelection('field, typename, clientName, id);
+            fieldSelection = string `${'field.getName()} { ${subfieldSelection} }`;
+        }
+        self.nodes[id].fieldSelections.push(fieldSelection);
+        string selection = self.nodes[id].selection;
+        self.nodes[id].selection = selection == "" ? fieldSelection : string `${selection} ${fieldSelection}`;
+    }
+
+    // Get the selection of the subfields of a field fetched by the given fetch. Subfields owned by another subgraph
+    // are added as fetches depending on it, and their keys are selected to build the representations.
+    private isolated function getSubfieldSelection(graphql:Field 'field, string typename, string clientName,
+            int fetchId) returns string {
+        if self.typenames.indexOf(typename) is () {
+            self.typenames.push(typename);
+        }
+        string[] selections = [];
+        graphql:Field[] subfields = 'field.getSubfields() ?: [];
+        foreach graphql:Field subfield in subfields {
+            string? subfieldType = getOfType(subfield.getType()).name;
+            if !self.isOwnedBy(typename, subfield.getName(), clientName) {
+                self.addFetch(subfield, typename, fetchId);
+                string ownerClient = self.queryPlan.get(typename).fields.get(subfield.getName()).'client;
+                string? key = self.getKey(typename, ownerClient);
+                if key is string && selections.indexOf(key) is () {
+                    selections.push(key);
+                }
+            } else if subfield.getSubfields() is () || subfieldType is () {
+                if selections.indexOf(subfield.getName()) is () {
+                    selections.push(subfield.getName());
+                }
+            } else {
+                string subfieldSelection = self.getSubfieldSelection(subfield, subfieldType, clientName, fetchId);
+                selections.push(string `${subfield.getName()} { ${subfieldSelection} }`);
+            }
+        }
+
+        // Select the key even it is not requested if a key exists.
+        string? key = self.getKey(typename, clientName);
+        if key is string && selections.indexOf(key) is () {
+            selections.push(key);
+        }
+        return " ".'join(...selections);
+    }
+
+    // Check whether the field is the key, because key SHOULD be resolvable from the client,
+    // or owned by the client.
+    private isolated function isOwnedBy(string typename, string fieldName, string clientName) returns boolean {
+        SubgraphOwnership? owner = self.ownership[typename, clientName];
+        return owner is SubgraphOwnership && (owner.key == fieldName || owner.fields.indexOf(fieldName) !is ());
+    }
+}
@@ -0,0 +1,155 @@
+import ballerina/crypto;
+import ballerina/graphql;
+import ballerina/http;
+
+// Maximum number of documents registered by clients in the persisted query store. The least recently used
+// documents are evicted first. The preloaded documents are never evicted.
+configurable int PERSISTED_QUERY_STORE_SIZE = 1000;
+
+// Whether only the preloaded documents are executed. Documents sent by clients are not registered.
+configurable boolean PERSISTED_QUERIES_ONLY = false;
+
+const PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+const PERSISTED_QUERY_NOT_ALLOWED = "PersistedQueryNotAllowed";
+const PERSISTED_QUERY_HASH_MISMATCH = "provided sha does not match query";
+
+type PersistedDocument record {|
+    string hash;
+    string document;
+|};
+
+final PersistedQueryStore persistedQueryStore = check new (PERSISTED_QUERY_STORE_SIZE, PERSISTED_QUERIES);
+
+// Documents of automatic persisted queries, by the sha256 hash of the document as a hex string.
+// The entries are kept in the order they were used, as maps preserve the insertion order.
+isolated class PersistedQueryStore {
+
+    private final map<PersistedDocument> documents = {};
+    private final readonly & map<string> preloaded;
+    private final int capacity;
+
+    // The preloaded documents are given as the JSON text of a list of documents or of a persisted query manifest,
+    // i.e. `{"operations": [{"body": "<document>"}, ...]}`.
+    isolated function init(int capacity, string preloadedDocuments) returns error? {
+        self.capacity = int:max(capacity, 0);
+        json preloadedJson = check preloadedDocuments.fromJsonString();
+        json operations = preloadedJson is map<json> ? preloadedJson["operations"] : preloadedJson;
+        if operations !is json[] {
+            return error("Invalid persisted queries: expected a list of documents or a persisted query manifest");
+        }
+        map<string> preloaded = {};
+        foreach json operation in operations {
+            json document = operation is map<json> ? operation["body"] : operation;
+            if document !is string {
+                return error("Invalid persisted queries: expected the document of an operation as a string");
+            }
+            preloaded[getDocumentHash(document)] = document;
+        }
+        self.preloaded = preloaded.cloneReadOnly();
+    }
+
+    isolated function get(string hash) returns string? {
+        string? document = self.preloaded[hash];
+        if document is string {
+            return document;
+        }
+        lock {
+            PersistedDocument? registered = self.documents.removeIfHasKey(hash);
+            if registered is () {
+                return ();
+            }
+            self.documents[hash] = registered;
+            return registered.document;
+        }
+    }
+
+    isolated function isPreloaded(string hash) returns boolean {
+        return self.preloaded.hasKey(hash);
+    }
+
+    isolated function register(string hash, string document) {
+        if self.preloaded.hasKey(hash) {
+            return;
+        }
+        lock {
+            if self.capacity == 0 {
+                return;
+            }
+            _ = self.documents.removeIfHasKey(hash);
+            if self.documents.length() >= self.capacity {
+                record {|PersistedDocument value;|}? leastRecentlyUsed = self.documents.iterator().next();
+                if leastRecentlyUsed !is () {
+                    _ = self.documents.remove(leastRecentlyUsed.value.hash);
+                }
+            }
+            self.documents[hash] = {hash, document};
+        }
+    }
+}
+
+// Initialize the context of a request, resolving the document of an automatic persisted query before the listener
+// parses the request. The context holds the entity loader and the root field batcher shared by the root fields of
+// the operation.
+isolated function initContext(http:RequestContext requestContext, http:Request request) returns graphql:Context|error {
+    check resolvePersistedQuery(request);
+    graphql:Context context = new;
+    context.set(ENTITY_LOADER, new EntityLoader());
+    context.set(ROOT_FIELD_BATCHER, new RootFieldBatcher());
+    return context;
+}
+
+// Clients send the sha256 hash of the document in `extensions.persistedQuery.sha256Hash` of a POST request, with or
+// without the document. A document sent with its hash is registered, and a document sent without it is looked up by
+// its hash and set to the request. Clients resend the document with the hash if it is not found.
+isolated function resolvePersistedQuery(http:Request request) returns error? {
+    json|http:ClientError payload = request.getJsonPayload();
+    if payload !is map<json> {
+        if PERSISTED_QUERIES_ONLY {
+            return checkQueryParameter(request);
+        }
+        // Invalid payloads are reported by the listener.
+        return;
+    }
+    json extensions = payload["extensions"];
+    json persistedQuery = extensions is map<json> ? extensions["persistedQuery"] : ();
+    json hash = persistedQuery is map<json> ? persistedQuery["sha256Hash"] : ();
+    json document = payload["query"];
+
+    if hash !is string {
+        if PERSISTED_QUERIES_ONLY && document is string && !persistedQueryStore.isPreloaded(getDocumentHash(document)) {
+            return error(PERSISTED_QUERY_NOT_ALLOWED);
+        }
+        return;
+    }
+    if document is string {
+        if getDocumentHash(document) != hash {
+            return error(PERSISTED_QUERY_HASH_MISMATCH);
+        }
+        if PERSISTED_QUERIES_ONLY && !persistedQueryStore.isPreloaded(hash) {
+            return error(PERSISTED_QUERY_NOT_ALLOWED);
+        }
+        persistedQueryStore.register(hash, document);
+        return;
+    }
+
+    string? persistedDocument = persistedQueryStore.get(hash);
+    if persistedDocument is () {
+        return error(PERSISTED_QUERY_NOT_FOUND);
+    }
+    payload["query"] = persistedDocument;
+    request.setJsonPayload(payload);
+}
+
+// Requests without a JSON payload cannot be resolved from the store, as GET requests cannot be rewritten. When only
+// the preloaded documents are executed, only the preloaded documents sent as the `query` parameter of a GET request
+// are allowed, and any other request is rejected.
+isolated function checkQueryParameter(http:Request request) returns error? {
+    string? document = request.method == http:HTTP_GET ? request.getQueryParamValue("query") : ();
+    if document is () || !persistedQueryStore.isPreloaded(getDocumentHash(document)) {
+        return error(PERSISTED_QUERY_NOT_ALLOWED);
+    }
+}
+
+isolated function getDocumentHash(string document) returns string {
+    return crypto:hashSha256(document.toBytes()).toBase16();
+}
@@ -1,10 +1,5 @@
 import ballerina/graphql;
 
-public type UnresolvableField record {|
-    string parent;
-    graphql:Field 'field;
-|};
-
 public type FieldRecord record {|
     readonly string name;
     string 'type;
@@ -17,7 +12,52 @@ public type QueryPlanEntry record {|
     readonly & table<FieldRecord> key(name) fields;
 |};
 
+// Part of a type owned by a subgraph: its key in the subgraph and the fields the subgraph resolves.
+public type SubgraphOwnership record {|
+    readonly string typename;
+    readonly string 'client;
+    string? key;
+    string[] fields;
+|};
+
+// A fetch of a `FetchPlan`.
+public type FetchNode record {|
+    // Index of the fetch in the plan.
+    int id;
+    // Subgraph the fetch is sent to.
+    string 'client;
+    // Type of the entities fetched, or the type of the root field for the root fetch.
+    string typename;
+    // Path to the entities in the result of the root field. `@` marks the elements of a list.
+    string[] flattenPath;
+    // Fields composed to the entities, empty for the root fetch.
+    string[] fieldNames;
+    // Selection of each field composed to the entities, e.g. `missions { id designation }`.
+    string[] fieldSelections;
+    // Fetch whose result holds the entities, nil for the root fetch.
+    int? dependsOn;
+    // Selection sent to the subgraph.
+    string selection;
+    // Requested fields resolved by the fetch. The root field for the root fetch.
+    graphql:Field[] fields;
+|};
+
 type EntityResponse record {
     graphql:ErrorDetail[] errors?;
     record {|json[] _entities;|} data;
 };
+
+// A pending `_entities` request of a fetch, along with the entities its result is composed to.
+type EntityFetch record {|
+    FetchNode node;
+    // Entities of the result referencing the representations of the request.
+    map<json>[] entities;
+    // Index of the representation of each entity in the request. Entities with the same key share a representation.
+    int[] positions;
+    // Keys of the representations sent in the request, by their index in the request.
+    string[] keys;
+    graphql:Client 'client;
+    string document;
+    // Variables of the request, holding a chunk of the representations missed by the entity cache.
+    map<anydata> variables;
+|};
@@ -1,196 +1,303 @@
 import ballerina/graphql;
 
+// Maximum number of subgraph fetches a resolver dispatches concurrently while resolving a request.
+configurable int MAX_CONCURRENT_FETCHES = 8;
+
+// Maximum number of representations sent in a single `_entities` request, by subgraph, e.g. `astronauts`.
+// Larger fetches are split into chunks sent as separate requests. Subgraphs not listed here are sent every
+// representation of a fetch in a single request.
+configurable map<int> ENTITY_BATCH_SIZES = {};
+
 public class Resolver {
 
-    private UnresolvableField[] toBeResolved;
+    // Plan of the fetches resolving the fields the root fetch could not resolve.
+    private final FetchPlan plan;
 
-    // The final result of the resolver. Created an composed while resolving by `resolve()`.
+    // The final result of the resolver. Created and composed while resolving by `resolve()`.
     private json result;
-    private string resultType;
-    private string[] currentPath;
     private graphql:ErrorDetail[] errors;
+    private final int maxConcurrentFetches;
+    // Loader of the entities fetched by every resolver of the operation, nil to fetch the entities of this resolver
+    // on their own.
+    private final EntityLoader? loader;
+    // Ids of the fetches already reported as unresolved, so a fetch split into chunks is reported once.
+    private final map<boolean> unresolvedFetches = {};
 
-    // Query plan used to classify the fields.
-    private final readonly & table<QueryPlanEntry> key(typename) queryPlan;
-
-    public isolated function init(readonly & table<QueryPlanEntry> key(typename) queryPlan,
+    public isolated function init(FetchPlan plan,
             json result,
-            string resultType,
-            UnresolvableField[] unResolvableFields,
-            string[] currentPath,
-            graphql:ErrorDetail[] errors) {
-        self.queryPlan = queryPlan;
+            graphql:ErrorDetail[] errors,
+            int maxConcurrentFetches = MAX_CONCURRENT_FETCHES,
+            EntityLoader? loader = ()) {
+        self.plan = plan;
         self.result = result;
-        self.resultType = resultType;
-        self.toBeResolved = unResolvableFields;
-        self.currentPath = currentPath; // Path upto the result fields.
         self.errors = errors;
+        self.maxConcurrentFetches = int:max(maxConcurrentFetches, 1);
+        self.loader = loader;
     }
 
     public isolated function getResult() returns json {
         if self.result is json[] && self.result.length == 0 {
             return null;
-        } else if self.toBeResolved.length() > 0 {
-            self.resolve();
         }
+        self.resolve();
         return self.result;
     }
 
     isolated function resolve() {
-        // Resolve the fields which are not resolved yet.
-        while self.toBeResolved.length() > 0 {
-            UnresolvableField 'record = self.toBeResolved.shift();
-            string[] path = self.getEffectivePath('record.'field);
-
-            // Check whether the field need to be resolved is nested by zero or one level.
-            // These can be resolved and composed directly to the result.
-            if path.filter(e => e == "@").length() == 0 || (path.filter(e => e == "@").length() == 1 &&
-            path.indexOf("@") == path.length() - 2) {
-                string clientName = self.queryPlan.get('record.parent).fields.get('record.'field.getName()).'client;
-                graphql:Client 'client = getClient(clientName);
-                if path.indexOf("@") is () {
-                    path = path.slice(0, path.length() - 1);
-                } else {
-                    path = path.slice(0, path.length() - 2);
-                }
-
-                map<json>[]|error keyFieldsWithValues = self.getKeyFieldsWithValues(self.result, self.resultType, clientName, path);
-                if keyFieldsWithValues is error {
-                    self.errors.push({
-                        message: keyFieldsWithValues.message(),
-                        path: 'record.'field.getPath()
-                    });
-                    continue;
-                }
+        // Execute the fetches of the plan depending on the root fetch, level by level.
+        // Each fetch is an `_entities` request carrying the representations of all the entities it belongs to,
+        // collected across every list element in its flatten path. So the number of subgraph calls is bounded by
+        // the depth of the query instead of the size of the result. Fetches larger than the batch size of their
+        // subgraph are split into chunks, each sent as a request of its own.
+        // The requests of a level do not depend on each other, so they are dispatched concurrently, at most
+        // `maxConcurrentFetches` at a time. Each response is composed as soon as it is waited for, in the order of
+        // the requests, and the next request is dispatched in its place. So only the responses in flight are held.
+        FetchNode[] level = self.plan.getDependents(0);
+        while level.length() > 0 {
+            EntityFetch[] fetches = [];
+            foreach FetchNode node in level {
+                fetches.push(...self.prepareFetch(node));
+            }
 
-                if getOfType('record.'field.getType()).kind == "SCALAR" {
-                    // If the field type is a scalar type, just pass the field name wrapped with entity representation.
-                    string queryString = wrapWithEntityRepresentation('record.parent, keyFieldsWithValues, 'record.'field.getName());
-                    EntityResponse|graphql:ClientError result = 'client->execute(queryString);
-                    if result is graphql:ClientError {
-                        appendUnableToResolveErrorDetail(self.errors, 'record.'field);
-                        continue;
-                    }
-                    appendErrorDetailsFromResponse(self.errors, result?.errors);
-                    self.compose(self.result, result.data._entities, self.getEffectivePath('record.'field));
-
-                } else {
-                    // Else need to classify the fields and resolve them accordingly.
-                    QueryFieldClassifier classifier = new ('record.'field, self.queryPlan, clientName);
-                    string fieldString = classifier.getFieldStringWithRoot();
-                    string queryString = wrapWithEntityRepresentation('record.parent, keyFieldsWithValues, fieldString);
-                    EntityResponse|graphql:ClientError result = 'client->execute(queryString);
-                    if result is graphql:ClientError {
-                        appendUnableToResolveErrorDetail(self.errors, 'record.'field);
-                        continue;
-                    }
-                    appendErrorDetailsFromResponse(self.errors, result?.errors);
-                    self.compose(self.result, result.data._entities, self.getEffectivePath('record.'field));
-                    UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-                    if (propertiesNotResolved.length() > 0) {
-                        Resolver resolver = new (self.queryPlan, self.result, self.resultType, propertiesNotResolved, self.currentPath, self.errors);
-                        resolver.resolve();
+            future<EntityResponse|error>[] inFlight = [];
+            int dispatched = 0;
+            foreach int i in 0 ..< fetches.length() {
+                while dispatched < fetches.length() && dispatched - i < self.maxConcurrentFetches {
+                    EntityFetch fetch = fetches[dispatched];
+                    future<EntityResponse|error> pending = start executeEntityQuery(fetch.node.'client,
+                            fetch.'client, fetch.document, fetch.variables.cloneReadOnly());
+                    if inFlight.length() < self.maxConcurrentFetches {
+                        inFlight.push(pending);
+                    } else {
+                        inFlight[dispatched % self.maxConcurrentFetches] = pending;
                     }
+                    dispatched += 1;
                 }
+                EntityResponse|error response = wait inFlight[i % self.maxConcurrentFetches];
+                self.completeFetch(fetches[i], response);
+            }
+
+            FetchNode[] nextLevel = [];
+            foreach FetchNode node in level {
+                nextLevel.push(...self.plan.getDependents(node.id));
+            }
+            level = nextLevel;
+        }
+    }
 
+    // Prepare the `_entities` requests of a fetch, one per chunk of the representations missed by the entity cache.
+    // The entities found in the entity cache are composed right away. Returns no requests if there is nothing to
+    // fetch.
+    isolated function prepareFetch(FetchNode node) returns EntityFetch[] {
+        // Collect the entities the fetch belongs to. These are references to the maps in the result, so the
+        // fetched fields are composed to the result by setting them on these entities.
+        map<json>[] entities = [];
+        collectEntities(self.result, node.flattenPath, 0, entities);
+        if entities.length() == 0 {
+            return [];
+        }
+
+        string? key = self.plan.getKey(node.typename, node.'client);
+        if key is () {
+            self.errors.push({
+                message: string `No key of ${node.typename} found for ${node.'client}`,
+                path: node.fields[0].getPath()
+            });
+            return [];
+        }
+
+        // Send a single representation per key value, and keep the index of the representation of each entity to
+        // map the response of the unique entity back to every position referencing it.
+        // Entities without a key value cannot be fetched and are pruned.
+        map<json>[] representations = [];
+        string[] keyValues = [];
+        map<int> representationIndexes = {};
+        map<json>[] entitiesToCompose = [];
+        int[] positions = [];
+        foreach map<json> entity in entities {
+            json keyValue = entity[key];
+            if keyValue is () {
+                continue;
+            }
+            string keyString = keyValue.toJsonString();
+            int? index = representationIndexes[keyString];
+            if index is () {
+                index = representations.length();
+                representationIndexes[keyString] = <int>index;
+                representations.push({__typename: node.typename, [key]: keyValue});
+                keyValues.push(keyString);
+            }
+            entitiesToCompose.push(entity);
+            positions.push(<int>index);
+        }
+        if representations.length() == 0 {
+            return [];
+        }
+
+        // Look up the fields of the entities fetched earlier in the operation, and in the entity cache if their type
+        // is cached. Only the representations missing a field are sent to the subgraph, the others are composed
+        // from the loader or the cache.
+        decimal? ttl = getEntityCacheTtl(node.typename);
+        json[] cached = [];
+        map<json>[] missedRepresentations = [];
+        string[] missedKeys = [];
+        // Index of each representation among the missed representations, -1 for the cached ones.
+        int[] missedIndexes = [];
+        foreach int i in 0 ..< representations.length() {
+            map<json>? entity = self.getResolvedEntity(node, keyValues[i], ttl);
+            cached.push(entity);
+            if entity is () {
+                missedIndexes.push(missedRepresentations.length());
+                missedRepresentations.push(representations[i]);
+                missedKeys.push(keyValues[i]);
             } else {
-                // Cannot resolve directly and compose.
-                // Iterated through the self.result and resolve the fields by recursively calling the `resolve()` function
-                // while updating the path.
-
-                string[] currentPath = self.currentPath.clone();
-                json pointer = self.result;
-                string pointerType = self.resultType;
-                string element = path.shift();
-                currentPath.push(element);
-
-                // update the pointer and related information till it finds a @ element.
-                while element != "@" {
-                    pointer = (<map<json>>pointer).get(element);
-                    pointerType = self.queryPlan.get(pointerType).fields.get(element).'type;
-                    element = path.shift();
-                    currentPath.push(element);
-                }
+                missedIndexes.push(-1);
+            }
+        }
+        composeEntities(entitiesToCompose, positions, node.fieldNames, cached);
+        if missedRepresentations.length() == 0 {
+            return [];
+        }
 
-                // Iterate over the list in current pointer and compose the results into the inner fields.
-                if pointer is json[] {
-                    foreach var i in 0 ..< pointer.length() {
-                        Resolver resolver = new (self.queryPlan, pointer[i], pointerType, ['record], currentPath, self.errors);
-                        resolver.resolve();
-                    }
-                }
+        // Split the missed representations into chunks of the batch size of the subgraph. Each chunk holds the
+        // entities referencing its representations, by the index of the representation in the chunk.
+        int batchSize = ENTITY_BATCH_SIZES[node.'client] ?: 0;
+        if batchSize <= 0 {
+            batchSize = missedRepresentations.length();
+        }
+        graphql:Client 'client = getClient(node.'client);
+        string document = wrapWithEntityRepresentation(node.typename, node.selection);
+        EntityFetch[] fetches = [];
+        int chunkStart = 0;
+        while chunkStart < missedRepresentations.length() {
+            int chunkEnd = int:min(chunkStart + batchSize, missedRepresentations.length());
+            fetches.push({
+                node,
+                entities: [],
+                positions: [],
+                keys: missedKeys.slice(chunkStart, chunkEnd),
+                'client,
+                document,
+                variables: {representations: missedRepresentations.slice(chunkStart, chunkEnd)}
+            });
+            chunkStart = chunkEnd;
+        }
+        foreach int i in 0 ..< entitiesToCompose.length() {
+            int missedIndex = missedIndexes[positions[i]];
+            if missedIndex >= 0 {
+                EntityFetch fetch = fetches[missedIndex / batchSize];
+                fetch.entities.push(entitiesToCompose[i]);
+                fetch.positions.push(missedIndex % batchSize);
             }
         }
+        return fetches;
     }
 
-    // Compose results to the final result. i.e. to the `result` object.
-    isolated function compose(json finalResult, json resultToCompose, string[] path) {
-        string[] pathCopy = path.clone();
-        json pointer = finalResult;
-        string element = pathCopy.shift();
-
-        while pathCopy.length() > 0 {
-            if element == "@" {
-                if resultToCompose is json[] && pointer is json[] {
-                    foreach var i in 0 ..< resultToCompose.length() {
-                        self.compose(pointer[i], resultToCompose[i], pathCopy);
-                    }
-                    return;
+    // Compose the response of a fetch to the result.
+    isolated function completeFetch(EntityFetch fetch, EntityResponse|error response) {
+        if response is error {
+            self.appendUnresolvedErrors(fetch.node);
+            return;
+        }
+        appendErrorDetailsFromResponse(self.errors, response?.errors);
+        json[] fetched = response.data._entities;
+        decimal? ttl = getEntityCacheTtl(fetch.node.typename);
+        EntityLoader? loader = self.loader;
+        if response?.errors is () && fetched.length() == fetch.keys.length() {
+            foreach int i in 0 ..< fetched.length() {
+                json entity = fetched[i];
+                if entity !is map<json> {
+                    continue;
                 }
-            }
-            else {
-                if pointer is map<json> {
-                    if pointer.hasKey(element) {
-                        pointer = pointer.get(element);
-                    } else {
-                        self.errors.push({
-                            message: string `${element.toString()} is not found in ${path.toString()}`
-                        });
-                    }
+                if loader is EntityLoader {
+                    loadEntity(loader, fetch.node, fetch.keys[i], entity);
+                }
+                if ttl is decimal {
+                    cacheEntity(fetch.node, fetch.keys[i], entity, ttl);
                 }
             }
-            element = pathCopy.shift();
         }
+        self.compose(fetch, fetched);
+    }
 
-        if pointer is map<json> {
-            if resultToCompose is map<json> {
-                pointer[element] = resultToCompose[element];
-            } else if resultToCompose is json[] {
-                pointer[element] = (<map<json>>resultToCompose[0])[element];
-            }
+    // Compose results to the final result. i.e. scatter the fetched entities back to every entity of the result
+    // referencing them, by the index of their representation, fanning out every field fetched together.
+    isolated function compose(EntityFetch fetch, json[] resultToCompose) {
+        if resultToCompose.length() != fetch.keys.length() {
+            self.appendUnresolvedErrors(fetch.node);
+            return;
+        }
+        composeEntities(fetch.entities, fetch.positions, fetch.node.fieldNames, resultToCompose);
+    }
+
+    // Returns the fields of an entity fetched earlier in the operation or found in the entity cache, or nil if the
+    // entity must be fetched.
+    isolated function getResolvedEntity(FetchNode node, string keyValue, decimal? ttl) returns map<json>? {
+        EntityLoader? loader = self.loader;
+        map<json>? entity = loader is () ? () : getLoadedEntity(loader, node, keyValue);
+        if entity is () && ttl is decimal {
+            entity = getCachedEntity(node, keyValue);
+        }
+        return entity;
+    }
 
+    isolated function appendUnresolvedErrors(FetchNode node) {
+        string id = node.id.toString();
+        if self.unresolvedFetches.hasKey(id) {
+            return;
+        }
+        self.unresolvedFetches[id] = true;
+        foreach graphql:Field 'field in node.fields {
+            appendUnableToResolveErrorDetail(self.errors, 'field);
         }
     }
+}
 
-    private isolated function getEffectivePath(graphql:Field 'field) returns string[] {
-        return convertPathToStringArray('field.getPath().slice(self.currentPath.length()));
+// Collect the entities at the given path of the result, expanding every list element in the path (`@`).
+// The path is not copied; `cursor` is the index of the element of the path to resolve at `pointer`.
+// Null values and missing fields are skipped.
+isolated function collectEntities(json pointer, string[] path, int cursor, map<json>[] entities) {
+    if cursor == path.length() {
+        if pointer is map<json> {
+            entities.push(pointer);
+        }
+        return;
     }
 
-    // Get the values of required fields from the results.
-    // Don't support @ in the path.
-    isolated function getKeyFieldsWithValues(json pointer, string pointerType, string clientName, string[] path) returns map<json>[]|error {
-        if path.length() == 0 {
-            string key = self.queryPlan.get(pointerType).keys.get(clientName);
-
-            map<json>[] fields = [];
-            if pointer is json[] {
-                foreach var element in pointer {
-                    map<json> keyField = {};
-                    keyField[key] = (<map<json>>element)[key];
-                    fields.push(keyField);
-                }
-            } else if pointer is map<json> {
-                map<json> keyField = {};
-                keyField[key] = (<map<json>>pointer)[key];
-                fields.push(keyField);
+    string element = path[cursor];
+    if element == "@" {
+        if pointer is json[] {
+            foreach json item in pointer {
+                collectEntities(item, path, cursor + 1, entities);
             }
-            return fields;
         }
+    } else if pointer is map<json> {
+        json? child = pointer[element];
+        if child !is () {
+            collectEntities(child, path, cursor + 1, entities);
+        }
+    }
+}
 
-        string element = path.shift();
-        json newPointer = (<map<json>>pointer)[element];
-        string fieldType = self.queryPlan.get(pointerType).fields.get(element).'type;
-
-        return self.getKeyFieldsWithValues(newPointer, fieldType, clientName, path);
+// Scatter the fetched entities to the entities of the result, merging every fetched field in place.
+// `positions` holds the index of the fetched entity of each entity of the result.
+isolated function composeEntities(map<json>[] entities, int[] positions, string[] fieldNames, json[] fetched) {
+    foreach int i in 0 ..< entities.length() {
+        json entity = fetched[positions[i]];
+        if entity is map<json> {
+            map<json> target = entities[i];
+            foreach string fieldName in fieldNames {
+                json value = entity[fieldName];
+                target[fieldName] = target.hasKey(fieldName) ? mergeJson(target.get(fieldName), value) : value;
+            }
+        }
     }
 }
+
+// Execute an `_entities` request. Dispatched with `start` to fetch from independent subgraphs concurrently.
+// Identical requests in flight from other gateway requests are shared.
+isolated function executeEntityQuery(string clientName, graphql:Client 'client, string document,
+        map<anydata> variables) returns EntityResponse|error {
+    json response = check executeShared(clientName, 'client, document, variables);
+    return response.cloneWithType();
+}
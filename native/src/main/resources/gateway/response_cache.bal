@@ -0,0 +1,155 @@
+import ballerina/graphql;
+import ballerina/time;
+
+// Time to live in seconds of the cached responses, by root field, e.g. `astronauts`. Root fields not listed here
+// are always resolved, so the cache is disabled by default. Only query fields can be cached.
+configurable map<decimal> RESPONSE_CACHE_TTLS = {};
+
+// Maximum size in bytes of the cached responses, measured as the length of their JSON text. The least recently
+// used responses are evicted first.
+configurable int RESPONSE_CACHE_MAX_BYTES = 10485760;
+
+final ResponseCache responseCache = new (RESPONSE_CACHE_MAX_BYTES);
+
+type CachedResponse record {|
+    string key;
+    json value;
+    int size;
+    decimal expiresAt;
+    // Generation of each type of the response when it was cached.
+    map<int> generations;
+|};
+
+// Hit and miss counters of a cache.
+public type CacheStatistics record {|
+    int hits;
+    int misses;
+    int evictions;
+    int entries;
+    int bytes;
+|};
+
+// Responses of root fields, shared across requests.
+// A response is cached by its root field, the selections of its fetch plan and the values of its arguments.
+// Invalidating a type increments its generation, so the responses holding the type cached before are dropped when
+// read. The entries are kept in the order they were used, as maps preserve the insertion order.
+isolated class ResponseCache {
+
+    private final map<CachedResponse> responses = {};
+    private final map<int> generations = {};
+    private final int maxBytes;
+    private int bytes = 0;
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+
+    isolated function init(int maxBytes) {
+        self.maxBytes = int:max(maxBytes, 0);
+    }
+
+    isolated function get(string key) returns CachedValue? {
+        lock {
+            CachedResponse? cached = self.responses[key];
+            if cached is () {
+                self.misses += 1;
+                return ();
+            }
+            self.remove(key);
+            boolean invalidated = false;
+            foreach var [typename, generation] in cached.generations.entries() {
+                invalidated = invalidated || generation != (self.generations[typename] ?: 0);
+            }
+            if invalidated || cached.expiresAt < time:monotonicNow() {
+                self.misses += 1;
+                return ();
+            }
+            self.responses[key] = cached;
+            self.bytes += cached.size;
+            self.hits += 1;
+            return {value: cached.value.clone()};
+        }
+    }
+
+    isolated function put(string key, json value, string[] typenames, decimal ttl) {
+        string text = value.toJsonString();
+        readonly & string[] cachedTypes = typenames.cloneReadOnly();
+        lock {
+            int size = text.length();
+            if size > self.maxBytes {
+                return;
+            }
+            self.remove(key);
+            while self.bytes + size > self.maxBytes {
+                record {|CachedResponse value;|}? leastRecentlyUsed = self.responses.iterator().next();
+                if leastRecentlyUsed is () {
+                    break;
+                }
+                self.remove(leastRecentlyUsed.value.key);
+                self.evictions += 1;
+            }
+            map<int> generations = {};
+            foreach string typename in cachedTypes {
+                generations[typename] = self.generations[typename] ?: 0;
+            }
+            self.responses[key] = {
+                key,
+                value: value.clone(),
+                size,
+                expiresAt: time:monotonicNow() + ttl,
+                generations
+            };
+            self.bytes += size;
+        }
+    }
+
+    isolated function invalidate(string typename) {
+        lock {
+            self.generations[typename] = (self.generations[typename] ?: 0) + 1;
+        }
+    }
+
+    isolated function getStatistics() returns CacheStatistics {
+        lock {
+            return {
+                hits: self.hits,
+                misses: self.misses,
+                evictions: self.evictions,
+                entries: self.responses.length(),
+                bytes: self.bytes
+            };
+        }
+    }
+
+    private isolated function remove(string key) {
+        lock {
+            CachedResponse? removed = self.responses.removeIfHasKey(key);
+            if removed is CachedResponse {
+                self.bytes -= removed.size;
+            }
+        }
+    }
+}
+
+// Returns the hit and miss counters of the response cache.
+public isolated function getResponseCacheStatistics() returns CacheStatistics {
+    return responseCache.getStatistics();
+}
+
+// Returns the key of the response of a root field in the response cache, or nil if the root field is not cached.
+// The plan holds the normalized selections of every subgraph, so equivalent operations share a key.
+isolated function getResponseCacheKey(string rootField, FetchPlan plan, map<anydata> variables = {}) returns string? {
+    if !RESPONSE_CACHE_TTLS.hasKey(rootField) {
+        return ();
+    }
+    return string `${rootField}:${variables.toJsonString()}:${plan.toString()}`;
+}
+
+// Cache the response of a root field if it is cached and resolved without errors.
+isolated function cacheResponse(string? key, string rootField, FetchPlan plan, json result,
+        graphql:ErrorDetail[] errors) {
+    decimal? ttl = RESPONSE_CACHE_TTLS[rootField];
+    if key is () || ttl is () || errors.length() > 0 {
+        return;
+    }
+    responseCache.put(key, result, plan.getTypenames(), ttl);
+}
@@ -0,0 +1,216 @@
+import ballerina/graphql;
+import ballerina/lang.runtime;
+import ballerina/time;
+
+// Time in seconds the query root fields of an operation sent to the same subgraph are gathered before they are sent
+// together in a single request. 0 to send each root field in a request of its own.
+// A non-zero window delays every query root field by up to the window, including the root fields sent alone. The
+// root fields are gathered as the listener resolves the root fields of the isolated gateway service concurrently,
+// which `GatewayRootFieldBatchTest` verifies by counting the requests of two root fields.
+configurable decimal ROOT_FIELD_BATCH_WINDOW = 0;
+
+// Key of the root field batcher of an operation in the context of the request.
+const ROOT_FIELD_BATCHER = "rootFieldBatcher";
+
+// A query root field sent to a subgraph, with the types and values of its arguments.
+type RootField record {|
+    string root;
+    string? fieldQuery;
+    map<string> variableTypes;
+    map<anydata> variables;
+|};
+
+// Batches of the query root fields of an operation being gathered, by subgraph.
+isolated class RootFieldBatcher {
+
+    private final map<RootFieldBatch> batches = {};
+
+    // Add a root field to the batch being gathered for the subgraph, starting a new batch if there is none.
+    // Returns the batch and the index of the root field in it.
+    isolated function add(string clientName, graphql:Client 'client, readonly & RootField rootField)
+            returns [RootFieldBatch, int] {
+        lock {
+            RootFieldBatch? batch = self.batches[clientName];
+            if batch is () {
+                batch = new (clientName, 'client, time:monotonicNow() + ROOT_FIELD_BATCH_WINDOW);
+                self.batches[clientName] = <RootFieldBatch>batch;
+            }
+            RootFieldBatch rootFieldBatch = <RootFieldBatch>batch;
+            return [rootFieldBatch, rootFieldBatch.add(rootField)];
+        }
+    }
+
+    // Stop gathering root fields to a batch, so the root fields added later start a new batch.
+    isolated function close(string clientName, RootFieldBatch batch) {
+        lock {
+            RootFieldBatch? open = self.batches[clientName];
+            if open === batch {
+                _ = self.batches.remove(clientName);
+            }
+        }
+    }
+}
+
+// Root fields of an operation sent to a subgraph in a single request, each aliased by its index in the batch.
+// The first caller of `getResponse` sends the request while holding the lock of the batch, so the other callers
+// wait for it and share its response.
+isolated class RootFieldBatch {
+
+    private final string clientName;
+    private final graphql:Client 'client;
+    private final decimal deadline;
+    private final (readonly & RootField)[] rootFields = [];
+    private json|graphql:ClientError|() response = ();
+
+    isolated function init(string clientName, graphql:Client 'client, decimal deadline) {
+        self.clientName = clientName;
+        self.'client = 'client;
+        self.deadline = deadline;
+    }
+
+    isolated function add(readonly & RootField rootField) returns int {
+        lock {
+            self.rootFields.push(rootField);
+            return self.rootFields.length() - 1;
+        }
+    }
+
+    isolated function getDeadline() returns decimal {
+        return self.deadline;
+    }
+
+    isolated function getResponse() returns json|graphql:ClientError {
+        lock {
+            json|graphql:ClientError|() response = self.response;
+            if response !is () {
+                return response.clone();
+            }
+            json|graphql:ClientError executed;
+            if self.rootFields.length() == 1 {
+                readonly & RootField rootField = self.rootFields[0];
+                executed = executeShared(self.clientName, self.'client,
+                        wrapwithQuery(rootField.root, rootField.fieldQuery, rootField.variableTypes),
+                        rootField.variables);
+            } else {
+                map<anydata> variables = {};
+                foreach int i in 0 ..< self.rootFields.length() {
+                    foreach var [name, value] in self.rootFields[i].variables.entries() {
+                        variables[string `${getRootFieldAlias(i)}_${name}`] = value;
+                    }
+                }
+                executed = executeShared(self.clientName, self.'client,
+                        getBatchDocument(self.rootFields.cloneReadOnly()), variables.clone());
+            }
+            self.response = executed.clone();
+            return executed.clone();
+        }
+    }
+
+    isolated function isBatched() returns boolean {
+        lock {
+            return self.rootFields.length() > 1;
+        }
+    }
+}
+
+// Send a query root field to a subgraph. The root fields of the operation sent to the same subgraph within
+// `ROOT_FIELD_BATCH_WINDOW` are sent in a single request, and the response of each root field is split from it.
+// The response is shaped as the response of a request of the root field alone.
+isolated function executeRootField(graphql:Context context, string clientName, graphql:Client 'client, string root,
+        string? fieldQuery, map<string> variableTypes = {}, map<anydata> variables = {})
+        returns json|graphql:ClientError {
+    RootFieldBatcher? batcher = getRootFieldBatcher(context);
+    if batcher is () || ROOT_FIELD_BATCH_WINDOW <= 0d {
+        return executeShared(clientName, 'client, wrapwithQuery(root, fieldQuery, variableTypes), variables);
+    }
+
+    readonly & RootField rootField = {
+        root,
+        fieldQuery,
+        variableTypes: variableTypes.cloneReadOnly(),
+        variables: variables.cloneReadOnly()
+    };
+    [RootFieldBatch, int] [batch, index] = batcher.add(clientName, 'client, rootField);
+    decimal remaining = batch.getDeadline() - time:monotonicNow();
+    if remaining > 0d {
+        runtime:sleep(remaining);
+    }
+    batcher.close(clientName, batch);
+    json|graphql:ClientError response = batch.getResponse();
+    if response is graphql:ClientError || !batch.isBatched() {
+        return response;
+    }
+    return splitBatchResponse(response, getRootFieldAlias(index), root);
+}
+
+// Returns the root field batcher of the operation of a request, or nil if the context has none.
+isolated function getRootFieldBatcher(graphql:Context context) returns RootFieldBatcher? {
+    any|error batcher = context.get(ROOT_FIELD_BATCHER);
+    return batcher is RootFieldBatcher ? batcher : ();
+}
+
+isolated function getRootFieldAlias(int index) returns string {
+    return string `f${index}`;
+}
+
+// Prepare the document of a batch, aliasing each root field and prefixing its variables by its alias.
+isolated function getBatchDocument(RootField[] rootFields) returns string {
+    string[] shapes = from RootField rootField in rootFields
+        select string `${rootField.root}:${rootField.fieldQuery ?: ""}:${rootField.variableTypes.toString()}`;
+    string shape = string `batch:${"|".'join(...shapes)}`;
+    string? cached = getCachedDocument(shape);
+    if cached is string {
+        return cached;
+    }
+
+    string[] definitionList = [];
+    string[] fieldList = [];
+    foreach int i in 0 ..< rootFields.length() {
+        RootField rootField = rootFields[i];
+        string alias = getRootFieldAlias(i);
+        string[] argumentList = [];
+        foreach var [name, variableType] in rootField.variableTypes.entries() {
+            definitionList.push(string `$${alias}_${name}: ${variableType}`);
+            argumentList.push(string `${name}: $${alias}_${name}`);
+        }
+        string arguments = argumentList.length() > 0 ? string `(${", ".'join(...argumentList)})` : "";
+        string? fieldQuery = rootField.fieldQuery;
+        string selection = fieldQuery is () ? "" : string ` { ${fieldQuery} }`;
+        fieldList.push(string `${alias}: ${rootField.root}${arguments}${selection}`);
+    }
+    string variableDefinitions = definitionList.length() > 0 ? string `(${", ".'join(...definitionList)})` : "";
+    string document = string `query${variableDefinitions} { ${" ".'join(...fieldList)} }`;
+    cacheDocument(shape, document);
+    return document;
+}
+
+// Split the response of a root field from the response of its batch. The errors of the root field are moved to its
+// name, and the errors without a path are kept for every root field.
+isolated function splitBatchResponse(json response, string alias, string root) returns json {
+    if response !is map<json> {
+        return response;
+    }
+    json data = response["data"];
+    map<json> split = {data: data is map<json> ? {[root]: data[alias]} : data};
+    json errors = response["errors"];
+    if errors is json[] {
+        json[] rootFieldErrors = [];
+        foreach json e in errors {
+            json path = e is map<json> ? e["path"] : ();
+            if path is json[] && path.length() > 0 {
+                if path[0] != alias {
+                    continue;
+                }
+                map<json> rootFieldError = (<map<json>>e).clone();
+                rootFieldError["path"] = [root, ...path.slice(1)];
+                rootFieldErrors.push(rootFieldError);
+            } else {
+                rootFieldErrors.push(e);
+            }
+        }
+        if rootFieldErrors.length() > 0 {
+            split["errors"] = rootFieldErrors;
+        }
+    }
+    return split;
+}
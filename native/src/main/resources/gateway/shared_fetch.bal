@@ -0,0 +1,85 @@
+import ballerina/graphql;
+
+// Whether identical queries sent to a subgraph concurrently share a single request.
+configurable boolean COALESCE_FETCHES = true;
+
+// Queries in flight to the subgraphs, by their subgraph, document and variables.
+isolated map<SharedFetch> inFlightFetches = {};
+
+// Number of queries answered by a request already in flight instead of a request of their own.
+isolated int coalescedFetchCount = 0;
+
+// A query to a subgraph shared by every identical query sent while it is in flight.
+// The first caller of `getResponse` sends the request while holding the lock of the fetch, so the other callers
+// wait for it and share its response.
+isolated class SharedFetch {
+
+    private final graphql:Client 'client;
+    private final string document;
+    private final readonly & map<anydata> variables;
+    private json|graphql:ClientError|() response = ();
+
+    isolated function init(graphql:Client 'client, string document, readonly & map<anydata> variables) {
+        self.'client = 'client;
+        self.document = document;
+        self.variables = variables;
+    }
+
+    isolated function getResponse() returns json|graphql:ClientError {
+        lock {
+            json|graphql:ClientError|() response = self.response;
+            if response is () {
+                json|graphql:ClientError executed = self.'client->execute(self.document, self.variables);
+                self.response = executed;
+                return executed.clone();
+            }
+            return response.clone();
+        }
+    }
+}
+
+// Send a query to a subgraph, sharing the request with the identical queries in flight to the same subgraph.
+// Only queries are shared, as mutations are not idempotent.
+isolated function executeShared(string clientName, graphql:Client 'client, string document,
+        map<anydata> variables = {}) returns json|graphql:ClientError {
+    readonly & map<anydata> sharedVariables = variables.cloneReadOnly();
+    if !COALESCE_FETCHES {
+        return 'client->execute(document, sharedVariables);
+    }
+
+    string key = string `${clientName}:${document}:${sharedVariables.toJsonString()}`;
+    SharedFetch sharedFetch;
+    boolean coalesced;
+    lock {
+        SharedFetch? inFlight = inFlightFetches[key];
+        coalesced = inFlight is SharedFetch;
+        if inFlight is SharedFetch {
+            sharedFetch = inFlight;
+        } else {
+            sharedFetch = new ('client, document, sharedVariables);
+            inFlightFetches[key] = sharedFetch;
+        }
+    }
+    if coalesced {
+        lock {
+            coalescedFetchCount += 1;
+        }
+    }
+
+    json|graphql:ClientError response = sharedFetch.getResponse();
+    // The fetch is done, so later queries send a new request.
+    lock {
+        SharedFetch? inFlight = inFlightFetches[key];
+        if inFlight === sharedFetch {
+            _ = inFlightFetches.remove(key);
+        }
+    }
+    return response;
+}
+
+// Returns the number of queries to the subgraphs answered by a request already in flight.
+public isolated function getCoalescedFetchCount() returns int {
+    lock {
+        return coalescedFetchCount;
+    }
+}
@@ -0,0 +1,31 @@
+import ballerina/lang.runtime;
+import ballerina/log;
+
+// Interval in seconds of the log lines reporting the hit and miss counters of the response cache and the number of
+// coalesced subgraph queries. 0 to not report them. The counters of the features disabled are not reported.
+configurable decimal STATISTICS_LOG_INTERVAL = 60;
+
+function init() {
+    if STATISTICS_LOG_INTERVAL > 0d {
+        _ = start logStatistics(STATISTICS_LOG_INTERVAL);
+    }
+}
+
+// Report the statistics of the gateway every interval, for as long as the gateway runs.
+isolated function logStatistics(decimal interval) {
+    while true {
+        runtime:sleep(interval);
+        if RESPONSE_CACHE_TTLS.length() > 0 {
+            CacheStatistics responseCacheStatistics = getResponseCacheStatistics();
+            log:printInfo("Response cache statistics",
+                    hits = responseCacheStatistics.hits,
+                    misses = responseCacheStatistics.misses,
+                    evictions = responseCacheStatistics.evictions,
+                    entries = responseCacheStatistics.entries,
+                    bytes = responseCacheStatistics.bytes);
+        }
+        if COALESCE_FETCHES {
+            log:printInfo("Coalesced fetch statistics", coalescedFetches = getCoalescedFetchCount());
+        }
+    }
+}
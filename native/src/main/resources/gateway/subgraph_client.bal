@@ -0,0 +1,59 @@
+import ballerina/graphql;
+import ballerina/http;
+
+// Settings of the HTTP client of a subgraph, set with the `<SUBGRAPH>_CLIENT_CONFIG` configurable of the subgraph.
+// Settings not set fall back to `SUBGRAPH_CLIENT_DEFAULTS`, the defaults the gateway was generated with.
+public type SubgraphClientConfig record {|
+    // HTTP version of the requests to the subgraph.
+    http:HttpVersion httpVersion?;
+    // Maximum number of active connections to the subgraph, -1 for no limit.
+    int maxActiveConnections?;
+    // Maximum number of idle connections kept open to the subgraph.
+    int maxIdleConnections?;
+    // Time in seconds a request waits for a connection when the maximum number of connections are active.
+    decimal waitTime?;
+    // Whether HTTP/1.1 connections to the subgraph are kept alive.
+    http:KeepAlive keepAlive?;
+    // Timeout of a request to the subgraph in seconds.
+    decimal timeout?;
+    // Number of retries of a failed request, 0 to not retry.
+    int retryCount?;
+    // Interval between the retries of a failed request in seconds.
+    decimal retryInterval?;
+    // Whether the requests and responses are compressed.
+    http:Compression compression?;
+|};
+
+public type SubgraphClientDefaults record {|
+    http:HttpVersion httpVersion;
+    int maxActiveConnections;
+    int maxIdleConnections;
+    decimal waitTime;
+    http:KeepAlive keepAlive;
+    decimal timeout;
+    int retryCount;
+    decimal retryInterval;
+    http:Compression compression;
+|};
+
+isolated function getClientConfiguration(SubgraphClientConfig config) returns graphql:ClientConfiguration {
+    SubgraphClientDefaults defaults = SUBGRAPH_CLIENT_DEFAULTS;
+    int retryCount = config.retryCount ?: defaults.retryCount;
+    return {
+        httpVersion: config.httpVersion ?: defaults.httpVersion,
+        http1Settings: {
+            keepAlive: config.keepAlive ?: defaults.keepAlive
+        },
+        timeout: config.timeout ?: defaults.timeout,
+        poolConfig: {
+            maxActiveConnections: config.maxActiveConnections ?: defaults.maxActiveConnections,
+            maxIdleConnections: config.maxIdleConnections ?: defaults.maxIdleConnections,
+            waitTime: config.waitTime ?: defaults.waitTime
+        },
+        retryConfig: retryCount > 0 ? {
+                count: retryCount,
+                interval: config.retryInterval ?: defaults.retryInterval
+            } : (),
+        compression: config.compression ?: defaults.compression
+    };
+}
@@ -1,102 +1,73 @@
 import ballerina/graphql;
 
-// Prepare query string to resolve by reference.
-isolated function wrapWithEntityRepresentation(string typename, map<json>[] fieldsRequiredToFetch, string fieldQuery) returns string {
-    string[] representations = [];
-    foreach var entry in fieldsRequiredToFetch {
-        string keyValueString = getKeyValueString(entry);
-        representations.push(string `{ __typename: "${typename}", ${keyValueString} }`);
+// Maximum number of operation documents cached by their shape.
+configurable int MAX_CACHED_DOCUMENTS = 1000;
+
+// Operation documents sent to the subgraphs, by their shape. The values of the representations and arguments are
+// sent as variables, so a document only depends on its shape and is built once.
+isolated map<string> operationDocuments = {};
+
+// Prepare the document to resolve by reference. The representations are sent as the `representations` variable.
+isolated function wrapWithEntityRepresentation(string typename, string fieldQuery) returns string {
+    string shape = string `_entities:${typename}:${fieldQuery}`;
+    string? cached = getCachedDocument(shape);
+    if cached is string {
+        return cached;
     }
-    return string `query{
-        _entities(
-            representations: [${",".'join(...representations)}]
-        ) {
-            ... on ${typename} {
-                ${fieldQuery}
-            }
-        }
-    }`;
+    string document = string `query($representations: [_Any!]!) { _entities(representations: $representations) { ` +
+        string `... on ${typename} { ${fieldQuery} } } }`;
+    cacheDocument(shape, document);
+    return document;
+}
+
+// Prepare the document to resolve by query. The arguments are sent as variables of the given types.
+isolated function wrapwithQuery(string root, string? fieldQuery = (), map<string>? variableTypes = ()) returns string {
+    return getOperationDocument("query", root, fieldQuery, variableTypes);
+}
+
+isolated function wrapwithMutation(string root, string? fieldQuery = (), map<string>? variableTypes = ())
+        returns string {
+    return getOperationDocument("mutation", root, fieldQuery, variableTypes);
 }
 
-// Prepare key value string.
-isolated function getKeyValueString(map<json> fieldMap) returns string {
-    string keyValueString = "";
-    foreach var [key, value] in fieldMap.entries() {
-        if value is map<json> {
-            keyValueString = keyValueString + string `${key}: { ${getKeyValueString(value)} } `;
-        } else {
-            keyValueString = keyValueString + string `${key}: ${getParamAsString(value)} `;
+isolated function getOperationDocument(string operation, string root, string? fieldQuery,
+        map<string>? variableTypes) returns string {
+    string shape = string `${operation}:${root}:${fieldQuery ?: ""}:${(variableTypes ?: {}).toString()}`;
+    string? cached = getCachedDocument(shape);
+    if cached is string {
+        return cached;
+    }
+
+    string variableDefinitions = "";
+    string arguments = "";
+    if variableTypes is map<string> && variableTypes.length() > 0 {
+        string[] definitionList = [];
+        string[] argumentList = [];
+        foreach var [name, variableType] in variableTypes.entries() {
+            definitionList.push(string `$${name}: ${variableType}`);
+            argumentList.push(string `${name}: $${name}`);
         }
+        variableDefinitions = string `(${", ".'join(...definitionList)})`;
+        arguments = string `(${", ".'join(...argumentList)})`;
     }
-    return keyValueString;
+    string selection = fieldQuery is () ? "" : string ` { ${fieldQuery} }`;
+    string document = string `${operation}${variableDefinitions} { ${root}${arguments}${selection} }`;
+    cacheDocument(shape, document);
+    return document;
 }
 
-// Prepare query string to resolve by query.
-isolated function wrapwithQuery(string root, string? fieldQuery = (), map<string>? args = ()) returns string {
-    if args is () {
-        if fieldQuery is () {
-            return string `query
-                {
-                    ${root}
-                }`;
-        }
-        return string `query
-            {
-                ${root}{
-                ${fieldQuery}
-            }
-        }`;
-    } else {
-        string[] argsList = [];
-        foreach var [key, value] in args.entries() {
-            argsList.push(string `${key}: ${value}`);
-        }
-        if fieldQuery is () {
-            return string `query
-                {
-                    ${root}(${string:'join(", ", ...argsList)})
-                }`;
-        }
-        return string `query
-            {
-                ${root}(${string:'join(", ", ...argsList)}){
-                ${fieldQuery}
-            }
-        }`;
+isolated function getCachedDocument(string shape) returns string? {
+    lock {
+        return operationDocuments[shape];
     }
 }
 
-isolated function wrapwithMutation(string root, string? fieldQuery = (), map<string>? args = ()) returns string {
-    if args is () {
-        if fieldQuery is () {
-            return string `mutation
-                {
-                    ${root}
-                }`;
-        }
-        return string `mutation
-            {
-                ${root}{
-                ${fieldQuery}
-            }
-        }`;
-    } else {
-        string[] argsList = [];
-        foreach var [key, value] in args.entries() {
-            argsList.push(string `${key}: ${value}`);
+// Cache a document unless the cache is full. Documents of shapes not cached are built per request.
+isolated function cacheDocument(string shape, string document) {
+    lock {
+        if operationDocuments.length() < MAX_CACHED_DOCUMENTS {
+            operationDocuments[shape] = document;
         }
-        if fieldQuery is () {
-            return string `mutation
-                {
-                    ${root}(${string:'join(", ", ...argsList)})
-                }`;
-        }
-        return string `mutation
-            {
-                ${root}(${string:'join(", ", ...argsList)}){
-                ${fieldQuery}
-            }
-        }`;
     }
 }
 
@@ -115,24 +86,6 @@ isolated function getOfType(graphql:__Type schemaType) returns graphql:__Type {
     }
 }
 
-isolated function getParamAsString(anydata param) returns string {
-    if param is string {
-        return "\"" + param + "\"";
-    } else if param.toJson() is map<json> {
-        map<json> paramMap = <map<json>>param.toJson();
-        string[] paramList = [];
-        foreach var [key, value] in paramMap.entries() {
-            if value is () {
-                continue;
-            }
-            paramList.push(string `${key}: ${getParamAsString(value)}`);
-        }
-        return string `{${string:'join(", ", ...paramList)}}`;
-    } else {
-        return param.toString();
-    }
-}
-
 isolated function addErrorsToGraphqlContext(graphql:Context context, graphql:ErrorDetail|graphql:ErrorDetail[] errors) {
     if errors is graphql:ErrorDetail {
         graphql:__addError(context, errors);
@@ -163,12 +116,37 @@ isolated function appendErrorDetailsFromResponse(graphql:ErrorDetail[] errors, g
     }
 }
 
+// Invalidate the cached entities and responses holding any of the given types, after a mutation selecting them
+// succeeds.
+isolated function invalidateCaches(string[] typenames) {
+    if ENTITY_CACHE_TTLS.length() == 0 && RESPONSE_CACHE_TTLS.length() == 0 {
+        return;
+    }
+    foreach string typename in typenames {
+        entityCache.invalidate(typename);
+        responseCache.invalidate(typename);
+    }
+}
+
 isolated function mergeToResultJson(map<json> resultJson, map<json> responseJson) {
-    foreach var [key, value] in responseJson.entries() {
-        if resultJson[key] is map<json> {
-            mergeToResultJson(<map<json>>resultJson[key], <map<json>>value);
-        } else {
-            resultJson[key] = value;
+    _ = mergeJson(resultJson, responseJson);
+}
+
+// Merge the source to the target in place, walking both in lockstep. Maps are merged field by field and lists of
+// the same length element by element, so the values already composed to the target are kept. Any other source
+// value replaces the target. Returns the merged value.
+isolated function mergeJson(json target, json 'source) returns json {
+    if target is map<json> && 'source is map<json> {
+        foreach var [key, value] in 'source.entries() {
+            target[key] = target.hasKey(key) ? mergeJson(target.get(key), value) : value;
+        }
+        return target;
+    }
+    if target is json[] && 'source is json[] && target.length() == 'source.length() {
+        foreach int i in 0 ..< 'source.length() {
+            target[i] = mergeJson(target[i], 'source[i]);
         }
+        return target;
     }
+    return 'source;
 }
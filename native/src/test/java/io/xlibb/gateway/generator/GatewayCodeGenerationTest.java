@@ -19,20 +19,31 @@
 package io.xlibb.gateway.generator;
 
 import graphql.schema.GraphQLSchema;
+import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
 import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.SchemaLoadingMode;
+import io.xlibb.gateway.SubgraphClientDefaults;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 import io.xlibb.gateway.exception.ValidationException;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 
 import static io.xlibb.gateway.generator.GatewayCodeGenerator.generateGateway;
 
@@ -76,6 +87,278 @@ public class GatewayCodeGenerationTest extends GraphqlTest {
         Assert.assertEquals(generatedSrc, expectedSrc);
     }
 
+    @Test(description = "Test parallel gateway generation matches the sequential output", dataProvider =
+            "GatewayGenerationDataProvider")
+    public void testParallelGatewayGeneration(String supergraphFileName)
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("parallel_" + supergraphFileName));
+        GatewayProject project = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql"), outputPath);
+        project.setParallel(true);
+        GatewayCodeGenerator.generateGatewayProject(project);
+        for (String fileName : new String[]{GatewayCodeGenerator.TYPES_FILE_NAME,
+                GatewayCodeGenerator.QUERY_PLAN_FILE_NAME, GatewayCodeGenerator.SERVICE_FILE_NAME}) {
+            Assert.assertEquals(Files.readString(outputPath.resolve(fileName)),
+                    GatewayTestUtils.readWithLF(expectedResources.resolve(Paths.get(supergraphFileName, fileName))));
+        }
+    }
+
+    @Test(description = "Test streamed gateway generation matches the generated sources", dataProvider =
+            "GatewayGenerationDataProvider")
+    public void testStreamingGatewayGeneration(String supergraphFileName)
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("streaming_" + supergraphFileName));
+        GatewayProject project = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql"), outputPath);
+        project.setStreaming(true);
+        GatewayCodeGenerator.generateGatewayProject(project);
+        for (String fileName : new String[]{GatewayCodeGenerator.TYPES_FILE_NAME,
+                GatewayCodeGenerator.QUERY_PLAN_FILE_NAME, GatewayCodeGenerator.SERVICE_FILE_NAME}) {
+            Assert.assertEquals(Files.readString(outputPath.resolve(fileName)),
+                    GatewayTestUtils.readWithLF(expectedResources.resolve(Paths.get(supergraphFileName, fileName))));
+        }
+    }
+
+    @Test(description = "Test gateway generation from type definitions matches the executable schema output",
+            dataProvider = "GatewayGenerationDataProvider")
+    public void testGatewayGenerationFromTypeDefinitions(String supergraphFileName)
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("type_definitions_" + supergraphFileName));
+        GatewayProject project = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql"), outputPath,
+                SchemaLoadingMode.TYPE_DEFINITIONS);
+        Assert.assertNull(project.getSchema());
+        GatewayCodeGenerator.generateGatewayProject(project);
+        for (String fileName : new String[]{GatewayCodeGenerator.TYPES_FILE_NAME,
+                GatewayCodeGenerator.QUERY_PLAN_FILE_NAME, GatewayCodeGenerator.SERVICE_FILE_NAME}) {
+            Assert.assertEquals(Files.readString(outputPath.resolve(fileName)),
+                    GatewayTestUtils.readWithLF(expectedResources.resolve(Paths.get(supergraphFileName, fileName))));
+        }
+    }
+
+    @Test(description = "Test loading invalid supergraphs as type definitions", dataProvider =
+            "InvalidSupergraphDataProvider")
+    public void testInvalidSupergraphFromTypeDefinitions(String supergraphFileName) throws IOException {
+        try {
+            new GatewayProject("test", GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql"),
+                    tmpDir, SchemaLoadingMode.TYPE_DEFINITIONS);
+            Assert.fail("Expected the supergraph to be rejected: " + supergraphFileName);
+        } catch (ValidationException e) {
+            Assert.assertEquals(e.getMessage(), GatewayCodeGenerator.ERROR_INVALID_SCHEMA);
+        }
+    }
+
+    @Test(description = "Test incremental gateway generation only rewrites the changed files")
+    public void testIncrementalGatewayGeneration()
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("incremental"));
+        Path schemaPath = GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql");
+        GatewayProject project = new GatewayProject("test", schemaPath.toString(), outputPath.toString(), 9000);
+        project.setIncremental(true);
+        GatewayCodeGenerator.generateGatewayProject(project);
+        Assert.assertTrue(Files.exists(outputPath.resolve(GenerationManifest.MANIFEST_FILE_NAME)));
+
+        FileTime unchanged = FileTime.fromMillis(0);
+        String[] fileNames = {GatewayCodeGenerator.TYPES_FILE_NAME, GatewayCodeGenerator.QUERY_PLAN_FILE_NAME,
+                GatewayCodeGenerator.SERVICE_FILE_NAME, "resolver.bal"};
+        for (String fileName : fileNames) {
+            Files.setLastModifiedTime(outputPath.resolve(fileName), unchanged);
+        }
+        GatewayCodeGenerator.generateGatewayProject(project);
+        for (String fileName : fileNames) {
+            Assert.assertEquals(Files.getLastModifiedTime(outputPath.resolve(fileName)), unchanged);
+        }
+
+        GatewayProject portChanged = new GatewayProject("test", schemaPath.toString(), outputPath.toString(), 9001);
+        portChanged.setIncremental(true);
+        GatewayCodeGenerator.generateGatewayProject(portChanged);
+        Assert.assertEquals(Files.getLastModifiedTime(outputPath.resolve(GatewayCodeGenerator.TYPES_FILE_NAME)),
+                unchanged);
+        Assert.assertEquals(Files.getLastModifiedTime(outputPath.resolve(GatewayCodeGenerator.QUERY_PLAN_FILE_NAME)),
+                unchanged);
+        Assert.assertTrue(Files.readString(outputPath.resolve(GatewayCodeGenerator.SERVICE_FILE_NAME))
+                .contains("configurable int PORT = 9001;"));
+    }
+
+    @Test(description = "Test incremental gateway generation over the output of another supergraph",
+            dataProvider = "GatewayGenerationDataProvider")
+    public void testIncrementalGatewayGenerationOverExistingOutput(String supergraphFileName)
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("incremental_" + supergraphFileName));
+        GatewayProject previous = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("three_entities.graphql"), outputPath);
+        previous.setIncremental(true);
+        GatewayCodeGenerator.generateGatewayProject(previous);
+
+        GatewayProject project = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql"), outputPath);
+        project.setIncremental(true);
+        GatewayCodeGenerator.generateGatewayProject(project);
+        for (String fileName : new String[]{GatewayCodeGenerator.TYPES_FILE_NAME,
+                GatewayCodeGenerator.QUERY_PLAN_FILE_NAME, GatewayCodeGenerator.SERVICE_FILE_NAME}) {
+            Assert.assertEquals(Files.readString(outputPath.resolve(fileName)),
+                    GatewayTestUtils.readWithLF(expectedResources.resolve(Paths.get(supergraphFileName, fileName))));
+        }
+    }
+
+    @Test(description = "Test the subgraph client defaults set on the project are generated")
+    public void testSubgraphClientDefaultsGeneration()
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("subgraph_client_defaults"));
+        GatewayProject project = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql"), outputPath);
+        SubgraphClientDefaults defaults = new SubgraphClientDefaults();
+        defaults.setHttpVersion(SubgraphClientDefaults.HttpVersion.HTTP_1_1);
+        defaults.setMaxActiveConnections(200);
+        defaults.setKeepAlive(SubgraphClientDefaults.Mode.ALWAYS);
+        defaults.setTimeout(new BigDecimal("2.5"));
+        defaults.setRetryCount(3);
+        defaults.setRetryInterval(new BigDecimal("0.1"));
+        project.setSubgraphClientDefaults(defaults);
+        GatewayCodeGenerator.generateGatewayProject(project);
+        Assert.assertTrue(Files.readString(outputPath.resolve(GatewayCodeGenerator.SERVICE_FILE_NAME)).contains(
+                "final readonly & SubgraphClientDefaults SUBGRAPH_CLIENT_DEFAULTS = {httpVersion: \"1.1\", " +
+                        "maxActiveConnections: 200, maxIdleConnections: 100, waitTime: 30, keepAlive: \"ALWAYS\", " +
+                        "timeout: 2.5, retryCount: 3, retryInterval: 0.1, compression: \"AUTO\"};"));
+    }
+
+    @Test(description = "Test the subgraph client defaults passed to the generate gateway function are generated")
+    public void testGenerateGatewayFunctionWithSubgraphClientDefaults() throws IOException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("generate_gateway_client_defaults"));
+        BMap<BString, Object> clientDefaults = ValueCreator.createMapValue();
+        clientDefaults.put(GatewayCodeGenerator.CLIENT_TIMEOUT, ValueCreator.createDecimalValue(new BigDecimal("5")));
+        clientDefaults.put(GatewayCodeGenerator.CLIENT_RETRY_COUNT, 2L);
+        clientDefaults.put(GatewayCodeGenerator.CLIENT_RETRY_INTERVAL,
+                ValueCreator.createDecimalValue(new BigDecimal("0.5")));
+        clientDefaults.put(GatewayCodeGenerator.CLIENT_MAX_ACTIVE_CONNECTIONS, 50L);
+        clientDefaults.put(GatewayCodeGenerator.CLIENT_MAX_IDLE_CONNECTIONS, 10L);
+        clientDefaults.put(GatewayCodeGenerator.CLIENT_WAIT_TIME, ValueCreator.createDecimalValue(new BigDecimal("3")));
+        BString result = generateGateway(StringUtils.fromString(GatewayTestUtils.SCHEMA_RESOURCE_DIR
+                        .resolve("two_entities.graphql").toAbsolutePath().toString()),
+                StringUtils.fromString(outputPath.toString()), StringUtils.fromString("9000"),
+                StringUtils.fromString(""), false, false, false, clientDefaults);
+        Assert.assertEquals(result.getValue(), "success");
+        Assert.assertTrue(Files.readString(outputPath.resolve(GatewayCodeGenerator.SERVICE_FILE_NAME)).contains(
+                "final readonly & SubgraphClientDefaults SUBGRAPH_CLIENT_DEFAULTS = {httpVersion: \"2.0\", " +
+                        "maxActiveConnections: 50, maxIdleConnections: 10, waitTime: 3, keepAlive: \"AUTO\", " +
+                        "timeout: 5, retryCount: 2, retryInterval: 0.5, compression: \"AUTO\"};"));
+    }
+
+    @Test(description = "Test the persisted queries passed to the generator are embedded in the gateway")
+    public void testPersistedQueriesGeneration()
+            throws ValidationException, IOException, GatewayGenerationException {
+        Path outputPath = Files.createDirectories(tmpDir.resolve("persisted_queries"));
+        GatewayProject project = new GatewayProject("test",
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql"), outputPath);
+        GatewayCodeGenerator.generateGatewayProject(project);
+        Assert.assertTrue(Files.readString(outputPath.resolve(GatewayCodeGenerator.PERSISTED_QUERIES_FILE_NAME))
+                .contains("final string PERSISTED_QUERIES = \"[]\";"));
+
+        project.setPersistedQueriesPath(this.resourceDir.resolve(Paths.get("persisted_queries", "two_entities.json")));
+        GatewayCodeGenerator.generateGatewayProject(project);
+        Assert.assertTrue(Files.readString(outputPath.resolve(GatewayCodeGenerator.PERSISTED_QUERIES_FILE_NAME))
+                .contains("final string PERSISTED_QUERIES = \"[\\\"query { astronauts { id name } }\\\"]\\n\";"));
+    }
+
+    @Test(description = "Test the generation daemon regenerates the gateway when the supergraph changes",
+            timeOut = 60000)
+    public void testGatewayGenerationDaemon() throws IOException, InterruptedException {
+        Path watchedPath = Files.createDirectories(tmpDir.resolve("watched"));
+        Path outputPath = Files.createDirectories(tmpDir.resolve("watched_output"));
+        Path supergraphPath = Files.copy(GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql"),
+                watchedPath.resolve("supergraph.graphql"));
+        Path typesPath = outputPath.resolve(GatewayCodeGenerator.TYPES_FILE_NAME);
+
+        GatewayGenerationDaemon daemon = new GatewayGenerationDaemon(supergraphPath, outputPath, 9000,
+                new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8));
+        Thread daemonThread = new Thread(daemon::run);
+        daemonThread.start();
+        try {
+            String expectedTypes = GatewayTestUtils.readWithLF(expectedResources.resolve(
+                    Paths.get("two_entities", GatewayCodeGenerator.TYPES_FILE_NAME)));
+            waitForContent(typesPath, expectedTypes);
+
+            Files.copy(GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("three_entities.graphql"), supergraphPath,
+                    StandardCopyOption.REPLACE_EXISTING);
+            expectedTypes = GatewayTestUtils.readWithLF(expectedResources.resolve(
+                    Paths.get("three_entities", GatewayCodeGenerator.TYPES_FILE_NAME)));
+            waitForContent(typesPath, expectedTypes);
+        } finally {
+            daemon.close();
+            daemonThread.join();
+        }
+    }
+
+    @Test(description = "Test the generation daemon generates the gateway with the given options", timeOut = 60000)
+    public void testGatewayGenerationDaemonWithOptions() throws IOException, InterruptedException {
+        Path watchedPath = Files.createDirectories(tmpDir.resolve("watched_options"));
+        Path outputPath = Files.createDirectories(tmpDir.resolve("watched_options_output"));
+        Path supergraphPath = Files.copy(GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql"),
+                watchedPath.resolve("supergraph.graphql"));
+        SubgraphClientDefaults defaults = new SubgraphClientDefaults();
+        defaults.setTimeout(new BigDecimal("5"));
+
+        GatewayGenerationDaemon daemon = new GatewayGenerationDaemon(supergraphPath, outputPath, 9000,
+                this.resourceDir.resolve(Paths.get("persisted_queries", "two_entities.json")), defaults,
+                new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8));
+        Thread daemonThread = new Thread(daemon::run);
+        daemonThread.start();
+        try {
+            waitForContaining(outputPath.resolve(GatewayCodeGenerator.PERSISTED_QUERIES_FILE_NAME),
+                    "final string PERSISTED_QUERIES = \"[\\\"query { astronauts { id name } }\\\"]\\n\";");
+            waitForContaining(outputPath.resolve(GatewayCodeGenerator.SERVICE_FILE_NAME), "timeout: 5, retryCount: 0");
+        } finally {
+            daemon.close();
+            daemonThread.join();
+        }
+    }
+
+    @Test(description = "Test the generation daemon keeps regenerating the gateway after an unparsable supergraph",
+            timeOut = 60000)
+    public void testGatewayGenerationDaemonWithUnparsableSupergraph() throws IOException, InterruptedException {
+        Path watchedPath = Files.createDirectories(tmpDir.resolve("watched_unparsable"));
+        Path outputPath = Files.createDirectories(tmpDir.resolve("watched_unparsable_output"));
+        Path supergraphPath = Files.copy(GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql"),
+                watchedPath.resolve("supergraph.graphql"));
+        Path typesPath = outputPath.resolve(GatewayCodeGenerator.TYPES_FILE_NAME);
+
+        ByteArrayOutputStream daemonOutput = new ByteArrayOutputStream();
+        GatewayGenerationDaemon daemon = new GatewayGenerationDaemon(supergraphPath, outputPath, 9000,
+                new PrintStream(daemonOutput, true, StandardCharsets.UTF_8));
+        Thread daemonThread = new Thread(daemon::run);
+        daemonThread.start();
+        try {
+            waitForContent(typesPath, GatewayTestUtils.readWithLF(expectedResources.resolve(
+                    Paths.get("two_entities", GatewayCodeGenerator.TYPES_FILE_NAME))));
+
+            Files.writeString(supergraphPath, "schema @link(url: \"https://specs.apollo.dev/link/v1.0\") { type");
+            while (!daemonOutput.toString(StandardCharsets.UTF_8).contains("Error: ")) {
+                Thread.sleep(100);
+            }
+
+            Files.copy(GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("three_entities.graphql"), supergraphPath,
+                    StandardCopyOption.REPLACE_EXISTING);
+            waitForContent(typesPath, GatewayTestUtils.readWithLF(expectedResources.resolve(
+                    Paths.get("three_entities", GatewayCodeGenerator.TYPES_FILE_NAME))));
+            Assert.assertTrue(daemonThread.isAlive());
+        } finally {
+            daemon.close();
+            daemonThread.join();
+        }
+    }
+
+    private static void waitForContent(Path path, String expected) throws IOException, InterruptedException {
+        while (!Files.exists(path) || !Files.readString(path).equals(expected)) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static void waitForContaining(Path path, String expected) throws IOException, InterruptedException {
+        while (!Files.exists(path) || !Files.readString(path).contains(expected)) {
+            Thread.sleep(100);
+        }
+    }
+
     @Test(description = "Test generate gateway function", dataProvider = "GatewayGenerationDataProvider")
     public void testGenerateGatewayFunction(String supergraphFileName) {
         String schemaPath = GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql")
@@ -85,6 +368,26 @@ public class GatewayCodeGenerationTest extends GraphqlTest {
         Assert.assertEquals(gatewayFilePath.getValue(), "success");
     }
 
+    @Test(description = "Test generate gateway function with the generation modes")
+    public void testGenerateGatewayFunctionWithGenerationModes() throws IOException {
+        String schemaPath = GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve("two_entities.graphql")
+                .toAbsolutePath().toString();
+        Path outputPath = Files.createDirectories(tmpDir.resolve("generation_modes"));
+        BString result = generateGateway(StringUtils.fromString(schemaPath),
+                StringUtils.fromString(outputPath.toString()), StringUtils.fromString("9000"),
+                StringUtils.fromString(""), true, false, true, ValueCreator.createMapValue());
+        Assert.assertEquals(result.getValue(), "success");
+        Assert.assertTrue(Files.exists(outputPath.resolve(GenerationManifest.MANIFEST_FILE_NAME)));
+        Assert.assertEquals(Files.readString(outputPath.resolve(GatewayCodeGenerator.SERVICE_FILE_NAME)),
+                GatewayTestUtils.readWithLF(expectedResources.resolve(Paths.get("two_entities",
+                        GatewayCodeGenerator.SERVICE_FILE_NAME))));
+
+        result = generateGateway(StringUtils.fromString(schemaPath), StringUtils.fromString(outputPath.toString()),
+                StringUtils.fromString("9000"), StringUtils.fromString(""), true, true, false,
+                ValueCreator.createMapValue());
+        Assert.assertEquals(result.getValue(), GatewayCodeGenerator.ERROR_STREAMING_AND_PARALLEL);
+    }
+
     @Test(description = "Test generate gateway function with invalid arguments", dataProvider =
             "InvalidArgumentsDataProvider")
     public void testGenerateGatewayFunctionWithInvalidArguments(String supergraphFileName, String outputPath,
@@ -106,6 +409,14 @@ public class GatewayCodeGenerationTest extends GraphqlTest {
         };
     }
 
+    @DataProvider(name = "InvalidSupergraphDataProvider")
+    public Object[][] getInvalidSupergraphTestData() {
+        return new Object[][]{
+                {"invalid/missing_directive_definitions"},
+                {"invalid/missing_query_type"}
+        };
+    }
+
     @DataProvider(name = "InvalidArgumentsDataProvider")
     public Object[][] getInvalidArgumentsTestData() {
         String tempPath = tmpDir.toAbsolutePath().toString();
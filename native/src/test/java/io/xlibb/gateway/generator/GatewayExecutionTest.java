@@ -38,6 +38,8 @@ import java.nio.file.Paths;
 public class GatewayExecutionTest {
     private static final int PORT = 9001;
     private static final String GATEWAY_URL = "http://localhost:" + PORT;
+    private static final int PERSISTED_QUERIES_ONLY_PORT = 9002;
+    private static final String PERSISTED_QUERIES_ONLY_GATEWAY_URL = "http://localhost:" + PERSISTED_QUERIES_ONLY_PORT;
     private static final String ASTRONAUT_SUBGRAPH_URL = "http://localhost:5001";
     private static final String MISSION_SUBGRAPH_URL = "http://localhost:5002";
 
@@ -46,6 +48,7 @@ public class GatewayExecutionTest {
     private static final Path services = Paths.get("src/test/resources/sample_subgraph_services");
 
     private Path tmpDir;
+    private File gatewayExec;
     Process astronautServiceProcess;
     Process missionsServiceProcess;
     Process gatewayProcess;
@@ -56,8 +59,8 @@ public class GatewayExecutionTest {
         GatewayProject gatewayProject = new GatewayProject("test", supergraphSdl.toAbsolutePath().toString(),
                 tmpDir.toAbsolutePath().toString(), 9001);
         GatewayCodeGenerator.generateGatewayProject(gatewayProject);
-        File gatewayExec = GatewayTestUtils
-                .getBallerinaExecutableJar(gatewayProject.getOutputPath(), gatewayProject.getTempDir());
+        gatewayExec = GatewayTestUtils
+                .getBallerinaExecutableJar(gatewayProject.getOutputPath(), tmpDir);
         gatewayProcess = new ProcessBuilder("java", "-jar", gatewayExec.getAbsolutePath()).start();
         astronautServiceProcess = new ProcessBuilder("java", "-jar",
                 GatewayTestUtils.getBallerinaExecutableJar(
@@ -118,4 +121,21 @@ public class GatewayExecutionTest {
         };
     }
 
+    @Test(description = "Test a document sent as a query parameter is rejected when only persisted queries are allowed")
+    public void testPersistedQueriesOnlyWithQueryParameter() throws IOException {
+        Process persistedQueriesOnlyGatewayProcess = new ProcessBuilder("java", "-jar",
+                gatewayExec.getAbsolutePath(), "-CPORT=" + PERSISTED_QUERIES_ONLY_PORT,
+                "-CPERSISTED_QUERIES_ONLY=true").start();
+        try {
+            GatewayTestUtils.waitTillUrlIsAvailable(persistedQueriesOnlyGatewayProcess,
+                    PERSISTED_QUERIES_ONLY_GATEWAY_URL);
+            String response = GatewayTestUtils.getGraphqlGetResponse(PERSISTED_QUERIES_ONLY_GATEWAY_URL,
+                    "{ astronauts { name } }");
+            Assert.assertTrue(response.contains("PersistedQueryNotAllowed"), response);
+            Assert.assertFalse(response.contains("\"astronauts\""), response);
+        } finally {
+            persistedQueriesOnlyGatewayProcess.destroy();
+        }
+    }
+
 }
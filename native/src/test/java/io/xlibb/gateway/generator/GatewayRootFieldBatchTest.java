@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import io.xlibb.gateway.exception.ValidationException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class to test the root fields of an operation sent to the same subgraph are combined into a single request.
+ * The astronauts subgraph is replaced by a server counting the requests it receives.
+ */
+public class GatewayRootFieldBatchTest {
+    private static final int PORT = 9003;
+    private static final String GATEWAY_URL = "http://localhost:" + PORT;
+    private static final String ASTRONAUT_SUBGRAPH_URL = "http://localhost:5001";
+    private static final int COUNTING_SUBGRAPH_PORT = 5003;
+    private static final String COUNTING_SUBGRAPH_URL = "http://localhost:" + COUNTING_SUBGRAPH_PORT;
+    private static final String ROOT_FIELD_BATCH_WINDOW = "0.5";
+    private static final Pattern ALIASED_ROOT_FIELD = Pattern.compile("(f\\d+): (\\w+)");
+
+    private static final Path supergraphSdl =
+            Paths.get("src/test/resources/supergraph_schemas/two_entities.graphql");
+
+    private final AtomicInteger subgraphRequestCount = new AtomicInteger();
+    private Path tmpDir;
+    private HttpServer countingSubgraph;
+    private Process gatewayProcess;
+
+    @BeforeClass
+    public void setup() throws IOException, GatewayGenerationException, ValidationException {
+        this.tmpDir = Files.createTempDirectory("graphql-gateway-" + System.nanoTime());
+        Path supergraphPath = tmpDir.resolve("supergraph.graphql");
+        Files.writeString(supergraphPath,
+                Files.readString(supergraphSdl).replace(ASTRONAUT_SUBGRAPH_URL, COUNTING_SUBGRAPH_URL));
+        Path outputPath = Files.createDirectories(tmpDir.resolve("gateway"));
+        GatewayProject gatewayProject = new GatewayProject("test", supergraphPath.toString(), outputPath.toString(),
+                PORT);
+        GatewayCodeGenerator.generateGatewayProject(gatewayProject);
+        File gatewayExec = GatewayTestUtils.getBallerinaExecutableJar(gatewayProject.getOutputPath(), tmpDir);
+
+        countingSubgraph = HttpServer.create(new InetSocketAddress(COUNTING_SUBGRAPH_PORT), 0);
+        countingSubgraph.createContext("/", this::respondToSubgraphRequest);
+        countingSubgraph.start();
+        gatewayProcess = new ProcessBuilder("java", "-jar", gatewayExec.getAbsolutePath(),
+                "-CROOT_FIELD_BATCH_WINDOW=" + ROOT_FIELD_BATCH_WINDOW).start();
+        GatewayTestUtils.waitTillUrlIsAvailable(gatewayProcess, GATEWAY_URL);
+    }
+
+    @AfterClass
+    public void cleanup() throws IOException {
+        gatewayProcess.destroy();
+        countingSubgraph.stop(0);
+        GatewayTestUtils.deleteDirectory(tmpDir);
+    }
+
+    @Test(description = "Test two root fields resolved by the same subgraph are sent in a single request")
+    public void testRootFieldsOfSameSubgraphSentInSingleRequest() throws IOException {
+        subgraphRequestCount.set(0);
+        String response = GatewayTestUtils.getGraphqlQueryResponse(GATEWAY_URL,
+                "serviceName isExist(name: \\\"Neil\\\")");
+        Assert.assertEquals(subgraphRequestCount.get(), 1);
+        Assert.assertEquals(response, "{\"data\":{\"serviceName\":\"Astronauts\",\"isExist\":true}}");
+    }
+
+    // Responds to a combined request with the value of each aliased root field.
+    private void respondToSubgraphRequest(HttpExchange exchange) throws IOException {
+        subgraphRequestCount.incrementAndGet();
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        StringJoiner data = new StringJoiner(",", "{\"data\":{", "}}");
+        Matcher matcher = ALIASED_ROOT_FIELD.matcher(request);
+        while (matcher.find()) {
+            String value = "serviceName".equals(matcher.group(2)) ? "\"Astronauts\"" : "true";
+            data.add("\"" + matcher.group(1) + "\":" + value);
+        }
+        byte[] response = data.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+}
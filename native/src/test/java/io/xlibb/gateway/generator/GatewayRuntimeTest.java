@@ -0,0 +1,496 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.idl.RuntimeWiring;
+import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import io.xlibb.gateway.exception.ValidationException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Class to test the runtime behaviour of a generated gateway against subgraphs recording the requests they receive.
+ * The gateway is compiled once and run with a configuration of its own for each group of tests.
+ */
+public class GatewayRuntimeTest {
+    private static final String ASTRONAUTS_SUBGRAPH_URL = "http://localhost:5001";
+    private static final String MISSIONS_SUBGRAPH_URL = "http://localhost:5002";
+    private static final int ASTRONAUTS_PORT = 5011;
+    private static final int MISSIONS_PORT = 5012;
+    private static final int DEFAULT_PORT = 9011;
+    private static final String DEFAULT_GATEWAY_URL = "http://localhost:" + DEFAULT_PORT;
+    private static final int TUNED_PORT = 9012;
+    private static final String TUNED_GATEWAY_URL = "http://localhost:" + TUNED_PORT;
+    private static final String TUNED_CONFIG = String.join("\n",
+            "PORT = " + TUNED_PORT,
+            "MAX_CONCURRENT_FETCHES = 1",
+            "",
+            "[ENTITY_BATCH_SIZES]",
+            "astronauts = 2",
+            "missions = 2",
+            "",
+            "[ENTITY_CACHE_TTLS]",
+            "Astronaut = 60.0",
+            "");
+    private static final int CACHED_PORT = 9013;
+    private static final String CACHED_GATEWAY_URL = "http://localhost:" + CACHED_PORT;
+    // The budget holds the response of a single mission designation, so caching another one evicts it.
+    private static final String CACHED_CONFIG = String.join("\n",
+            "PORT = " + CACHED_PORT,
+            "RESPONSE_CACHE_MAX_BYTES = 40",
+            "",
+            "[RESPONSE_CACHE_TTLS]",
+            "mission = 60.0",
+            "");
+    private static final String ENTITIES = "_entities";
+    private static final String ASTRONAUT_MISSIONS_RESPONSE = "{\"data\":{\"astronauts\":[" +
+            "{\"id\":1,\"missions\":[{\"designation\":\"Apollo11\"},{\"designation\":\"Gemini8\"}]}," +
+            "{\"id\":2,\"missions\":[{\"designation\":\"Apollo11\"},{\"designation\":\"Gemini8\"}]}," +
+            "{\"id\":3,\"missions\":[{\"designation\":\"Gemini8\"}]}," +
+            "{\"id\":4,\"missions\":[{\"designation\":\"Vostok\"}]}," +
+            "{\"id\":5,\"missions\":[{\"designation\":\"Vostok\"}]}]}}";
+    private static final String MISSIONS_CREW_RESPONSE = "{\"data\":{\"missions\":[" +
+            "{\"id\":1,\"crew\":[{\"name\":\"Neil\"},{\"name\":\"Buzz\"}]}," +
+            "{\"id\":2,\"crew\":[{\"name\":\"Neil\"},null,{\"name\":\"Buzz\"},{\"name\":\"Michael\"}," +
+            "{\"name\":\"Neil\"}]}," +
+            "{\"id\":3,\"crew\":[{\"name\":\"Yuri\"},{\"name\":\"Valentina\"}]}]}}";
+    private static final long OVERLAP_DELAY = 1000;
+    private static final String[] ASTRONAUT_NAMES = {"Neil", "Buzz", "Michael", "Yuri", "Valentina"};
+
+    private static final GraphQLScalarType ANY_SCALAR = ExtendedScalars.Json.transform(scalar -> scalar.name("_Any"));
+    private static final String ASTRONAUTS_SDL = String.join("\n",
+            "scalar _Any",
+            "union _Entity = Astronaut",
+            "type Astronaut { id: Int! name: String! }",
+            "type Query {",
+            "  astronauts: [Astronaut!]!",
+            "  astronaut(id: Int!): Astronaut",
+            "  serviceName: String!",
+            "  isExist(name: String!): Boolean!",
+            "  _entities(representations: [_Any!]!): [_Entity]!",
+            "}",
+            "type Mutation { setServiceName(name: String!): String! }");
+    private static final String MISSIONS_SDL = String.join("\n",
+            "scalar _Any",
+            "union _Entity = Astronaut",
+            "type Astronaut { id: Int! missions: [Mission!]! }",
+            "type Mission { id: Int! designation: String! startDate: String endDate: String crew: [Astronaut] }",
+            "input MissionInput { designation: String! startDate: String endDate: String crewIds: [Int!]! }",
+            "type Query {",
+            "  missions: [Mission!]!",
+            "  mission(id: Int!): Mission!",
+            "  _entities(representations: [_Any!]!): [_Entity]!",
+            "}",
+            "type Mutation { addMission(missionInput: MissionInput!): Mission! }");
+
+    private static final Path supergraphSdl =
+            Paths.get("src/test/resources/supergraph_schemas/two_entities.graphql");
+
+    private final List<Map<String, Object>> missions = new ArrayList<>();
+    private Path tmpDir;
+    private RecordingSubgraph astronautsSubgraph;
+    private RecordingSubgraph missionsSubgraph;
+    private File gatewayExec;
+    private final List<Process> gatewayProcesses = new ArrayList<>();
+
+    @BeforeClass
+    public void setup() throws IOException, GatewayGenerationException, ValidationException {
+        this.tmpDir = Files.createTempDirectory("graphql-gateway-" + System.nanoTime());
+        Path supergraphPath = tmpDir.resolve("supergraph.graphql");
+        Files.writeString(supergraphPath, Files.readString(supergraphSdl)
+                .replace(ASTRONAUTS_SUBGRAPH_URL, "http://localhost:" + ASTRONAUTS_PORT)
+                .replace(MISSIONS_SUBGRAPH_URL, "http://localhost:" + MISSIONS_PORT));
+        Path outputPath = Files.createDirectories(tmpDir.resolve("gateway"));
+        GatewayProject gatewayProject = new GatewayProject("test", supergraphPath.toString(), outputPath.toString(),
+                TUNED_PORT);
+        GatewayCodeGenerator.generateGatewayProject(gatewayProject);
+        gatewayExec = GatewayTestUtils.getBallerinaExecutableJar(gatewayProject.getOutputPath(), tmpDir);
+
+        astronautsSubgraph = new RecordingSubgraph(ASTRONAUTS_PORT, ASTRONAUTS_SDL, getAstronautsWiring());
+        missionsSubgraph = new RecordingSubgraph(MISSIONS_PORT, MISSIONS_SDL, getMissionsWiring());
+        astronautsSubgraph.start();
+        missionsSubgraph.start();
+        startGateway("default", DEFAULT_GATEWAY_URL, "PORT = " + DEFAULT_PORT + "\n");
+        startGateway("tuned", TUNED_GATEWAY_URL, TUNED_CONFIG);
+        startGateway("cached", CACHED_GATEWAY_URL, CACHED_CONFIG);
+    }
+
+    @AfterClass
+    public void cleanup() throws IOException {
+        gatewayProcesses.forEach(Process::destroy);
+        astronautsSubgraph.stop();
+        missionsSubgraph.stop();
+        GatewayTestUtils.deleteDirectory(tmpDir);
+    }
+
+    @BeforeMethod
+    public void resetSubgraphs() {
+        astronautsSubgraph.reset();
+        missionsSubgraph.reset();
+        synchronized (missions) {
+            missions.clear();
+            missions.add(getMission(1, "Apollo11", 1, 2));
+            missions.add(getMission(2, "Gemini8", 1, null, 2, 3, 1));
+            missions.add(getMission(3, "Vostok", 4, 5));
+        }
+    }
+
+    @Test(description = "Test the repeated keys of a list are fetched once and the null elements are kept")
+    public void testRepeatedEntityKeysFetchedOnce() throws IOException {
+        String response = GatewayTestUtils.getGraphqlQueryResponse(DEFAULT_GATEWAY_URL,
+                "missions { id crew { name } }");
+        Assert.assertEquals(response, MISSIONS_CREW_RESPONSE);
+        // Nine crew members with five distinct keys are fetched in a single request.
+        Assert.assertEquals(getFetchedIds(astronautsSubgraph), List.of(List.of(1, 2, 3, 4, 5)));
+    }
+
+    @Test(description = "Test the entity fetches of a level are sent one at a time with a window of one fetch")
+    public void testEntityFetchesWithWindowOfOne() throws IOException {
+        missionsSubgraph.setDelay(ENTITIES, 200);
+        String response = GatewayTestUtils.getGraphqlQueryResponse(TUNED_GATEWAY_URL,
+                "astronauts { id missions { designation } }");
+        Assert.assertEquals(response, ASTRONAUT_MISSIONS_RESPONSE);
+        // The five astronauts are fetched in chunks of two, so the level has three fetches.
+        Assert.assertEquals(missionsSubgraph.getRequests(ENTITIES).size(), 3);
+        Assert.assertEquals(missionsSubgraph.getMaxInFlight(), 1);
+    }
+
+    @Test(description = "Test the representations of an entity fetch are sent in chunks of the batch size, " +
+            "leaving out the cached entities")
+    public void testEntityFetchChunkedByBatchSize() throws IOException {
+        String response = GatewayTestUtils.getGraphqlQueryResponse(TUNED_GATEWAY_URL,
+                "mission(id: 3) { crew { name } }");
+        Assert.assertEquals(response,
+                "{\"data\":{\"mission\":{\"crew\":[{\"name\":\"Yuri\"},{\"name\":\"Valentina\"}]}}}");
+        Assert.assertEquals(getFetchedIds(astronautsSubgraph), List.of(List.of(4, 5)));
+
+        // The crew of mission 3 is cached, so only the other three astronauts are fetched, in chunks of two.
+        astronautsSubgraph.reset();
+        response = GatewayTestUtils.getGraphqlQueryResponse(TUNED_GATEWAY_URL, "missions { id crew { name } }");
+        Assert.assertEquals(response, MISSIONS_CREW_RESPONSE);
+        Assert.assertEquals(getFetchedIds(astronautsSubgraph), List.of(List.of(1, 2), List.of(3)));
+    }
+
+    @Test(description = "Test identical concurrent fetches share a single subgraph request")
+    public void testIdenticalConcurrentFetchesCoalesced() throws Exception {
+        astronautsSubgraph.setDelay("astronauts", OVERLAP_DELAY);
+        missionsSubgraph.setDelay(ENTITIES, OVERLAP_DELAY);
+        String query = "astronauts { id missions { designation } }";
+        List<String> responses = getConcurrentResponses(DEFAULT_GATEWAY_URL, query, query);
+        Assert.assertEquals(responses, List.of(ASTRONAUT_MISSIONS_RESPONSE, ASTRONAUT_MISSIONS_RESPONSE));
+        Assert.assertEquals(astronautsSubgraph.getRequests("astronauts").size(), 1);
+        Assert.assertEquals(missionsSubgraph.getRequests(ENTITIES).size(), 1);
+    }
+
+    @Test(description = "Test concurrent fetches with different variables are not coalesced")
+    public void testConcurrentFetchesWithDifferentVariablesNotCoalesced() throws Exception {
+        astronautsSubgraph.setDelay("astronaut", OVERLAP_DELAY);
+        List<String> responses = getConcurrentResponses(DEFAULT_GATEWAY_URL,
+                "astronaut(id: 1) { name }", "astronaut(id: 2) { name }");
+        Assert.assertEquals(responses, List.of("{\"data\":{\"astronaut\":{\"name\":\"Neil\"}}}",
+                "{\"data\":{\"astronaut\":{\"name\":\"Buzz\"}}}"));
+        Assert.assertEquals(astronautsSubgraph.getRequests("astronaut").size(), 2);
+    }
+
+    @Test(description = "Test concurrent entity fetches with different documents are not coalesced")
+    public void testConcurrentFetchesWithDifferentDocumentsNotCoalesced() throws Exception {
+        astronautsSubgraph.setDelay("astronauts", OVERLAP_DELAY);
+        missionsSubgraph.setDelay(ENTITIES, OVERLAP_DELAY);
+        List<String> responses = getConcurrentResponses(DEFAULT_GATEWAY_URL,
+                "astronauts { id missions { designation } }", "astronauts { id missions { id } }");
+        Assert.assertEquals(responses.get(0), ASTRONAUT_MISSIONS_RESPONSE);
+        Assert.assertEquals(responses.get(1), "{\"data\":{\"astronauts\":[" +
+                "{\"id\":1,\"missions\":[{\"id\":1},{\"id\":2}]},{\"id\":2,\"missions\":[{\"id\":1},{\"id\":2}]}," +
+                "{\"id\":3,\"missions\":[{\"id\":2}]},{\"id\":4,\"missions\":[{\"id\":3}]}," +
+                "{\"id\":5,\"missions\":[{\"id\":3}]}]}}");
+        Assert.assertEquals(missionsSubgraph.getRequests(ENTITIES).size(), 2);
+    }
+
+    @Test(description = "Test the error of a coalesced fetch is returned to every operation waiting for it")
+    public void testCoalescedFetchErrorReturnedToEveryWaiter() throws Exception {
+        astronautsSubgraph.setDelay("astronauts", OVERLAP_DELAY);
+        astronautsSubgraph.setFailing(true);
+        List<String> responses = getConcurrentResponses(DEFAULT_GATEWAY_URL, "astronauts { id }",
+                "astronauts { id }");
+        Assert.assertTrue(responses.get(0).contains("\"errors\""), responses.get(0));
+        Assert.assertEquals(responses.get(1), responses.get(0));
+        Assert.assertEquals(astronautsSubgraph.getRequests("astronauts").size(), 1);
+    }
+
+    @Test(description = "Test a root field resolves the entities loaded by another root field of the operation")
+    public void testEntitiesLoadedByRootFieldReused() throws IOException {
+        // The astronaut root field is delayed, so its entities are resolved after the astronauts have been loaded.
+        astronautsSubgraph.setDelay("astronaut", OVERLAP_DELAY);
+        String response = GatewayTestUtils.getGraphqlQueryResponse(DEFAULT_GATEWAY_URL,
+                "astronauts { id missions { designation } } astronaut(id: 1) { missions { designation } }");
+        Assert.assertEquals(response, "{\"data\":{\"astronauts\":[" +
+                "{\"id\":1,\"missions\":[{\"designation\":\"Apollo11\"},{\"designation\":\"Gemini8\"}]}," +
+                "{\"id\":2,\"missions\":[{\"designation\":\"Apollo11\"},{\"designation\":\"Gemini8\"}]}," +
+                "{\"id\":3,\"missions\":[{\"designation\":\"Gemini8\"}]}," +
+                "{\"id\":4,\"missions\":[{\"designation\":\"Vostok\"}]}," +
+                "{\"id\":5,\"missions\":[{\"designation\":\"Vostok\"}]}]," +
+                "\"astronaut\":{\"missions\":[{\"designation\":\"Apollo11\"},{\"designation\":\"Gemini8\"}]}}}");
+        Assert.assertEquals(missionsSubgraph.getRequests(ENTITIES).size(), 1);
+    }
+
+    @Test(description = "Test a document registered with its hash is executed from a later request of the hash")
+    public void testPersistedQueryRegisteredAndLookedUp() throws Exception {
+        String document = "{ astronauts { name } }";
+        String hash = getDocumentHash(document);
+        String expected = "{\"data\":{\"astronauts\":[{\"name\":\"Neil\"},{\"name\":\"Buzz\"}," +
+                "{\"name\":\"Michael\"},{\"name\":\"Yuri\"},{\"name\":\"Valentina\"}]}}";
+
+        String response = GatewayTestUtils.getGraphqlPayloadResponse(DEFAULT_GATEWAY_URL,
+                getPersistedQueryPayload(document, hash));
+        Assert.assertEquals(GatewayTestUtils.replaceWhiteSpacesAndNewLines(response), expected);
+        response = GatewayTestUtils.getGraphqlPayloadResponse(DEFAULT_GATEWAY_URL,
+                getPersistedQueryPayload(null, hash));
+        Assert.assertEquals(GatewayTestUtils.replaceWhiteSpacesAndNewLines(response), expected);
+        Assert.assertEquals(astronautsSubgraph.getRequests("astronauts").size(), 2);
+    }
+
+    @Test(description = "Test a document sent with the hash of another document is rejected")
+    public void testPersistedQueryWithHashMismatch() throws Exception {
+        String response = GatewayTestUtils.getGraphqlPayloadResponse(DEFAULT_GATEWAY_URL,
+                getPersistedQueryPayload("{ astronauts { id } }", getDocumentHash("{ missions { id } }")));
+        Assert.assertTrue(response.contains("provided sha does not match query"), response);
+        Assert.assertTrue(astronautsSubgraph.getRequests("astronauts").isEmpty());
+    }
+
+    @Test(description = "Test a hash without a registered document is answered with PersistedQueryNotFound")
+    public void testPersistedQueryNotFound() throws Exception {
+        String response = GatewayTestUtils.getGraphqlPayloadResponse(DEFAULT_GATEWAY_URL,
+                getPersistedQueryPayload(null, getDocumentHash("{ serviceName }")));
+        Assert.assertEquals(GatewayTestUtils.replaceWhiteSpacesAndNewLines(response),
+                "{\"errors\":[{\"message\":\"PersistedQueryNotFound\"}]}");
+        Assert.assertTrue(astronautsSubgraph.getRequests("serviceName").isEmpty());
+    }
+
+    @Test(description = "Test a cached response is reused until a mutation selecting its types succeeds")
+    public void testCachedResponseInvalidatedByMutation() throws IOException {
+        String query = "mission(id: 1) { designation }";
+        String expected = "{\"data\":{\"mission\":{\"designation\":\"Apollo11\"}}}";
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL, query), expected);
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL, query), expected);
+        Assert.assertEquals(missionsSubgraph.getRequests("mission").size(), 1);
+
+        // A mutation not selecting a mission keeps the cached response.
+        Assert.assertEquals(GatewayTestUtils.getGraphqlMutationResponse(CACHED_GATEWAY_URL,
+                "mutation { setServiceName(name: \\\"Gateway\\\") }"), "{\"data\":{\"setServiceName\":\"Gateway\"}}");
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL, query), expected);
+        Assert.assertEquals(missionsSubgraph.getRequests("mission").size(), 1);
+
+        // A mutation selecting a mission bumps the generation of the type, so the response is fetched again.
+        Assert.assertEquals(GatewayTestUtils.getGraphqlMutationResponse(CACHED_GATEWAY_URL,
+                "mutation { addMission(missionInput: { designation: \\\"Artemis\\\", crewIds: [1] }) { id } }"),
+                "{\"data\":{\"addMission\":{\"id\":4}}}");
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL, query), expected);
+        Assert.assertEquals(missionsSubgraph.getRequests("mission").size(), 2);
+    }
+
+    @Test(description = "Test the least recently used response is evicted once the byte budget is exceeded")
+    public void testCachedResponseEvictedOverByteBudget() throws IOException {
+        String secondMission = "{\"data\":{\"mission\":{\"designation\":\"Gemini8\"}}}";
+        String thirdMission = "{\"data\":{\"mission\":{\"designation\":\"Vostok\"}}}";
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL,
+                "mission(id: 2) { designation }"), secondMission);
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL,
+                "mission(id: 3) { designation }"), thirdMission);
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL,
+                "mission(id: 3) { designation }"), thirdMission);
+        Assert.assertEquals(missionsSubgraph.getRequests("mission").size(), 2);
+
+        // Caching the third mission evicted the second one.
+        Assert.assertEquals(GatewayTestUtils.getGraphqlQueryResponse(CACHED_GATEWAY_URL,
+                "mission(id: 2) { designation }"), secondMission);
+        Assert.assertEquals(missionsSubgraph.getRequests("mission").size(), 3);
+    }
+
+    // Returns the payload of an automatic persisted query, with the document if it is not null.
+    private static String getPersistedQueryPayload(String document, String hash) {
+        String query = document == null ? "" : "\"query\":\"" + document + "\",";
+        return "{" + query + "\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"" + hash +
+                "\"}}}";
+    }
+
+    // Returns the sha256 hash of a document as a lowercase hex string, as clients of persisted queries send it.
+    private static String getDocumentHash(String document) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(document.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
+    // Send queries to the gateway at the same time, returning their responses in the order of the queries.
+    private static List<String> getConcurrentResponses(String url, String... queries) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(queries.length);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (String query : queries) {
+                futures.add(executor.submit(() -> GatewayTestUtils.getGraphqlQueryResponse(url, query)));
+            }
+            List<String> responses = new ArrayList<>();
+            for (Future<String> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Start a process of the compiled gateway with a configuration of its own.
+    private void startGateway(String name, String url, String config) throws IOException {
+        Path configPath = tmpDir.resolve(name + "-Config.toml");
+        Files.writeString(configPath, config);
+        ProcessBuilder processBuilder = new ProcessBuilder("java", "-jar", gatewayExec.getAbsolutePath());
+        processBuilder.environment().put("BAL_CONFIG_FILES", configPath.toString());
+        Process process = processBuilder.start();
+        gatewayProcesses.add(process);
+        GatewayTestUtils.waitTillUrlIsAvailable(process, url);
+    }
+
+    // Returns the representations of the entities fetched by a request.
+    private static List<?> getRepresentations(RecordingSubgraph.Request request) {
+        return (List<?>) request.getVariables().get("representations");
+    }
+
+    // Returns the ids of the entities fetched by each request of a subgraph.
+    private static List<List<Object>> getFetchedIds(RecordingSubgraph subgraph) {
+        return subgraph.getRequests(ENTITIES).stream()
+                .map(request -> getRepresentations(request).stream()
+                        .map(representation -> ((Map<?, ?>) representation).get("id"))
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> getMission(int id, String designation, Integer... crewIds) {
+        Map<String, Object> mission = new LinkedHashMap<>();
+        mission.put("id", id);
+        mission.put("designation", designation);
+        mission.put("crew", Arrays.stream(crewIds).map(GatewayRuntimeTest::getAstronautReference)
+                .collect(Collectors.toList()));
+        return mission;
+    }
+
+    private static Map<String, Object> getAstronautReference(Integer id) {
+        return id == null ? null : Map.of("id", id);
+    }
+
+    private static Map<String, Object> getAstronaut(int id) {
+        if (id < 1 || id > ASTRONAUT_NAMES.length) {
+            return null;
+        }
+        return Map.of("id", id, "name", ASTRONAUT_NAMES[id - 1]);
+    }
+
+    private static int getId(Object representation) {
+        return ((Number) ((Map<?, ?>) representation).get("id")).intValue();
+    }
+
+    private RuntimeWiring getAstronautsWiring() {
+        return RuntimeWiring.newRuntimeWiring()
+                .scalar(ANY_SCALAR)
+                .type("Query", type -> type
+                        .dataFetcher("astronauts", env -> Arrays.stream(new int[]{1, 2, 3, 4, 5})
+                                .mapToObj(GatewayRuntimeTest::getAstronaut).collect(Collectors.toList()))
+                        .dataFetcher("astronaut", env -> getAstronaut(env.<Integer>getArgument("id")))
+                        .dataFetcher("serviceName", env -> "Astronauts")
+                        .dataFetcher("isExist", env -> Arrays.asList(ASTRONAUT_NAMES)
+                                .contains(env.<String>getArgument("name")))
+                        .dataFetcher(ENTITIES, env -> getRepresentations(env).stream()
+                                .map(representation -> getAstronaut(getId(representation)))
+                                .collect(Collectors.toList())))
+                .type("Mutation", type -> type.dataFetcher("setServiceName", env -> env.getArgument("name")))
+                .type("_Entity", type -> type.typeResolver(env -> env.getSchema().getObjectType("Astronaut")))
+                .build();
+    }
+
+    private RuntimeWiring getMissionsWiring() {
+        return RuntimeWiring.newRuntimeWiring()
+                .scalar(ANY_SCALAR)
+                .type("Query", type -> type
+                        .dataFetcher("missions", env -> getMissions())
+                        .dataFetcher("mission", env -> getMissions().stream()
+                                .filter(mission -> mission.get("id").equals(env.getArgument("id")))
+                                .findFirst().orElse(null))
+                        .dataFetcher(ENTITIES, env -> getRepresentations(env).stream()
+                                .map(representation -> getAstronautMissions(getId(representation)))
+                                .collect(Collectors.toList())))
+                .type("Mutation", type -> type.dataFetcher("addMission", this::addMission))
+                .type("_Entity", type -> type.typeResolver(env -> env.getSchema().getObjectType("Astronaut")))
+                .build();
+    }
+
+    private static List<?> getRepresentations(DataFetchingEnvironment env) {
+        return env.getArgument("representations");
+    }
+
+    private List<Map<String, Object>> getMissions() {
+        synchronized (missions) {
+            return new ArrayList<>(missions);
+        }
+    }
+
+    // Returns an astronaut of the missions subgraph, with the missions it is a crew member of.
+    private Map<String, Object> getAstronautMissions(int id) {
+        Map<String, Object> reference = getAstronautReference(id);
+        List<Map<String, Object>> astronautMissions = getMissions().stream()
+                .filter(mission -> ((List<?>) mission.get("crew")).contains(reference))
+                .collect(Collectors.toList());
+        return Map.of("id", id, "missions", astronautMissions);
+    }
+
+    private Map<String, Object> addMission(DataFetchingEnvironment env) {
+        Map<String, Object> input = env.getArgument("missionInput");
+        List<?> crewIds = (List<?>) input.get("crewIds");
+        synchronized (missions) {
+            Map<String, Object> mission = getMission(missions.size() + 1, (String) input.get("designation"),
+                    crewIds.stream().map(id -> ((Number) id).intValue()).toArray(Integer[]::new));
+            missions.add(mission);
+            return mission;
+        }
+    }
+}
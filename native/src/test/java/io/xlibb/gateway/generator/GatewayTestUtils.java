@@ -33,10 +33,13 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
@@ -117,6 +120,45 @@ public class GatewayTestUtils {
                 ("{\"query\":\"" + query + "\"}").getBytes()));
     }
 
+    public static String getGraphqlGetResponse(String graphqlUrl, String document) throws IOException {
+        URL url = new URL(graphqlUrl + "?query=" + URLEncoder.encode(document, StandardCharsets.UTF_8));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("GET");
+
+        // read the response from the server, including the error responses
+        InputStream stream = connection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST
+                ? connection.getInputStream() : connection.getErrorStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(stream));
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            response.append(line);
+        }
+        in.close();
+        return response.toString();
+    }
+
+    public static String getGraphqlPayloadResponse(String graphqlUrl, String payload) throws IOException {
+        URL url = new URL(graphqlUrl);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        connection.getOutputStream().write(payload.getBytes(StandardCharsets.UTF_8));
+
+        // read the response from the server, including the error responses
+        InputStream stream = connection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST
+                ? connection.getInputStream() : connection.getErrorStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(stream));
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            response.append(line);
+        }
+        in.close();
+        return response.toString();
+    }
+
     private static String getGraphqlResponse(String grapqlUrl, byte[] body) throws IOException {
         URL url = new URL(grapqlUrl);
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
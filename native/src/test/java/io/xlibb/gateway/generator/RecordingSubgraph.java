@@ -0,0 +1,395 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * A subgraph executed by graphql-java, recording the requests it receives from the gateway.
+ * The requests of a root field can be delayed, so the requests of concurrent operations overlap, and every request
+ * can be failed with an HTTP error.
+ */
+public class RecordingSubgraph {
+    private static final String FAILED_RESPONSE = "{\"errors\":[{\"message\":\"Subgraph unavailable\"}]}";
+
+    private final GraphQL graphQL;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> delays = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile boolean failing = false;
+
+    public RecordingSubgraph(int port, String sdl, RuntimeWiring runtimeWiring) throws IOException {
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(sdl),
+                runtimeWiring);
+        this.graphQL = GraphQL.newGraphQL(schema).build();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/", this::respond);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // Forget the recorded requests, the delays and the failure.
+    public void reset() {
+        requests.clear();
+        delays.clear();
+        failing = false;
+        maxInFlight.set(0);
+    }
+
+    public void setDelay(String rootField, long millis) {
+        delays.put(rootField, millis);
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    // Returns the recorded requests selecting the root field.
+    public List<Request> getRequests(String rootField) {
+        return requests.stream().filter(request -> request.getRootFields().contains(rootField))
+                .collect(Collectors.toList());
+    }
+
+    // Returns the largest number of requests the subgraph was handling at the same time.
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        int status = 200;
+        String response;
+        try {
+            response = execute(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = null;
+        } finally {
+            // The request stops being in flight before its response is written, as the gateway may send the next
+            // request as soon as it reads the response.
+            inFlight.decrementAndGet();
+        }
+        if (response == null) {
+            status = 500;
+            response = FAILED_RESPONSE;
+        }
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    // Returns the response of a request, or null if the subgraph is failing.
+    @SuppressWarnings("unchecked")
+    private String execute(String payload) throws InterruptedException {
+        Map<String, Object> body = (Map<String, Object>) new JsonReader(payload).read();
+        String query = (String) body.get("query");
+        Map<String, Object> variables = body.get("variables") instanceof Map ?
+                (Map<String, Object>) body.get("variables") : Collections.emptyMap();
+        Request request = new Request(query, variables, getRootFields(query));
+        requests.add(request);
+        long delay = request.getRootFields().stream().mapToLong(field -> delays.getOrDefault(field, 0L)).max()
+                .orElse(0L);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+        if (failing) {
+            return null;
+        }
+        ExecutionInput input = ExecutionInput.newExecutionInput().query(query).variables(variables).build();
+        return writeJson(graphQL.execute(input).toSpecification());
+    }
+
+    private static List<String> getRootFields(String query) {
+        List<String> rootFields = new ArrayList<>();
+        Document document = Parser.parse(query);
+        for (OperationDefinition operation : document.getDefinitionsOfType(OperationDefinition.class)) {
+            for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+                if (selection instanceof Field) {
+                    rootFields.add(((Field) selection).getName());
+                }
+            }
+        }
+        return rootFields;
+    }
+
+    private static String writeJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        writeJson(value, json);
+        return json.toString();
+    }
+
+    private static void writeJson(Object value, StringBuilder json) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof String) {
+            json.append('"');
+            for (char c : ((String) value).toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            json.append('"');
+        } else if (value instanceof Map) {
+            json.append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                json.append(separator);
+                writeJson(String.valueOf(entry.getKey()), json);
+                json.append(':');
+                writeJson(entry.getValue(), json);
+                separator = ",";
+            }
+            json.append('}');
+        } else if (value instanceof Iterable) {
+            json.append('[');
+            String separator = "";
+            for (Object element : (Iterable<?>) value) {
+                json.append(separator);
+                writeJson(element, json);
+                separator = ",";
+            }
+            json.append(']');
+        } else {
+            json.append(value);
+        }
+    }
+
+    /**
+     * A request received by the subgraph.
+     */
+    public static final class Request {
+        private final String query;
+        private final Map<String, Object> variables;
+        private final List<String> rootFields;
+
+        private Request(String query, Map<String, Object> variables, List<String> rootFields) {
+            this.query = query;
+            this.variables = variables;
+            this.rootFields = rootFields;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public Map<String, Object> getVariables() {
+            return variables;
+        }
+
+        public List<String> getRootFields() {
+            return rootFields;
+        }
+    }
+
+    // Reads the JSON payload of a request. Integers are read as Integer or Long, the other numbers as Double.
+    private static final class JsonReader {
+        private final String json;
+        private int position = 0;
+
+        private JsonReader(String json) {
+            this.json = json;
+        }
+
+        private Object read() {
+            skipWhitespace();
+            char c = json.charAt(position);
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                case 't':
+                    return readLiteral("true", Boolean.TRUE);
+                case 'f':
+                    return readLiteral("false", Boolean.FALSE);
+                case 'n':
+                    return readLiteral("null", null);
+                default:
+                    return readNumber();
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++;
+            skipWhitespace();
+            if (json.charAt(position) == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, read());
+                skipWhitespace();
+                if (json.charAt(position) == ',') {
+                    position++;
+                    continue;
+                }
+                expect('}');
+                return object;
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            position++;
+            skipWhitespace();
+            if (json.charAt(position) == ']') {
+                position++;
+                return array;
+            }
+            while (true) {
+                array.add(read());
+                skipWhitespace();
+                if (json.charAt(position) == ',') {
+                    position++;
+                    continue;
+                }
+                expect(']');
+                return array;
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder string = new StringBuilder();
+            while (true) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return string.toString();
+                }
+                if (c != '\\') {
+                    string.append(c);
+                    continue;
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        string.append('\b');
+                        break;
+                    case 'f':
+                        string.append('\f');
+                        break;
+                    case 'n':
+                        string.append('\n');
+                        break;
+                    case 'r':
+                        string.append('\r');
+                        break;
+                    case 't':
+                        string.append('\t');
+                        break;
+                    case 'u':
+                        string.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        string.append(escaped);
+                }
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (!json.startsWith(literal, position)) {
+                throw new IllegalArgumentException("Invalid JSON at " + position + ": " + json);
+            }
+            position += literal.length();
+            return value;
+        }
+
+        private Number readNumber() {
+            int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            String number = json.substring(start, position);
+            if (number.isEmpty()) {
+                throw new IllegalArgumentException("Invalid JSON at " + start + ": " + json);
+            }
+            if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                return Double.parseDouble(number);
+            }
+            long value = Long.parseLong(number);
+            return value == (int) value ? Integer.valueOf((int) value) : Long.valueOf(value);
+        }
+
+        private void expect(char expected) {
+            if (json.charAt(position) != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at " + position + ": " + json);
+            }
+            position++;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Generates synthetic federated supergraph schemas for scale and performance testing.
+ * <p>
+ * Every entity type is owned by one join graph and keyed by an {@code id} field. Scalar fields can be resolved by
+ * other join graphs, in which case the entity gets a {@code @join__type} for each of those graphs and every non-key
+ * field is annotated with {@code @join__field}. Each entity also references the next entity through a (possibly
+ * nested) list field, and gets a by-id and a list root field on {@code Query} and, optionally, a create field on
+ * {@code Mutation} taking an input type. The output depends only on the configuration and the seed.
+ */
+public class SupergraphGenerator {
+    private static final String[] SCALAR_TYPES = {"String", "Int", "Float", "Boolean"};
+    private static final String PREAMBLE = String.join("\n",
+            "directive @join__enumValue(graph: join__Graph!) repeatable on ENUM_VALUE",
+            "",
+            "directive @join__field(",
+            "    graph: join__Graph",
+            "    requires: join__FieldSet",
+            "    provides: join__FieldSet",
+            "    type: String",
+            "    external: Boolean",
+            "    override: String",
+            "    usedOverridden: Boolean",
+            ") repeatable on FIELD_DEFINITION | INPUT_FIELD_DEFINITION",
+            "",
+            "directive @join__graph(name: String!, url: String!) on ENUM_VALUE",
+            "",
+            "directive @join__implements(",
+            "    graph: join__Graph!",
+            "    interface: String!",
+            ") repeatable on OBJECT | INTERFACE",
+            "",
+            "directive @join__type(",
+            "    graph: join__Graph!",
+            "    key: join__FieldSet",
+            "    extension: Boolean! = false",
+            "    resolvable: Boolean! = true",
+            "    isInterfaceObject: Boolean! = false",
+            ") repeatable on OBJECT | INTERFACE | UNION | ENUM | INPUT_OBJECT | SCALAR",
+            "",
+            "directive @join__unionMember(",
+            "    graph: join__Graph!",
+            "    member: String!",
+            ") repeatable on UNION",
+            "",
+            "directive @link(",
+            "    url: String",
+            "    as: String",
+            "    for: link__Purpose",
+            "    import: [link__Import]",
+            ") repeatable on SCHEMA",
+            "",
+            "scalar join__FieldSet",
+            "",
+            "scalar link__Import",
+            "",
+            "enum link__Purpose {",
+            "    SECURITY",
+            "    EXECUTION",
+            "}",
+            "",
+            "");
+
+    private int joinGraphCount = 2;
+    private int entityTypeCount = 10;
+    private int fieldsPerType = 4;
+    private boolean idTypedKeys = false;
+    private double crossSubgraphFieldRatio = 0.5;
+    private int listDepth = 1;
+    private boolean mutations = true;
+    private long seed = 0;
+
+    /**
+     * Sets the number of join graphs (subgraphs) in the supergraph.
+     */
+    public SupergraphGenerator joinGraphs(int joinGraphCount) {
+        if (joinGraphCount < 1) {
+            throw new IllegalArgumentException("At least one join graph is required");
+        }
+        this.joinGraphCount = joinGraphCount;
+        return this;
+    }
+
+    /**
+     * Sets the number of entity types in the supergraph.
+     */
+    public SupergraphGenerator entityTypes(int entityTypeCount) {
+        if (entityTypeCount < 1) {
+            throw new IllegalArgumentException("At least one entity type is required");
+        }
+        this.entityTypeCount = entityTypeCount;
+        return this;
+    }
+
+    /**
+     * Sets the number of scalar fields in each entity type, excluding the key and the reference fields.
+     */
+    public SupergraphGenerator fieldsPerType(int fieldsPerType) {
+        if (fieldsPerType < 0) {
+            throw new IllegalArgumentException("Number of fields per type cannot be negative");
+        }
+        this.fieldsPerType = fieldsPerType;
+        return this;
+    }
+
+    /**
+     * Sets whether the {@code id} key fields are of type {@code ID} instead of {@code Int}.
+     */
+    public SupergraphGenerator idTypedKeys(boolean idTypedKeys) {
+        this.idTypedKeys = idTypedKeys;
+        return this;
+    }
+
+    /**
+     * Sets the probability of a scalar field being resolved by a join graph other than the owner of the entity.
+     */
+    public SupergraphGenerator crossSubgraphFieldRatio(double crossSubgraphFieldRatio) {
+        if (crossSubgraphFieldRatio < 0 || crossSubgraphFieldRatio > 1) {
+            throw new IllegalArgumentException("Cross subgraph field ratio must be between 0 and 1");
+        }
+        this.crossSubgraphFieldRatio = crossSubgraphFieldRatio;
+        return this;
+    }
+
+    /**
+     * Sets the list nesting depth of the reference fields. Zero makes them plain object fields.
+     */
+    public SupergraphGenerator listDepth(int listDepth) {
+        if (listDepth < 0) {
+            throw new IllegalArgumentException("List depth cannot be negative");
+        }
+        this.listDepth = listDepth;
+        return this;
+    }
+
+    /**
+     * Sets whether a mutation root type is generated.
+     */
+    public SupergraphGenerator mutations(boolean mutations) {
+        this.mutations = mutations;
+        return this;
+    }
+
+    /**
+     * Sets the seed used for the random choices of field types and ownership.
+     */
+    public SupergraphGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates the supergraph SDL for the current configuration.
+     *
+     * @return the supergraph schema
+     */
+    public String generate() {
+        Random random = new Random(seed);
+        StringBuilder sdl = new StringBuilder();
+        sdl.append("schema\n")
+                .append("@link(url: \"https://specs.apollo.dev/link/v1.0\")\n")
+                .append("@link(url: \"https://specs.apollo.dev/join/v0.3\", for: EXECUTION) {\n")
+                .append("    query: Query\n");
+        if (mutations) {
+            sdl.append("    mutation: Mutation\n");
+        }
+        sdl.append("}\n\n").append(PREAMBLE);
+
+        sdl.append("enum join__Graph {\n");
+        for (int i = 0; i < joinGraphCount; i++) {
+            sdl.append("    ").append(getGraphName(i)).append(" @join__graph(name: \"subgraph").append(i)
+                    .append("\", url: \"http://localhost:").append(4001 + i).append("\")\n");
+        }
+        sdl.append("}\n\n");
+
+        StringBuilder query = new StringBuilder();
+        StringBuilder mutation = new StringBuilder();
+        String keyType = idTypedKeys ? "ID" : "Int";
+        for (int i = 0; i < entityTypeCount; i++) {
+            addEntityType(sdl, random, i, keyType);
+            String entity = getEntityName(i);
+            String owner = getGraphName(i % joinGraphCount);
+            query.append("    entity").append(i).append("(id: ").append(keyType).append("!): ").append(entity)
+                    .append(" @join__field(graph: ").append(owner).append(")\n");
+            query.append("    entity").append(i).append("List: [").append(entity).append("!]! @join__field(graph: ")
+                    .append(owner).append(")\n");
+            if (mutations) {
+                addInputType(sdl, i, keyType);
+                mutation.append("    createEntity").append(i).append("(input: ").append(entity)
+                        .append("Input!): ").append(entity).append("! @join__field(graph: ").append(owner)
+                        .append(")\n");
+            }
+        }
+
+        if (mutations) {
+            sdl.append("type Mutation");
+            appendRootJoinTypes(sdl);
+            sdl.append(" {\n").append(mutation).append("}\n\n");
+        }
+        sdl.append("type Query");
+        appendRootJoinTypes(sdl);
+        sdl.append(" {\n").append(query).append("}\n");
+        return sdl.toString();
+    }
+
+    /**
+     * Generates the supergraph SDL and writes it to the given directory.
+     *
+     * @param directory the directory to write the schema to
+     * @param fileName  the name of the schema file
+     * @return the path of the written schema file
+     */
+    public Path write(Path directory, String fileName) throws IOException {
+        return Files.writeString(directory.resolve(fileName), generate());
+    }
+
+    private void addEntityType(StringBuilder sdl, Random random, int index, String keyType) {
+        int owner = index % joinGraphCount;
+        List<String> fieldTypes = new ArrayList<>();
+        List<Integer> fieldGraphs = new ArrayList<>();
+        TreeSet<Integer> graphs = new TreeSet<>();
+        graphs.add(owner);
+        for (int i = 0; i < fieldsPerType; i++) {
+            String type = SCALAR_TYPES[random.nextInt(SCALAR_TYPES.length)];
+            fieldTypes.add(random.nextBoolean() ? type + "!" : type);
+            int graph = getFieldGraph(random, owner);
+            fieldGraphs.add(graph);
+            graphs.add(graph);
+        }
+        int referenceGraph = getFieldGraph(random, owner);
+        graphs.add(referenceGraph);
+        boolean annotateFields = graphs.size() > 1;
+
+        sdl.append("type ").append(getEntityName(index)).append("\n");
+        for (int graph : graphs) {
+            sdl.append("@join__type(graph: ").append(getGraphName(graph)).append(", key: \"id\")\n");
+        }
+        sdl.append("{\n");
+        sdl.append("    id: ").append(keyType).append("!\n");
+        for (int i = 0; i < fieldsPerType; i++) {
+            sdl.append("    field").append(i).append(": ").append(fieldTypes.get(i));
+            appendJoinField(sdl, annotateFields, fieldGraphs.get(i));
+        }
+        sdl.append("    related: ").append(getReferenceType(getEntityName((index + 1) % entityTypeCount)));
+        appendJoinField(sdl, annotateFields, referenceGraph);
+        sdl.append("}\n\n");
+    }
+
+    private void addInputType(StringBuilder sdl, int index, String keyType) {
+        sdl.append("input ").append(getEntityName(index)).append("Input @join__type(graph: ")
+                .append(getGraphName(index % joinGraphCount)).append(") {\n")
+                .append("    id: ").append(keyType).append("!\n")
+                .append("    name: String\n")
+                .append("}\n\n");
+    }
+
+    private void appendRootJoinTypes(StringBuilder sdl) {
+        for (int i = 0; i < joinGraphCount; i++) {
+            sdl.append(" @join__type(graph: ").append(getGraphName(i)).append(")");
+        }
+    }
+
+    private static void appendJoinField(StringBuilder sdl, boolean annotate, int graph) {
+        if (annotate) {
+            sdl.append(" @join__field(graph: ").append(getGraphName(graph)).append(")");
+        }
+        sdl.append("\n");
+    }
+
+    private int getFieldGraph(Random random, int owner) {
+        if (joinGraphCount > 1 && random.nextDouble() < crossSubgraphFieldRatio) {
+            return (owner + 1 + random.nextInt(joinGraphCount - 1)) % joinGraphCount;
+        }
+        return owner;
+    }
+
+    private String getReferenceType(String entityName) {
+        String type = entityName;
+        for (int i = 0; i < listDepth; i++) {
+            type = "[" + type + "!]!";
+        }
+        return type;
+    }
+
+    private static String getGraphName(int index) {
+        return "SUBGRAPH" + index;
+    }
+
+    private static String getEntityName(int index) {
+        return "Entity" + index;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator;
+
+import graphql.schema.GraphQLSchema;
+import io.xlibb.gateway.GatewayProject;
+import io.xlibb.gateway.SchemaLoadingMode;
+import io.xlibb.gateway.exception.GatewayGenerationException;
+import io.xlibb.gateway.exception.ValidationException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Class to test the synthetic supergraph generator and the gateway generation on its output.
+ */
+public class SupergraphGeneratorTest extends GraphqlTest {
+
+    @Test(description = "Test synthetic supergraph generation is repeatable for a given seed")
+    public void testSupergraphGenerationIsDeterministic() {
+        String first = new SupergraphGenerator().entityTypes(20).seed(42).generate();
+        String second = new SupergraphGenerator().entityTypes(20).seed(42).generate();
+        String other = new SupergraphGenerator().entityTypes(20).seed(7).generate();
+        Assert.assertEquals(first, second);
+        Assert.assertNotEquals(first, other);
+    }
+
+    @Test(description = "Test gateway generation on synthetic supergraphs", dataProvider =
+            "SyntheticSupergraphDataProvider")
+    public void testGatewayGenerationOnSyntheticSupergraph(SupergraphGenerator supergraphGenerator,
+                                                           int expectedObjectTypes)
+            throws IOException, ValidationException, GatewayGenerationException {
+        Path schemaPath = supergraphGenerator.write(tmpDir, "synthetic_" + System.nanoTime() + ".graphql");
+        GatewayProject project = new GatewayProject("test", schemaPath, tmpDir);
+        GraphQLSchema graphQLSchema = project.getSchema();
+        Assert.assertEquals(CommonUtils.getCustomDefinedObjectTypeNames(graphQLSchema).size(), expectedObjectTypes);
+        Assert.assertFalse(new GatewayTypeGenerator(graphQLSchema).generateSrc().isEmpty());
+        Assert.assertFalse(new GatewayQueryPlanGenerator(graphQLSchema).generateSrc().isEmpty());
+        String serviceSrc = new GatewayServiceGenerator(project).generateSrc();
+        Assert.assertFalse(serviceSrc.isEmpty());
+
+        GatewayProject typeDefinitionProject = new GatewayProject("test", schemaPath, tmpDir,
+                SchemaLoadingMode.TYPE_DEFINITIONS);
+        Assert.assertEquals(new GatewayTypeGenerator(typeDefinitionProject.getSupergraphIndex()).generateSrc(),
+                new GatewayTypeGenerator(project.getSupergraphIndex()).generateSrc());
+        Assert.assertEquals(new GatewayServiceGenerator(typeDefinitionProject).generateSrc(), serviceSrc);
+    }
+
+    @DataProvider(name = "SyntheticSupergraphDataProvider")
+    public Object[][] getSyntheticSupergraphTestData() {
+        return new Object[][]{
+                {new SupergraphGenerator(), 10},
+                {new SupergraphGenerator().joinGraphs(1).entityTypes(5).mutations(false), 5},
+                {new SupergraphGenerator().joinGraphs(4).entityTypes(50).fieldsPerType(8).idTypedKeys(true)
+                        .crossSubgraphFieldRatio(1).seed(3), 50},
+                {new SupergraphGenerator().joinGraphs(3).entityTypes(25).listDepth(0).seed(11), 25}
+        };
+    }
+}
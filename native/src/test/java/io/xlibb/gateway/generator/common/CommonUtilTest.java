@@ -28,9 +28,13 @@ import io.xlibb.gateway.GatewayProject;
 import io.xlibb.gateway.exception.GatewayGenerationException;
 import io.xlibb.gateway.exception.ValidationException;
 import io.xlibb.gateway.generator.CommonUtils;
+import io.xlibb.gateway.generator.CompiledTemplate;
 import io.xlibb.gateway.generator.GatewayCodeGenerator;
+import io.xlibb.gateway.generator.GatewayServiceGenerator;
 import io.xlibb.gateway.generator.GatewayTestUtils;
 import io.xlibb.gateway.generator.GraphqlTest;
+import io.xlibb.gateway.generator.TemplatePlaceholder;
+import io.xlibb.gateway.generator.TemplateRegistry;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -41,6 +45,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -154,6 +159,48 @@ public class CommonUtilTest extends GraphqlTest {
         };
     }
 
+    @Test(description = "Test reading the gateway templates", dataProvider = "TemplateFilesProvider")
+    public void testGetTemplate(String fileName) throws GatewayGenerationException {
+        Assert.assertFalse(TemplateRegistry.getTemplate(fileName).isBlank());
+    }
+
+    @Test(description = "Test reading a template which does not exist",
+            expectedExceptions = GatewayGenerationException.class)
+    public void testGetMissingTemplate() throws GatewayGenerationException {
+        TemplateRegistry.getTemplate("missing_template.bal.partial");
+    }
+
+    @Test(description = "Test rendering a compiled template", dataProvider = "CompiledTemplateProvider")
+    public void testRenderCompiledTemplate(String template, Map<TemplatePlaceholder, String> bindings,
+                                           String expected) {
+        Assert.assertEquals(CompiledTemplate.compile(template).render(bindings), expected);
+    }
+
+    @DataProvider(name = "CompiledTemplateProvider")
+    public Object[][] getCompiledTemplates() {
+        return new Object[][]{
+                {"resource function get @{query}(@{params}) returns @{responseType}",
+                        Map.of(TemplatePlaceholder.QUERY, "astronauts", TemplatePlaceholder.PARAMS, "int id",
+                                TemplatePlaceholder.RESPONSE_TYPE, "Astronaut[]"),
+                        "resource function get astronauts(int id) returns Astronaut[]"},
+                {"@{query} @{query}", Map.of(TemplatePlaceholder.QUERY, "@{params}"), "@{params} @{params}"},
+                {"@{initialResult}@{unknown} {", Map.of(), "@{initialResult}@{unknown} {"},
+                {"@{clientName} => $1\\", Map.of(TemplatePlaceholder.CLIENT_NAME, "A$0\\"), "A$0\\ => $1\\"}
+        };
+    }
+
+    @DataProvider(name = "TemplateFilesProvider")
+    public Object[][] getTemplateFiles() {
+        return new Object[][]{
+                {GatewayServiceGenerator.RESOURCE_FUNCTION_TEMPLATE_FILE},
+                {GatewayServiceGenerator.SCALAR_RETURN_TYPE_RESOURCE_FUNCTION_TEMPLATE_FILE},
+                {GatewayServiceGenerator.REMOTE_FUNCTION_TEMPLATE_FILE},
+                {GatewayServiceGenerator.SCALAR_RETURN_TYPE_REMOTE_FUNCTION_TEMPLATE_FILE},
+                {GatewayServiceGenerator.GET_CLIENT_FUNCTION_TEMPLATE_FILE},
+                {GatewayServiceGenerator.SERVICE_DECLARATION_TEMPLATE_FILE}
+        };
+    }
+
     @Test(dataProvider = "BallerinaTypeProvider")
     public void testGetBallerinaTypeName(String type, String expectedName) {
         Assert.assertEquals(CommonUtils.getBallerinaTypeName(type), expectedName);
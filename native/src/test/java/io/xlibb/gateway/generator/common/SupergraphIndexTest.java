@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.xlibb.gateway.generator.common;
+
+import graphql.language.FieldDefinition;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLSchema;
+import io.xlibb.gateway.exception.ValidationException;
+import io.xlibb.gateway.generator.CommonUtils;
+import io.xlibb.gateway.generator.GatewayTestUtils;
+import io.xlibb.gateway.generator.GraphqlTest;
+import io.xlibb.gateway.graphql.SupergraphIndex;
+import io.xlibb.gateway.graphql.Utils;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the supergraph index.
+ */
+public class SupergraphIndexTest extends GraphqlTest {
+
+    @Test(description = "Test the index agrees with the schema scans", dataProvider = "SupergraphProvider")
+    public void testIndexMatchesSchemaScans(String supergraphFileName) throws ValidationException, IOException {
+        SupergraphIndex index = GatewayTestUtils.getGatewayProject(supergraphFileName, tmpDir).getSupergraphIndex();
+        GraphQLSchema graphQLSchema = index.getSchema();
+        Assert.assertEquals(index.getCustomDefinedObjectTypeNames(),
+                CommonUtils.getCustomDefinedObjectTypeNames(graphQLSchema));
+        Assert.assertEquals(index.getJoinGraphs().keySet(), CommonUtils.getJoinGraphs(graphQLSchema).keySet());
+        for (GraphQLNamedType type : graphQLSchema.getAllTypesAsList()) {
+            Assert.assertEquals(index.getBallerinaTypeName(type.getName()),
+                    Utils.getBallerinaTypeName(graphQLSchema, type.getName()));
+        }
+    }
+
+    @Test(description = "Test the index built from type definitions agrees with the schema index",
+            dataProvider = "SupergraphProvider")
+    public void testTypeDefinitionIndexMatchesSchemaIndex(String supergraphFileName)
+            throws ValidationException, IOException {
+        SupergraphIndex index = GatewayTestUtils.getGatewayProject(supergraphFileName, tmpDir).getSupergraphIndex();
+        SupergraphIndex typeDefinitionIndex = new SupergraphIndex(Utils.getTypeDefinitionRegistry(Files.readString(
+                GatewayTestUtils.SCHEMA_RESOURCE_DIR.resolve(supergraphFileName + ".graphql"))));
+        Assert.assertNull(typeDefinitionIndex.getSchema());
+        Assert.assertEquals(typeDefinitionIndex.getCustomDefinedObjectTypeNames(),
+                index.getCustomDefinedObjectTypeNames());
+        Assert.assertEquals(typeDefinitionIndex.getInputObjectTypeNames(), index.getInputObjectTypeNames());
+        Assert.assertEquals(typeDefinitionIndex.getJoinGraphs().keySet(), index.getJoinGraphs().keySet());
+        Assert.assertEquals(getFieldNames(typeDefinitionIndex.getQueryFields()), getFieldNames(index.getQueryFields()));
+        Assert.assertEquals(getFieldNames(typeDefinitionIndex.getMutationFields()),
+                getFieldNames(index.getMutationFields()));
+        for (String name : index.getCustomDefinedObjectTypeNames()) {
+            Assert.assertEquals(typeDefinitionIndex.getObjectTypeFieldsMap(name).keySet(),
+                    index.getObjectTypeFieldsMap(name).keySet());
+            Assert.assertEquals(typeDefinitionIndex.getKeys(name), index.getKeys(name));
+        }
+    }
+
+    @Test(description = "Test the keys of the entities", dataProvider = "KeysProvider")
+    public void testKeys(String supergraphFileName, String typeName, Map<String, String> keys)
+            throws ValidationException, IOException {
+        SupergraphIndex index = GatewayTestUtils.getGatewayProject(supergraphFileName, tmpDir).getSupergraphIndex();
+        Assert.assertEquals(index.getKeys(typeName), keys);
+    }
+
+    @Test(description = "Test escaping identifiers", dataProvider = "IdentifierProvider")
+    public void testEscapeIdentifier(String identifier, String expected) {
+        Assert.assertEquals(Utils.escapeIdentifier(identifier), expected);
+    }
+
+    private static List<String> getFieldNames(List<FieldDefinition> fields) {
+        return fields.stream().map(FieldDefinition::getName).collect(Collectors.toList());
+    }
+
+    @DataProvider(name = "SupergraphProvider")
+    public Object[][] getSupergraphs() {
+        return new Object[][]{
+                {"two_entities"},
+                {"two_entities_with_id_type_fields"},
+                {"three_entities"},
+                {"deprecated_directive"}
+        };
+    }
+
+    @DataProvider(name = "KeysProvider")
+    public Object[][] getKeys() {
+        return new Object[][]{
+                {"three_entities", "Product", Map.of("product", "id", "reviews", "id")},
+                {"three_entities", "Review", Map.of()},
+                {"two_entities_with_id_type_fields", "Mission", Map.of("missions", "id")}
+        };
+    }
+
+    @DataProvider(name = "IdentifierProvider")
+    public Object[][] getIdentifiers() {
+        return new Object[][]{
+                {"name", "name"},
+                {"type", "'type"},
+                {"error", "_error"},
+                {"123", "'123"},
+                {"first-name", "'first\\-name"}
+        };
+    }
+}
@@ -4,3 +4,4 @@ public final readonly & table<QueryPlanEntry> key(typename) queryPlan = table [{
             {name: "name", 'type: "String", 'client: PRODUCTS},
             {name: "description", 'type: "String", 'client: PRODUCTS}
         ]}];
+public final readonly & table<SubgraphOwnership> key(typename, 'client) ownership = table [{typename: "Product", 'client: PRODUCTS, key: "id", fields: ["price", "name", "description"]}];
@@ -1,7 +1,9 @@
 import ballerina/graphql;
 import ballerina/log;
 
-final graphql:Client PRODUCTS_CLIENT = check new graphql:Client("http://localhost:9091");
+final readonly & SubgraphClientDefaults SUBGRAPH_CLIENT_DEFAULTS = {httpVersion: "2.0", maxActiveConnections: -1, maxIdleConnections: 100, waitTime: 30, keepAlive: "AUTO", timeout: 60, retryCount: 0, retryInterval: 0, compression: "AUTO"};
+configurable SubgraphClientConfig PRODUCTS_CLIENT_CONFIG = {};
+final graphql:Client PRODUCTS_CLIENT = check new graphql:Client("http://localhost:9091", getClientConfiguration(PRODUCTS_CLIENT_CONFIG));
 
 isolated function getClient(string clientName) returns graphql:Client {
     match clientName {
@@ -16,6 +18,9 @@ isolated function getClient(string clientName) returns graphql:Client {
 
 configurable int PORT = 9000;
 
+@graphql:ServiceConfig {
+    contextInit: initContext
+}
 isolated service on new graphql:Listener(PORT) {
     isolated function init() {
         log:printInfo(string `💃 Server ready at port: ${PORT}`);
@@ -25,42 +30,50 @@ isolated service on new graphql:Listener(PORT) {
     # No longer supported
     @deprecated
     isolated resource function get products(graphql:Field 'field, graphql:Context context) returns Product[]|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, PRODUCTS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("products", fieldString);
-        productsResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, PRODUCTS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("products", plan);
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, PRODUCTS, PRODUCTS_CLIENT, "products", plan.getRootSelection());
+        productsResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         Product[]? result = null;
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             result = response.data.products;
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Product", propertiesNotResolved, ["products"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "products", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
     isolated resource function get product(graphql:Field 'field, graphql:Context context, string id) returns Product?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, PRODUCTS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("product", fieldString, {"id": getParamAsString(id)});
-        productResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, PRODUCTS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("product", plan, {"id": id});
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, PRODUCTS, PRODUCTS_CLIENT, "product", plan.getRootSelection(), {"id": "ID!"}, {"id": id});
+        productResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         map<json> result = {"id": id};
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             mergeToResultJson(result, <map<json>>response.data.product.toJson());
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Product", propertiesNotResolved, ["product"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "product", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
@@ -68,9 +81,9 @@ isolated service on new graphql:Listener(PORT) {
     # `person` will be removed in the future
     @deprecated
     isolated resource function get person(graphql:Field 'field, graphql:Context context, string? id) returns string?|error {
-        string queryString = wrapwithQuery("person", (), {"id": getParamAsString(id)});
-        personResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString);
-        if response is graphql:ClientError {
+        json|graphql:ClientError sharedResponse = executeRootField(context, PRODUCTS, PRODUCTS_CLIENT, "person", (), {"id": "ID"}, {"id": id});
+        personResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
+        if response is error {
             return error("Unable to resolve : person");
         }
         return response.data.person;
@@ -79,18 +92,17 @@ isolated service on new graphql:Listener(PORT) {
     # No longer supported
     @deprecated
     isolated remote function addProduct(graphql:Field 'field, graphql:Context context, string? name) returns Product?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, PRODUCTS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithMutation("addProduct", fieldString, {"name": getParamAsString(name)});
-        addProductResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, PRODUCTS, queryPlan, ownership);
+        string queryString = wrapwithMutation("addProduct", plan.getRootSelection(), {"name": "String"});
+        addProductResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString, {"name": name});
         if response is graphql:ClientError {
             return error("Unable to perform the operation");
         }
+        invalidateCaches(plan.getTypenames());
         Product? result = response.data.addProduct;
         graphql:ErrorDetail[] errors = [];
         appendErrorDetailsFromResponse(errors, response?.errors);
-        Resolver resolver = new (queryPlan, result.toJson(), "Product", propertiesNotResolved, ["addProduct"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors);
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
         return finalResult.cloneWithType();
@@ -100,8 +112,8 @@ isolated service on new graphql:Listener(PORT) {
     # `addPerson` will be removed in the future
     @deprecated
     isolated remote function addPerson(graphql:Field 'field, graphql:Context context, string? id) returns string|error {
-        string queryString = wrapwithMutation("addPerson", (), {"id": getParamAsString(id)});
-        addPersonResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString);
+        string queryString = wrapwithMutation("addPerson", (), {"id": "ID"});
+        addPersonResponse|graphql:ClientError response = PRODUCTS_CLIENT->execute(queryString, {"id": id});
         if response is graphql:ClientError {
             return error("Unable to resolve : addPerson");
         }
@@ -19,3 +19,9 @@ public final readonly & table<QueryPlanEntry> key(typename) queryPlan = table [
             {name: "id", 'type: "String", 'client: REVIEWS}
         ]}
 ];
+public final readonly & table<SubgraphOwnership> key(typename, 'client) ownership = table [
+    {typename: "Category", 'client: PRODUCT, key: (), fields: ["id", "title"]},
+    {typename: "Product", 'client: REVIEWS, key: "id", fields: ["reviews"]},
+    {typename: "Product", 'client: PRODUCT, key: "id", fields: ["price", "description", "title", "category"]},
+    {typename: "Review", 'client: REVIEWS, key: (), fields: ["author", "rating", "comment", "id"]}
+];
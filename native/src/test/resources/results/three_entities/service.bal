@@ -1,8 +1,11 @@
 import ballerina/graphql;
 import ballerina/log;
 
-final graphql:Client REVIEWS_CLIENT = check new graphql:Client("http://localhost:4002");
-final graphql:Client PRODUCT_CLIENT = check new graphql:Client("http://localhost:4001");
+final readonly & SubgraphClientDefaults SUBGRAPH_CLIENT_DEFAULTS = {httpVersion: "2.0", maxActiveConnections: -1, maxIdleConnections: 100, waitTime: 30, keepAlive: "AUTO", timeout: 60, retryCount: 0, retryInterval: 0, compression: "AUTO"};
+configurable SubgraphClientConfig REVIEWS_CLIENT_CONFIG = {};
+final graphql:Client REVIEWS_CLIENT = check new graphql:Client("http://localhost:4002", getClientConfiguration(REVIEWS_CLIENT_CONFIG));
+configurable SubgraphClientConfig PRODUCT_CLIENT_CONFIG = {};
+final graphql:Client PRODUCT_CLIENT = check new graphql:Client("http://localhost:4001", getClientConfiguration(PRODUCT_CLIENT_CONFIG));
 
 isolated function getClient(string clientName) returns graphql:Client {
     match clientName {
@@ -20,68 +23,83 @@ isolated function getClient(string clientName) returns graphql:Client {
 
 configurable int PORT = 9000;
 
+@graphql:ServiceConfig {
+    contextInit: initContext
+}
 isolated service on new graphql:Listener(PORT) {
     isolated function init() {
         log:printInfo(string `💃 Server ready at port: ${PORT}`);
     }
 
     isolated resource function get product(graphql:Field 'field, graphql:Context context, string id) returns Product?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, PRODUCT);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("product", fieldString, {"id": getParamAsString(id)});
-        productResponse|graphql:ClientError response = PRODUCT_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, PRODUCT, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("product", plan, {"id": id});
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, PRODUCT, PRODUCT_CLIENT, "product", plan.getRootSelection(), {"id": "String!"}, {"id": id});
+        productResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         map<json> result = {"id": id};
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             mergeToResultJson(result, <map<json>>response.data.product.toJson());
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Product", propertiesNotResolved, ["product"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "product", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
     isolated resource function get products(graphql:Field 'field, graphql:Context context) returns Product[]|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, PRODUCT);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("products", fieldString);
-        productsResponse|graphql:ClientError response = PRODUCT_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, PRODUCT, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("products", plan);
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, PRODUCT, PRODUCT_CLIENT, "products", plan.getRootSelection());
+        productsResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         Product[]? result = null;
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             result = response.data.products;
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Product", propertiesNotResolved, ["products"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "products", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
     isolated resource function get reviews(graphql:Field 'field, graphql:Context context, string productId) returns Review[]|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, REVIEWS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("reviews", fieldString, {"productId": getParamAsString(productId)});
-        reviewsResponse|graphql:ClientError response = REVIEWS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, REVIEWS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("reviews", plan, {"productId": productId});
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, REVIEWS, REVIEWS_CLIENT, "reviews", plan.getRootSelection(), {"productId": "String!"}, {"productId": productId});
+        reviewsResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         Review[]? result = null;
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             result = response.data.reviews;
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Review", propertiesNotResolved, ["reviews"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "reviews", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
@@ -12,3 +12,8 @@ public final readonly & table<QueryPlanEntry> key(typename) queryPlan = table [
             {name: "crew", 'type: "Astronaut", 'client: MISSIONS}
         ]}
 ];
+public final readonly & table<SubgraphOwnership> key(typename, 'client) ownership = table [
+    {typename: "Astronaut", 'client: MISSIONS, key: "id", fields: ["missions"]},
+    {typename: "Astronaut", 'client: ASTRONAUTS, key: "id", fields: ["name"]},
+    {typename: "Mission", 'client: MISSIONS, key: "id", fields: ["endDate", "designation", "startDate", "crew"]}
+];
@@ -1,8 +1,11 @@
 import ballerina/graphql;
 import ballerina/log;
 
-final graphql:Client MISSIONS_CLIENT = check new graphql:Client("http://localhost:4002");
-final graphql:Client ASTRONAUTS_CLIENT = check new graphql:Client("http://localhost:4001");
+final readonly & SubgraphClientDefaults SUBGRAPH_CLIENT_DEFAULTS = {httpVersion: "2.0", maxActiveConnections: -1, maxIdleConnections: 100, waitTime: 30, keepAlive: "AUTO", timeout: 60, retryCount: 0, retryInterval: 0, compression: "AUTO"};
+configurable SubgraphClientConfig MISSIONS_CLIENT_CONFIG = {};
+final graphql:Client MISSIONS_CLIENT = check new graphql:Client("http://localhost:4002", getClientConfiguration(MISSIONS_CLIENT_CONFIG));
+configurable SubgraphClientConfig ASTRONAUTS_CLIENT_CONFIG = {};
+final graphql:Client ASTRONAUTS_CLIENT = check new graphql:Client("http://localhost:4001", getClientConfiguration(ASTRONAUTS_CLIENT_CONFIG));
 
 isolated function getClient(string clientName) returns graphql:Client {
     match clientName {
@@ -20,88 +23,107 @@ isolated function getClient(string clientName) returns graphql:Client {
 
 configurable int PORT = 9000;
 
+@graphql:ServiceConfig {
+    contextInit: initContext
+}
 isolated service on new graphql:Listener(PORT) {
     isolated function init() {
         log:printInfo(string `💃 Server ready at port: ${PORT}`);
     }
 
     isolated resource function get astronaut(graphql:Field 'field, graphql:Context context, string id) returns Astronaut?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, ASTRONAUTS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("astronaut", fieldString, {"id": getParamAsString(id)});
-        astronautResponse|graphql:ClientError response = ASTRONAUTS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, ASTRONAUTS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("astronaut", plan, {"id": id});
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, ASTRONAUTS, ASTRONAUTS_CLIENT, "astronaut", plan.getRootSelection(), {"id": "ID!"}, {"id": id});
+        astronautResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         map<json> result = {"id": id};
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             mergeToResultJson(result, <map<json>>response.data.astronaut.toJson());
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Astronaut", propertiesNotResolved, ["astronaut"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "astronaut", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
     isolated resource function get astronauts(graphql:Field 'field, graphql:Context context) returns Astronaut?[]?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, ASTRONAUTS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("astronauts", fieldString);
-        astronautsResponse|graphql:ClientError response = ASTRONAUTS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, ASTRONAUTS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("astronauts", plan);
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, ASTRONAUTS, ASTRONAUTS_CLIENT, "astronauts", plan.getRootSelection());
+        astronautsResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         Astronaut?[]? result = null;
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             result = response.data.astronauts;
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Astronaut", propertiesNotResolved, ["astronauts"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "astronauts", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
     isolated resource function get mission(graphql:Field 'field, graphql:Context context, string id) returns Mission?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, MISSIONS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("mission", fieldString, {"id": getParamAsString(id)});
-        missionResponse|graphql:ClientError response = MISSIONS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, MISSIONS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("mission", plan, {"id": id});
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, MISSIONS, MISSIONS_CLIENT, "mission", plan.getRootSelection(), {"id": "ID!"}, {"id": id});
+        missionResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         map<json> result = {"id": id};
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             mergeToResultJson(result, <map<json>>response.data.mission.toJson());
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Mission", propertiesNotResolved, ["mission"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "mission", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 
     isolated resource function get missions(graphql:Field 'field, graphql:Context context) returns Mission?[]?|error {
-        QueryFieldClassifier classifier = new ('field, queryPlan, MISSIONS);
-        string fieldString = classifier.getFieldString();
-        UnresolvableField[] propertiesNotResolved = classifier.getUnresolvableFields();
-        string queryString = wrapwithQuery("missions", fieldString);
-        missionsResponse|graphql:ClientError response = MISSIONS_CLIENT->execute(queryString);
+        FetchPlan plan = new ('field, MISSIONS, queryPlan, ownership);
+        string? cacheKey = getResponseCacheKey("missions", plan);
+        CachedValue? cachedResponse = cacheKey is string ? responseCache.get(cacheKey) : ();
+        if cachedResponse is CachedValue {
+            return cachedResponse.value.cloneWithType();
+        }
+        json|graphql:ClientError sharedResponse = executeRootField(context, MISSIONS, MISSIONS_CLIENT, "missions", plan.getRootSelection());
+        missionsResponse|error response = sharedResponse is json ? sharedResponse.cloneWithType() : sharedResponse;
         Mission?[]? result = null;
         graphql:ErrorDetail[] errors = [];
-        if response is graphql:ClientError {
+        if response is error {
             appendUnableToResolveErrorDetail(errors, 'field);
         } else {
             result = response.data.missions;
             appendErrorDetailsFromResponse(errors, response?.errors);
         }
-        Resolver resolver = new (queryPlan, result.toJson(), "Mission", propertiesNotResolved, ["missions"], errors);
+        Resolver resolver = new (plan, result.toJson(), errors, loader = getEntityLoader(context));
         json finalResult = resolver.getResult();
         addErrorsToGraphqlContext(context, errors);
+        cacheResponse(cacheKey, "missions", plan, finalResult, errors);
         return finalResult.cloneWithType();
     }
 